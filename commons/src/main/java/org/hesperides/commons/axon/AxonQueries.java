@@ -26,14 +26,24 @@ import org.axonframework.queryhandling.responsetypes.ResponseTypes;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 public abstract class AxonQueries {
 
     private final QueryGateway queryGateway;
+    private final Executor queryExecutor;
 
     protected AxonQueries(QueryGateway queryGateway) {
+        // Sans exécuteur dédié, les variantes asynchrones s'exécutent dans le thread appelant
+        this(queryGateway, Runnable::run);
+    }
+
+    protected AxonQueries(QueryGateway queryGateway, Executor queryExecutor) {
         this.queryGateway = queryGateway;
+        this.queryExecutor = queryExecutor;
     }
 
     protected <R> R querySync(Object query, Class<R> responseType) {
@@ -59,4 +69,41 @@ public abstract class AxonQueries {
             throw new QueryExecutionException(e.getMessage(), e);
         }
     }
+
+    /*
+     * Le SimpleQueryBus exécute les query handlers dans le thread appelant : le CompletableFuture
+     * renvoyé par le QueryGateway est donc déjà terminé. Les variantes asynchrones exécutent
+     * la requête dans l'exécuteur fourni afin que des requêtes indépendantes puissent être menées en parallèle.
+     */
+
+    protected <R> CompletableFuture<R> queryAsync(Object query, Class<R> responseType) {
+        return CompletableFuture.supplyAsync(() -> querySync(query, responseType), queryExecutor);
+    }
+
+    protected <R> CompletableFuture<Optional<R>> queryAsyncOptional(Object query, Class<R> responseType) {
+        return CompletableFuture.supplyAsync(() -> querySyncOptional(query, responseType), queryExecutor);
+    }
+
+    protected <R> CompletableFuture<List<R>> queryAsyncList(Object query, Class<R> responseType) {
+        return CompletableFuture.supplyAsync(() -> querySyncList(query, responseType), queryExecutor);
+    }
+
+    /**
+     * Attend le résultat d'une requête asynchrone en propageant telle quelle l'exception éventuelle
+     * (ModuleNotFoundException...), afin que les appelants la traitent comme celle d'une requête synchrone
+     *
+     * @param <R>    type du résultat de la requête
+     * @param future résultat d'une requête asynchrone (cf. queryAsync, queryAsyncOptional et queryAsyncList)
+     * @return le résultat de la requête, une fois celle-ci terminée
+     */
+    public static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
 }
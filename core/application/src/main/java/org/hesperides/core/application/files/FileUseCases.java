@@ -24,6 +24,7 @@ import org.hesperides.core.application.platforms.properties.PropertyType;
 import org.hesperides.core.application.platforms.properties.PropertyValuationBuilder;
 import org.hesperides.core.application.platforms.properties.PropertyValuationContext;
 import org.hesperides.core.domain.files.InstanceFileView;
+import org.hesperides.core.domain.files.ValuedInstanceFileView;
 import org.hesperides.core.domain.modules.entities.Module;
 import org.hesperides.core.domain.modules.exceptions.ModuleNotFoundException;
 import org.hesperides.core.domain.modules.exceptions.TemplateNotFoundException;
@@ -33,6 +34,7 @@ import org.hesperides.core.domain.platforms.entities.DeployedModule;
 import org.hesperides.core.domain.platforms.entities.Platform;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.IterablePropertyVisitor;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.SimplePropertyVisitor;
 import org.hesperides.core.domain.platforms.exceptions.InstanceNotFoundException;
 import org.hesperides.core.domain.platforms.exceptions.PlatformNotFoundException;
@@ -56,13 +58,17 @@ import static org.hesperides.core.application.platforms.properties.PropertyType.
 @Component
 public class FileUseCases {
 
+    private static final String PROPERTY_VISITORS_CACHE_KIND = "files";
+
     private final PlatformQueries platformQueries;
     private final ModuleQueries moduleQueries;
+    private final PropertyVisitorsSequenceCache propertyVisitorsSequenceCache;
 
     @Autowired
-    public FileUseCases(PlatformQueries platformQueries, ModuleQueries moduleQueries) {
+    public FileUseCases(PlatformQueries platformQueries, ModuleQueries moduleQueries, PropertyVisitorsSequenceCache propertyVisitorsSequenceCache) {
         this.platformQueries = platformQueries;
         this.moduleQueries = moduleQueries;
+        this.propertyVisitorsSequenceCache = propertyVisitorsSequenceCache;
     }
 
     /**
@@ -118,30 +124,75 @@ public class FileUseCases {
         Module.Key moduleKey = new Module.Key(moduleName, moduleVersion, TemplateContainer.getVersionType(isWorkingCopy));
         validateRequiredEntities(platformKey, moduleKey, modulePath, getModuleValuesIfInstanceDoesntExist, instanceName);
 
-        PlatformView platform = platformQueries.getOptionalPlatform(platformKey).orElseThrow(() -> new PlatformNotFoundException(platformKey));
+        PlatformView platform = platformQueries.getOptionalPlatformWithDeployedModule(platformKey, DeployedModule.generatePropertiesPath(moduleKey, modulePath))
+                .orElseThrow(() -> new PlatformNotFoundException(platformKey));
         ModuleView module = moduleQueries.getOptionalModule(moduleKey).orElseThrow(() -> new ModuleNotFoundException(moduleKey));
 
-        List<TemplateView> technosAndModuleTemplates = Stream.concat(
-                module.getTechnos().stream().map(TechnoView::getTemplates).flatMap(List::stream),
-                module.getTemplates().stream())
+        // La valorisation ne dépend pas du template : elle n'est calculée qu'une seule fois pour tous les fichiers
+        Map<String, Object> scopes = buildScopes(platform, modulePath, moduleKey, moduleQueries.getPropertiesModel(moduleKey), instanceName, false);
+
+        return getTechnosAndModuleTemplates(module).stream()
+                .map(template -> getValorizedInstanceFile(template, scopes, platform, moduleKey, instanceName, modulePath, getModuleValuesIfInstanceDoesntExist))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Renvoie l'ensemble des fichiers d'une instance (ou d'un module) avec leur contenu valorisé,
+     * en une seule passe : la plateforme, le module et le modèle de propriétés ne sont récupérés qu'une fois,
+     * et la valorisation est partagée par tous les templates.
+     */
+    public List<ValuedInstanceFileView> getValuedFiles(
+            String applicationName,
+            String platformName,
+            String modulePath,
+            String moduleName,
+            String moduleVersion,
+            String instanceName,
+            boolean isWorkingCopy,
+            boolean getModuleValuesIfInstanceDoesntExist,
+            User user) {
+
+        Platform.Key platformKey = new Platform.Key(applicationName, platformName);
+        Module.Key moduleKey = new Module.Key(moduleName, moduleVersion, TemplateContainer.getVersionType(isWorkingCopy));
+        validateRequiredEntities(platformKey, moduleKey, modulePath, getModuleValuesIfInstanceDoesntExist, instanceName);
+
+        PlatformView platform = platformQueries.getOptionalPlatformWithDeployedModule(platformKey, DeployedModule.generatePropertiesPath(moduleKey, modulePath))
+                .orElseThrow(() -> new PlatformNotFoundException(platformKey));
+        ModuleView module = moduleQueries.getOptionalModule(moduleKey).orElseThrow(() -> new ModuleNotFoundException(moduleKey));
+        List<AbstractPropertyView> modulePropertiesModel = moduleQueries.getPropertiesModel(moduleKey);
+
+        // Comme pour `getFiles`, les mots de passe ne sont jamais masqués dans les locations et filenames,
+        // alors qu'ils le sont dans le contenu comme pour `getFile`
+        Map<String, Object> scopes = buildScopes(platform, modulePath, moduleKey, modulePropertiesModel, instanceName, false);
+        boolean shouldHidePasswordProperties = platform.isProductionPlatform() && !user.hasProductionRoleForApplication(applicationName);
+        Map<String, Object> contentScopes = shouldHidePasswordProperties
+                ? buildScopes(platform, modulePath, moduleKey, modulePropertiesModel, instanceName, true)
+                : scopes;
+
+        return getTechnosAndModuleTemplates(module).stream()
+                .map(template -> new ValuedInstanceFileView(
+                        getValorizedInstanceFile(template, scopes, platform, moduleKey, instanceName, modulePath, getModuleValuesIfInstanceDoesntExist),
+                        PropertyValuationBuilder.replaceMustachePropertiesWithValues(template.getContent(), contentScopes)))
                 .collect(Collectors.toList());
+    }
 
-        return technosAndModuleTemplates.stream()
-                .map(template ->
-                        getValorizedInstanceFile(template, platform, moduleKey, moduleQueries.getPropertiesModel(moduleKey), instanceName, modulePath, getModuleValuesIfInstanceDoesntExist))
+    private static List<TemplateView> getTechnosAndModuleTemplates(ModuleView module) {
+        return Stream.concat(
+                module.getTechnos().stream().map(TechnoView::getTemplates).flatMap(List::stream),
+                module.getTemplates().stream())
                 .collect(Collectors.toList());
     }
 
     private static InstanceFileView getValorizedInstanceFile(TemplateView template,
+                                                             Map<String, Object> scopes,
                                                              PlatformView platform,
                                                              Module.Key moduleKey,
-                                                             List<AbstractPropertyView> modulePropertiesModel,
                                                              String instanceName,
                                                              String modulePath,
                                                              boolean getModuleValuesIfInstanceDoesntExist) {
 
-        String location = valorizeWithModuleAndGlobalAndInstanceProperties(template.getLocation(), platform, modulePath, moduleKey, modulePropertiesModel, instanceName, false);
-        String filename = valorizeWithModuleAndGlobalAndInstanceProperties(template.getFilename(), platform, modulePath, moduleKey, modulePropertiesModel, instanceName, false);
+        String location = PropertyValuationBuilder.replaceMustachePropertiesWithValues(template.getLocation(), scopes);
+        String filename = PropertyValuationBuilder.replaceMustachePropertiesWithValues(template.getFilename(), scopes);
         return new InstanceFileView(location, filename, platform, modulePath, moduleKey, instanceName, template, getModuleValuesIfInstanceDoesntExist);
     }
 
@@ -166,9 +217,11 @@ public class FileUseCases {
         Optional<TemplateView> template = getTemplate(module, templateName, templateNamespace);
         String templateContent = template.orElseThrow(() -> new TemplateNotFoundException(moduleKey, templateName)).getContent();
 
-        PlatformView platform = platformQueries.getOptionalPlatform(platformKey).orElseThrow(() -> new PlatformNotFoundException(platformKey));
+        PlatformView platform = platformQueries.getOptionalPlatformWithDeployedModule(platformKey, DeployedModule.generatePropertiesPath(moduleKey, modulePath))
+                .orElseThrow(() -> new PlatformNotFoundException(platformKey));
         boolean shouldHidePasswordProperties = platform.isProductionPlatform() && !user.hasProductionRoleForApplication(applicationName);
-        return valorizeWithModuleAndGlobalAndInstanceProperties(templateContent, platform, modulePath, moduleKey, moduleQueries.getPropertiesModel(moduleKey), instanceName, shouldHidePasswordProperties);
+        Map<String, Object> scopes = buildScopes(platform, modulePath, moduleKey, moduleQueries.getPropertiesModel(moduleKey), instanceName, shouldHidePasswordProperties);
+        return PropertyValuationBuilder.replaceMustachePropertiesWithValues(templateContent, scopes);
     }
 
     private void validateRequiredEntities(Platform.Key platformKey,
@@ -192,14 +245,42 @@ public class FileUseCases {
                                                                    String instanceName,
                                                                    boolean shouldHidePasswordProperties) {
 
-        PropertyVisitorsSequence preparedPropertyVisitors = buildPropertyVisitorsSequence(
-                platform, modulePath, moduleKey, modulePropertiesModels, instanceName, shouldHidePasswordProperties)
-                .removeMustachesInPropertyValues()
-                .passOverPropertyValuesToChildItems();
+        PropertyVisitorsSequence preparedPropertyVisitors = buildPreparedPropertyVisitorsSequence(
+                platform, modulePath, moduleKey, modulePropertiesModels, instanceName, shouldHidePasswordProperties);
         Map<String, Object> scopes = propertiesToScopes(preparedPropertyVisitors);
         return PropertyValuationBuilder.replaceMustachePropertiesWithValues(input, scopes);
     }
 
+    /**
+     * Les séquences de propriétés valorisées sont mises en cache pour une version donnée de la plateforme,
+     * cf. PropertyVisitorsSequenceCache.
+     */
+    private Map<String, Object> buildScopes(PlatformView platform,
+                                            String modulePath,
+                                            Module.Key moduleKey,
+                                            List<AbstractPropertyView> modulePropertiesModels,
+                                            String instanceName,
+                                            boolean shouldHidePasswordProperties) {
+
+        PropertyVisitorsSequenceCache.Key cacheKey = new PropertyVisitorsSequenceCache.Key(PROPERTY_VISITORS_CACHE_KIND,
+                DeployedModule.generatePropertiesPath(moduleKey, modulePath), instanceName, modulePropertiesModels, shouldHidePasswordProperties);
+        PropertyVisitorsSequence preparedPropertyVisitors = propertyVisitorsSequenceCache.get(platform, cacheKey, () ->
+                buildPreparedPropertyVisitorsSequence(platform, modulePath, moduleKey, modulePropertiesModels, instanceName, shouldHidePasswordProperties));
+        return propertiesToScopes(preparedPropertyVisitors);
+    }
+
+    private static PropertyVisitorsSequence buildPreparedPropertyVisitorsSequence(PlatformView platform,
+                                                                                  String modulePath,
+                                                                                  Module.Key moduleKey,
+                                                                                  List<AbstractPropertyView> modulePropertiesModels,
+                                                                                  String instanceName,
+                                                                                  boolean shouldHidePasswordProperties) {
+
+        return buildPropertyVisitorsSequence(platform, modulePath, moduleKey, modulePropertiesModels, instanceName, shouldHidePasswordProperties)
+                .removeMustachesInPropertyValues()
+                .passOverPropertyValuesToChildItems();
+    }
+
     private static PropertyVisitorsSequence buildPropertyVisitorsSequence(PlatformView platform,
                                                                           String modulePath,
                                                                           Module.Key moduleKey,
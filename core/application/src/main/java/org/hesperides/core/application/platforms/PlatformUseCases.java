@@ -2,14 +2,10 @@ package org.hesperides.core.application.platforms;
 
 import lombok.extern.slf4j.Slf4j;
 import org.hesperides.core.domain.events.commands.EventCommands;
-import org.hesperides.core.domain.events.queries.EventQueries;
-import org.hesperides.core.domain.events.queries.EventView;
 import org.hesperides.core.domain.exceptions.ForbiddenOperationException;
 import org.hesperides.core.domain.modules.entities.Module;
 import org.hesperides.core.domain.modules.queries.ModuleQueries;
 import org.hesperides.core.domain.modules.queries.ModuleView;
-import org.hesperides.core.domain.platforms.PlatformCreatedEvent;
-import org.hesperides.core.domain.platforms.PlatformUpdatedEvent;
 import org.hesperides.core.domain.platforms.commands.PlatformCommands;
 import org.hesperides.core.domain.platforms.entities.DeployedModule;
 import org.hesperides.core.domain.platforms.entities.Platform;
@@ -28,17 +24,17 @@ import org.hesperides.core.domain.technos.queries.TechnoQueries;
 import org.hesperides.core.domain.technos.queries.TechnoView;
 import org.hesperides.core.domain.templatecontainers.queries.TemplateContainerKeyView;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
-import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
+import static org.hesperides.commons.axon.AxonQueries.join;
 import static org.apache.logging.log4j.util.Strings.isBlank;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
@@ -52,9 +48,6 @@ public class PlatformUseCases {
     private final TechnoQueries technoQueries;
     private final ApplicationDirectoryGroupsQueries applicationDirectoryGroupsQueries;
     private final EventCommands eventCommands;
-    private final EventQueries eventQueries;
-    @Value("${hesperides.events-query-size-factor}")
-    private Integer eventsQuerySizeFactor;
 
     @Autowired
     public PlatformUseCases(PlatformCommands platformCommands,
@@ -62,15 +55,13 @@ public class PlatformUseCases {
                             ModuleQueries moduleQueries,
                             TechnoQueries technoQueries,
                             ApplicationDirectoryGroupsQueries applicationDirectoryGroupsQueries,
-                            EventCommands eventCommands,
-                            EventQueries eventQueries) {
+                            EventCommands eventCommands) {
         this.platformCommands = platformCommands;
         this.platformQueries = platformQueries;
         this.moduleQueries = moduleQueries;
         this.technoQueries = technoQueries;
         this.applicationDirectoryGroupsQueries = applicationDirectoryGroupsQueries;
         this.eventCommands = eventCommands;
-        this.eventQueries = eventQueries;
     }
 
     public static boolean isRestrictedPlatform(User user, PlatformView platform) {
@@ -133,6 +124,15 @@ public class PlatformUseCases {
         return getPlatform(platformKey, false);
     }
 
+    /**
+     * Plateforme ne contenant que le module déployé correspondant à ce propertiesPath,
+     * suffisante pour valoriser les propriétés de ce module
+     */
+    public PlatformView getPlatformWithDeployedModule(Platform.Key platformKey, String propertiesPath) {
+        return platformQueries.getOptionalPlatformWithDeployedModule(platformKey, propertiesPath)
+                .orElseThrow(() -> new PlatformNotFoundException(platformKey));
+    }
+
     public PlatformView getPlatform(Platform.Key platformKey, boolean withPasswordFlag) {
         PlatformView platform = platformQueries.getOptionalPlatform(platformKey)
                 .orElseThrow(() -> new PlatformNotFoundException(platformKey));
@@ -200,8 +200,11 @@ public class PlatformUseCases {
                 .distinct()
                 .collect(toList());
 
-        List<ModuleView> allPlatformsModules = moduleQueries.getModulesWithin(allPlatformsModuleKeys);
-        List<Module.Key> modulesWithPassword = moduleQueries.getModulesWithPasswordWithin(allPlatformsModuleKeys);
+        // Requêtes indépendantes, menées en parallèle
+        CompletableFuture<List<ModuleView>> allPlatformsModulesFuture = moduleQueries.getModulesWithinAsync(allPlatformsModuleKeys);
+        CompletableFuture<List<Module.Key>> modulesWithPasswordFuture = moduleQueries.getModulesWithPasswordWithinAsync(allPlatformsModuleKeys);
+        List<ModuleView> allPlatformsModules = join(allPlatformsModulesFuture);
+        List<Module.Key> modulesWithPassword = join(modulesWithPasswordFuture);
 
         List<Techno.Key> allModulesTechnoKeys = allPlatformsModules.stream()
                 // On exclut les modules dont on sait déjà qu'ils contiennent au moins un mot de passe
@@ -302,59 +305,11 @@ public class PlatformUseCases {
         return platformCommands.createPlatform(platform, user);
     }
 
-    public List<PlatformEventView> getPlatformEvents(Platform.Key platformKey, Integer clientPage, Integer size) {
-
-        // Certains évènements de mise à jour de plateforme ne contiennent
-        // que l'incrémentation du version_id. On ne peut donc pas appliquer
-        // la pagination sur la requête à l'EventStore mais une fois qu'on a
-        // la liste des vraies modifications de la plateforme.
-
-        // Mais comme dans certains cas le nombre d'évènements est si élevé
-        // que les performances se dégradent significativement.
-
-        // Pour palier à ça, on récupère un nombre d'évènements supérieur à
-        // ce qui est demandé en retour (eventsQuerySizeFactor) et si ce
-        // n'est pas suffisant, on récupère les évènements suivants.
-
-        // La pagination finale est appliquée à la toute fin (une fois qu'on
-        // a suffisamment d'évènements pour renvoyer le résultat attendu).
-
-        // Cela nous permet de gagner en performances tout en restant pertinent
-        // vis à vis des données attendues. L'inconvénient est que le plus on
-        // remonte dans le passé, plus le temps de traitement augmente.
-
-        // Mais on part du principe que les évènements les plus consultés sont
-        // les derniers évènements en date et cette logique ne s'applique a
-        // priori que dans le cas des mises à jour d'une plateforme.
-
+    public List<PlatformEventView> getPlatformEvents(Platform.Key platformKey, Integer page, Integer size) {
+        // Seules les modifications significatives (hors simple incrémentation du version_id)
+        // sont enregistrées dans l'historique, la pagination est donc appliquée directement par la projection
         String platformId = findPlatformId(platformKey);
-
-        List<PlatformEventView> platformEvents = new ArrayList<>();
-        List<EventView> rawEvents = new ArrayList<>();
-        // On s'arrête lorsqu'on a assez d'évènements de mises à jour de la
-        // plateforme à retourner, tenant compte de la pagination
-        for (int queryPage = 1; platformEvents.size() < (clientPage * size); queryPage++) {
-
-            List<EventView> newRawEvents = eventQueries.getLastToFirstEventsByTypes(
-                    platformId, new Class[]{PlatformCreatedEvent.class, PlatformUpdatedEvent.class},
-                    queryPage,
-                    eventsQuerySizeFactor * size);
-
-            if (isEmpty(newRawEvents)) {
-                break;
-            }
-            rawEvents.addAll(newRawEvents);
-            platformEvents = PlatformEventView.buildPlatformEvents(rawEvents);
-        }
-        log.debug("${queryPage} querie(s) of ${eventsQuerySizeFactor * size} platform events " +
-                "to get ${size} elements for page ${clientPage} of platform update events");
-        // Tri et pagination appliqués à la toute fin
-        return platformEvents
-                .stream()
-                .sorted(comparing(PlatformEventView::getTimestamp).reversed())
-                .skip((clientPage - 1) * size)
-                .limit(size)
-                .collect(toList());
+        return platformQueries.getPlatformEvents(platformId, page, size);
     }
 
     public String findPlatformId(Platform.Key platformKey) {
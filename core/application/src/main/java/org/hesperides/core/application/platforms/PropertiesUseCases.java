@@ -22,25 +22,30 @@ import org.hesperides.core.domain.platforms.entities.properties.ValuedProperty;
 import org.hesperides.core.domain.platforms.entities.properties.diff.PropertiesDiff;
 import org.hesperides.core.domain.platforms.entities.properties.diff.PropertiesDiff.ComparisonMode;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
 import org.hesperides.core.domain.platforms.exceptions.DeployedModuleNotFoundException;
 import org.hesperides.core.domain.platforms.exceptions.PlatformNotFoundException;
 import org.hesperides.core.domain.platforms.queries.PlatformQueries;
 import org.hesperides.core.domain.platforms.queries.views.DeployedModuleView;
 import org.hesperides.core.domain.platforms.queries.views.PlatformView;
 import org.hesperides.core.domain.platforms.queries.views.PropertiesEventView;
+import org.hesperides.core.domain.platforms.queries.views.PropertiesEventsBuilder;
 import org.hesperides.core.domain.platforms.queries.views.properties.*;
 import org.hesperides.core.domain.platforms.queries.views.properties.PlatformDetailedPropertiesView.DetailedPropertyView;
 import org.hesperides.core.domain.platforms.queries.views.properties.PlatformDetailedPropertiesView.ModuleDetailedPropertyView;
+import org.hesperides.core.domain.security.AuthenticatedQueryExecutor;
 import org.hesperides.core.domain.security.entities.User;
 import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
 import org.hesperides.core.domain.templatecontainers.queries.PropertyView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,6 +54,7 @@ import static java.util.Comparator.comparing;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.*;
 import static org.apache.commons.lang3.StringUtils.*;
+import static org.hesperides.commons.axon.AxonQueries.join;
 import static org.hesperides.core.application.platforms.PlatformUseCases.isRestrictedPlatform;
 import static org.hesperides.core.application.platforms.properties.PropertyType.GLOBAL;
 import static org.hesperides.core.application.platforms.properties.PropertyType.WITHOUT_MODEL;
@@ -57,31 +63,44 @@ import static org.hesperides.core.domain.platforms.entities.DeployedModule.extra
 import static org.hesperides.core.domain.platforms.entities.Platform.GLOBAL_PROPERTIES_PATH;
 import static org.hesperides.core.domain.platforms.entities.properties.AbstractValuedProperty.containsDuplicateKeys;
 import static org.hesperides.core.domain.platforms.queries.views.properties.AbstractValuedPropertyView.excludeUnusedValues;
+import static org.hesperides.core.domain.platforms.queries.views.properties.AbstractValuedPropertyView.toDomainAbstractValuedProperties;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 @Component
 @Slf4j
 public class PropertiesUseCases {
 
+    private static final String MODULE_PROPERTY_VISITORS_CACHE_KIND = "module-properties";
+    private static final String GLOBAL_PROPERTY_VISITORS_CACHE_KIND = "global-properties";
+
     private final PlatformCommands platformCommands;
     private final PlatformQueries platformQueries;
     private final PlatformUseCases platformUseCases;
     private final ModuleQueries moduleQueries;
     private final EventQueries eventQueries;
     private final PropertyReferenceScanner propertyReferenceScanner;
+    private final PropertyVisitorsSequenceCache propertyVisitorsSequenceCache;
+    private final AuthenticatedQueryExecutor queryExecutor;
+    private final int propertiesEventsBatchSize;
 
     @Autowired
     public PropertiesUseCases(PlatformCommands platformCommands,
                               PlatformQueries platformQueries,
                               PlatformUseCases platformUseCases, ModuleQueries moduleQueries,
                               EventQueries eventQueries,
-                              PropertyReferenceScanner propertyReferenceScanner) {
+                              PropertyReferenceScanner propertyReferenceScanner,
+                              PropertyVisitorsSequenceCache propertyVisitorsSequenceCache,
+                              AuthenticatedQueryExecutor queryExecutor,
+                              @Value("${hesperides.properties-events-batch-size:100}") int propertiesEventsBatchSize) {
         this.platformCommands = platformCommands;
         this.platformQueries = platformQueries;
         this.platformUseCases = platformUseCases;
         this.moduleQueries = moduleQueries;
         this.eventQueries = eventQueries;
         this.propertyReferenceScanner = propertyReferenceScanner;
+        this.propertyVisitorsSequenceCache = propertyVisitorsSequenceCache;
+        this.queryExecutor = queryExecutor;
+        this.propertiesEventsBatchSize = propertiesEventsBatchSize;
     }
 
     public static Long getPropertiesVersionId(PlatformView platform, String propertiesPath) {
@@ -100,6 +119,29 @@ public class PropertiesUseCases {
                 .orElse(DeployedModule.INIT_PROPERTIES_VERSION_ID);
     }
 
+    /**
+     * Les séquences de propriétés valorisées sont mises en cache pour une version donnée de la plateforme,
+     * cf. PropertyVisitorsSequenceCache.
+     */
+    private PropertyVisitorsSequence getModulePropertyVisitorsSequence(PlatformView platform,
+                                                                       String modulePath,
+                                                                       Module.Key moduleKey,
+                                                                       List<AbstractPropertyView> modulePropertiesModels,
+                                                                       String instanceName,
+                                                                       boolean shouldHidePasswordProperties) {
+
+        PropertyVisitorsSequenceCache.Key cacheKey = new PropertyVisitorsSequenceCache.Key(MODULE_PROPERTY_VISITORS_CACHE_KIND,
+                DeployedModule.generatePropertiesPath(moduleKey, modulePath), instanceName, modulePropertiesModels, shouldHidePasswordProperties);
+        return propertyVisitorsSequenceCache.get(platform, cacheKey, () -> buildModulePropertyVisitorsSequence(
+                platform, modulePath, moduleKey, modulePropertiesModels, instanceName, shouldHidePasswordProperties));
+    }
+
+    private PropertyVisitorsSequence getGlobalPropertyVisitorsSequence(PlatformView platform) {
+        PropertyVisitorsSequenceCache.Key cacheKey = new PropertyVisitorsSequenceCache.Key(GLOBAL_PROPERTY_VISITORS_CACHE_KIND,
+                GLOBAL_PROPERTIES_PATH, null, Collections.emptyList(), false);
+        return propertyVisitorsSequenceCache.get(platform, cacheKey, () -> buildPropertyVisitorsSequenceForGlobals(platform));
+    }
+
     private static PropertyVisitorsSequence buildModulePropertyVisitorsSequence(PlatformView platform,
                                                                                 String modulePath,
                                                                                 Module.Key moduleKey,
@@ -126,74 +168,100 @@ public class PropertiesUseCases {
     }
 
     public Long getPropertiesVersionId(Platform.Key platformKey, String propertiesPath, Long timestamp) {
-        PlatformView platform = getPlatform(platformKey, timestamp);
+        PlatformView platform = getPlatform(platformKey, propertiesPath, timestamp);
         return getPropertiesVersionId(platform, propertiesPath);
     }
 
-    public PropertiesDiff getPropertiesDiff(Platform.Key fromPlatformKey,
-                                            String fromPropertiesPath,
-                                            String fromInstanceName,
-                                            Platform.Key toPlatformKey,
-                                            String toPropertiesPath,
-                                            String toInstanceName,
-                                            @Nullable Long timestamp,
-                                            @Nullable Long originTimestamp,
-                                            ComparisonMode comparisonMode,
-                                            User user) {
-
-        PlatformView fromPlatform = getPlatform(fromPlatformKey, originTimestamp);
-        PlatformView toPlatform = getPlatform(toPlatformKey, timestamp);
-
-        PropertiesDiff propertiesDiff;
-        if (Platform.isGlobalPropertiesPath(fromPropertiesPath) && Platform.isGlobalPropertiesPath(toPropertiesPath)) {
-            PropertyVisitorsSequence fromPropertyVisitors = buildPropertyVisitorsSequenceForGlobals(fromPlatform);
-            PropertyVisitorsSequence toPropertyVisitors = buildPropertyVisitorsSequenceForGlobals(toPlatform);
-            propertiesDiff = new PropertiesDiff(fromPropertyVisitors, toPropertyVisitors, comparisonMode);
-
-        } else {
-
-            if (Platform.isGlobalPropertiesPath(fromPropertiesPath) || Platform.isGlobalPropertiesPath(toPropertiesPath)) {
-                throw new IllegalArgumentException("You can't compare global properties with module or instance properties");
-            }
-
-            Module.Key fromModuleKey = Module.Key.fromPropertiesPath(fromPropertiesPath);
-            String fromModulePath = extractModulePathFromPropertiesPath(fromPropertiesPath);
-            Module.Key toModuleKey = Module.Key.fromPropertiesPath(toPropertiesPath);
-            String toModulePath = extractModulePathFromPropertiesPath(toPropertiesPath);
-
-            // Note: on devrait passer le timestamp aux 2 appels ci-dessous, cf. issue #724
-            List<AbstractPropertyView> fromModulePropertiesModels = moduleQueries.getPropertiesModel(fromModuleKey);
-            List<AbstractPropertyView> toModulePropertiesModels = moduleQueries.getPropertiesModel(toModuleKey);
-
-            boolean fromShouldHidePasswordProperties = isRestrictedPlatform(user, fromPlatform);
-            boolean toShouldHidePasswordProperties = isRestrictedPlatform(user, toPlatform);
-
-            PropertyVisitorsSequence fromPropertyVisitors = buildModulePropertyVisitorsSequence(
-                    fromPlatform, fromModulePath, fromModuleKey,
-                    fromModulePropertiesModels,
-                    fromInstanceName, fromShouldHidePasswordProperties);
-            PropertyVisitorsSequence toPropertyVisitors;
-            try {
-                toPropertyVisitors = buildModulePropertyVisitorsSequence(
-                        toPlatform, toModulePath, toModuleKey,
-                        toModulePropertiesModels,
-                        toInstanceName, toShouldHidePasswordProperties);
-            } catch (ModuleNotFoundException error) {
-                if (timestamp != null) { // We make the error message more explicit:
-                    error = new ModuleNotFoundException(toModuleKey, toModulePath, timestamp);
-                }
-                throw error;
-            }
+    /**
+     * Les 2 plateformes et les modèles de propriétés des 2 modules sont chargés en parallèle
+     */
+    public CompletableFuture<PropertiesDiff> getPropertiesDiff(Platform.Key fromPlatformKey,
+                                                               String fromPropertiesPath,
+                                                               String fromInstanceName,
+                                                               Platform.Key toPlatformKey,
+                                                               String toPropertiesPath,
+                                                               String toInstanceName,
+                                                               @Nullable Long timestamp,
+                                                               @Nullable Long originTimestamp,
+                                                               ComparisonMode comparisonMode,
+                                                               User user) {
+
+        CompletableFuture<PlatformView> fromPlatformFuture = queryExecutor.supplyAsync(() -> getPlatform(fromPlatformKey, fromPropertiesPath, originTimestamp));
+        CompletableFuture<PlatformView> toPlatformFuture = queryExecutor.supplyAsync(() -> getPlatform(toPlatformKey, toPropertiesPath, timestamp));
+        // Note: on devrait passer le timestamp aux 2 appels ci-dessous, cf. issue #724
+        CompletableFuture<List<AbstractPropertyView>> fromModulePropertiesModelsFuture = getModulePropertiesModelAsync(fromPropertiesPath);
+        CompletableFuture<List<AbstractPropertyView>> toModulePropertiesModelsFuture = getModulePropertiesModelAsync(toPropertiesPath);
+
+        // Les erreurs sont remontées dans le même ordre que lors d'un chargement séquentiel
+        return CompletableFuture.allOf(fromPlatformFuture, toPlatformFuture, fromModulePropertiesModelsFuture, toModulePropertiesModelsFuture)
+                .handle((ignored, error) -> {
+                    PlatformView fromPlatform = join(fromPlatformFuture);
+                    PlatformView toPlatform = join(toPlatformFuture);
+
+                    PropertiesDiff propertiesDiff;
+                    if (Platform.isGlobalPropertiesPath(fromPropertiesPath) && Platform.isGlobalPropertiesPath(toPropertiesPath)) {
+                        PropertyVisitorsSequence fromPropertyVisitors = getGlobalPropertyVisitorsSequence(fromPlatform);
+                        PropertyVisitorsSequence toPropertyVisitors = getGlobalPropertyVisitorsSequence(toPlatform);
+                        propertiesDiff = new PropertiesDiff(fromPropertyVisitors, toPropertyVisitors, comparisonMode);
+
+                    } else {
+
+                        if (Platform.isGlobalPropertiesPath(fromPropertiesPath) || Platform.isGlobalPropertiesPath(toPropertiesPath)) {
+                            throw new IllegalArgumentException("You can't compare global properties with module or instance properties");
+                        }
+
+                        List<AbstractPropertyView> fromModulePropertiesModels = join(fromModulePropertiesModelsFuture);
+                        List<AbstractPropertyView> toModulePropertiesModels = join(toModulePropertiesModelsFuture);
+
+                        Module.Key fromModuleKey = Module.Key.fromPropertiesPath(fromPropertiesPath);
+                        String fromModulePath = extractModulePathFromPropertiesPath(fromPropertiesPath);
+                        Module.Key toModuleKey = Module.Key.fromPropertiesPath(toPropertiesPath);
+                        String toModulePath = extractModulePathFromPropertiesPath(toPropertiesPath);
+
+                        boolean fromShouldHidePasswordProperties = isRestrictedPlatform(user, fromPlatform);
+                        boolean toShouldHidePasswordProperties = isRestrictedPlatform(user, toPlatform);
+
+                        PropertyVisitorsSequence fromPropertyVisitors = getModulePropertyVisitorsSequence(
+                                fromPlatform, fromModulePath, fromModuleKey,
+                                fromModulePropertiesModels,
+                                fromInstanceName, fromShouldHidePasswordProperties);
+                        PropertyVisitorsSequence toPropertyVisitors;
+                        try {
+                            toPropertyVisitors = getModulePropertyVisitorsSequence(
+                                    toPlatform, toModulePath, toModuleKey,
+                                    toModulePropertiesModels,
+                                    toInstanceName, toShouldHidePasswordProperties);
+                        } catch (ModuleNotFoundException moduleNotFound) {
+                            if (timestamp != null) { // We make the error message more explicit:
+                                throw new ModuleNotFoundException(toModuleKey, toModulePath, timestamp);
+                            }
+                            throw moduleNotFound;
+                        }
+
+                        propertiesDiff = new PropertiesDiff(fromPropertyVisitors, toPropertyVisitors, comparisonMode);
+                    }
+                    return propertiesDiff;
+                });
+    }
 
-            propertiesDiff = new PropertiesDiff(fromPropertyVisitors, toPropertyVisitors, comparisonMode);
+    /**
+     * Un propertiesPath invalide donne un résultat en erreur, remontée après celles du chargement des plateformes
+     */
+    private CompletableFuture<List<AbstractPropertyView>> getModulePropertiesModelAsync(String propertiesPath) {
+        if (Platform.isGlobalPropertiesPath(propertiesPath)) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        try {
+            return moduleQueries.getPropertiesModelAsync(Module.Key.fromPropertiesPath(propertiesPath));
+        } catch (IllegalArgumentException invalidPropertiesPath) {
+            return CompletableFuture.failedFuture(invalidPropertiesPath);
         }
-        return propertiesDiff;
     }
 
     public List<AbstractValuedPropertyView> getValuedProperties(Platform.Key platformKey, String propertiesPath, Long timestamp, User user) {
         List<AbstractValuedPropertyView> properties = new ArrayList<>();
 
-        PlatformView platform = getPlatform(platformKey, timestamp);
+        PlatformView platform = getPlatform(platformKey, propertiesPath, timestamp);
 
         if (Platform.isGlobalPropertiesPath(propertiesPath)) {
             properties.addAll(platform.getGlobalProperties());
@@ -277,6 +345,9 @@ public class PropertiesUseCases {
                 throw new ModuleNotFoundException(moduleKey);
             }
             validateRequiredAndPatternProperties(abstractValuedProperties, moduleKey, platformKey);
+            // Valorisation actuelle, à partir de laquelle seules les différences sont enregistrées
+            List<AbstractValuedProperty> previousValuedProperties = toDomainAbstractValuedProperties(
+                    platform.findActiveDeployedModuleByPropertiesPath(propertiesPath).getValuedProperties());
             platformCommands.saveModulePropertiesInPlatform(
                     platform.getId(),
                     propertiesPath,
@@ -284,6 +355,7 @@ public class PropertiesUseCases {
                     propertiesVersionId,
                     expectedPropertiesVersionId,
                     abstractValuedProperties,
+                    previousValuedProperties,
                     defaultString(userComment, EMPTY),
                     user);
         }
@@ -332,7 +404,7 @@ public class PropertiesUseCases {
         Long propertiesVersionId = getPropertiesVersionId(platform, propertiesPath);
 
         platformCommands.saveModulePropertiesInPlatform(platform.getId(), propertiesPath, platform.getVersionId(),
-                propertiesVersionId, propertiesVersionId, filteredValuedProperties,
+                propertiesVersionId, propertiesVersionId, filteredValuedProperties, toDomainAbstractValuedProperties(baseValues),
                 "Generated comment: cleaning unused properties", user);
     }
 
@@ -344,7 +416,7 @@ public class PropertiesUseCases {
                 .collect(toMap(ModulePropertiesView::getModuleKey, ModulePropertiesView::getProperties));
 
         // Propriétés globales détaillées
-        PropertyVisitorsSequence globalPropertyVisitorsSequence = buildPropertyVisitorsSequenceForGlobals(platform);
+        PropertyVisitorsSequence globalPropertyVisitorsSequence = getGlobalPropertyVisitorsSequence(platform);
         List<DetailedPropertyView> globalProperties = globalPropertyVisitorsSequence.toGlobalDetailedProperties();
 
         // Propriétés détaillées de chaque module de la plateforme
@@ -352,7 +424,7 @@ public class PropertiesUseCases {
                 .filter(deployedModule -> StringUtils.isEmpty(propertiesPath) || deployedModule.getPropertiesPath().equals(propertiesPath))
                 .flatMap(deployedModule -> {
                     List<AbstractPropertyView> propertiesModel = propertiesByModuleKey.get(deployedModule.getModuleKey());
-                    PropertyVisitorsSequence propertyVisitorsSequence = buildModulePropertyVisitorsSequence(
+                    PropertyVisitorsSequence propertyVisitorsSequence = getModulePropertyVisitorsSequence(
                             platform,
                             deployedModule.getModulePath(),
                             deployedModule.getModuleKey(),
@@ -398,10 +470,12 @@ public class PropertiesUseCases {
         List<PropertiesEventView> propertiesEvents = new ArrayList<>();
         if (!isEmpty(events)) {
             // On récupère le premier évènement de la page suivante pour faire
-            // la comparaison avec le dernier élément de la liste en cours
+            // la comparaison avec le dernier élément de la liste en cours.
+            // Seul cet évènement est lu : en taille de page 1, son numéro de page est sa position
+            int firstEventOfNextPagePosition = page * size + 1;
             Optional<EventView> firstEventOfNextPage = (isModuleProperties
-                    ? eventQueries.getLastToFirstPlatformModulePropertiesUpdatedEvents(platformId, propertiesPath, page + 1, size)
-                    : eventQueries.getLastToFirstEventsByType(platformId, PlatformPropertiesUpdatedEvent.class, page + 1, size)
+                    ? eventQueries.getLastToFirstPlatformModulePropertiesUpdatedEvents(platformId, propertiesPath, firstEventOfNextPagePosition, 1)
+                    : eventQueries.getLastToFirstEventsByType(platformId, PlatformPropertiesUpdatedEvent.class, firstEventOfNextPagePosition, 1)
             ).stream().findFirst();
             // On en profite pour déterminer si le premier évènement
             // en date fait partie de la liste en cours
@@ -420,6 +494,25 @@ public class PropertiesUseCases {
         return propertiesEvents;
     }
 
+    /**
+     * Historique complet des propriétés dans l'ordre chronologique, construit au fur et à mesure
+     * de la consommation du flux : les évènements sont lus par lots (pagination par curseur)
+     * et seules les propriétés de l'évènement précédent sont conservées pour calculer les différences.
+     */
+    public Stream<PropertiesEventView> streamPropertiesEvents(User user, Platform.Key platformKey, String propertiesPath) {
+
+        String platformId = platformUseCases.findPlatformId(platformKey);
+        boolean isModuleProperties = !GLOBAL_PROPERTIES_PATH.equals(propertiesPath);
+        boolean hidePasswords = shouldHidePropertiesEventsPasswords(isModuleProperties, platformId, user, platformKey.getApplicationName());
+        Set<String> passwordPropertyNames = hidePasswords ? extractPasswordProperties(propertiesPath) : emptySet();
+
+        PropertiesEventsBuilder propertiesEventsBuilder = new PropertiesEventsBuilder(isModuleProperties, true);
+        return eventQueries.streamFirstToLastPropertiesEvents(platformId, propertiesPath, propertiesEventsBatchSize)
+                .map(propertiesEventsBuilder::next)
+                .flatMap(Optional::stream)
+                .map(propertiesEvent -> hidePasswords ? propertiesEvent.hidePasswords(passwordPropertyNames) : propertiesEvent);
+    }
+
     private boolean shouldHidePropertiesEventsPasswords(boolean isModuleProperties, String platformId, User user, String applicationName) {
         boolean hidePasswords = false;
         if (isModuleProperties) {
@@ -442,6 +535,15 @@ public class PropertiesUseCases {
         return timestamp != null ? platformUseCases.getPlatformAtPointInTime(platformKey, timestamp) : platformUseCases.getPlatform(platformKey);
     }
 
+    /**
+     * Pour un module déployé, seul ce module est récupéré avec l'en-tête et les propriétés globales de la plateforme
+     */
+    private PlatformView getPlatform(Platform.Key platformKey, String propertiesPath, Long timestamp) {
+        return timestamp != null || StringUtils.isEmpty(propertiesPath) || Platform.isGlobalPropertiesPath(propertiesPath)
+                ? getPlatform(platformKey, timestamp)
+                : platformUseCases.getPlatformWithDeployedModule(platformKey, propertiesPath);
+    }
+
     public List<PlatformPropertiesView> findAllApplicationsPasswords(User user) {
         if (!user.isGlobalTech()) {
             throw new AccessDeniedException("You have to be a tech user to access this resource");
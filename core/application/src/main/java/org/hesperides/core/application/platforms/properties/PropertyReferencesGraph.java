@@ -0,0 +1,184 @@
+package org.hesperides.core.application.platforms.properties;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.SimplePropertyVisitor;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Graphe des références entre les propriétés de premier niveau d'une séquence dont la valorisation comporte des moustaches :
+ * une telle propriété dépend des autres propriétés de ce graphe qu'elle référence.
+ * Les valorisations ne sont analysées qu'une seule fois, à la construction du graphe.
+ * <p>
+ * Une propriété itérable constitue un unique nœud, portant les références de toutes ses propriétés filles :
+ * celles-ci sont valorisées à partir des propriétés de premier niveau (cf. FileUseCases.propertiesToScopes).
+ * <p>
+ * Une référence d'une propriété à elle-même n'est pas une dépendance :
+ * elle est résolue par les niveaux de substitution successifs de PropertyValuationBuilder.
+ * <p>
+ * Le tri des propriétés permet de détecter les cycles de références avant toute substitution.
+ */
+class PropertyReferencesGraph {
+
+    // Seuls les noms de propriétés importent ici, pas les annotations qui suivent le pipe
+    private static final Pattern MUSTACHE_REFERENCE_PATTERN = Pattern.compile("\\{\\{[{&#^]?\\s*([^\\s}|!/=>][^}|]*?)\\s*(\\|[^}]*)?}}");
+
+    private final Map<String, Set<String>> referencesPerName = new LinkedHashMap<>();
+    private final Set<String> aliasNames = new HashSet<>();
+    private final List<Set<String>> layers = new ArrayList<>();
+    private final Set<String> circularReferences = new LinkedHashSet<>();
+
+    PropertyReferencesGraph(PropertyVisitorsSequence propertyVisitors) {
+        propertyVisitors.stream().forEach(propertyVisitor -> {
+            List<String> valuesWithMustaches = new ArrayList<>();
+            propertyVisitor.acceptSimplesRecursive(simplePropertyVisitor -> simplePropertyVisitor.getValueOrDefault()
+                    .filter(PropertyReferencesGraph::containsMustaches)
+                    .ifPresent(valuesWithMustaches::add));
+            if (!valuesWithMustaches.isEmpty()) {
+                Set<String> references = referencesPerName.computeIfAbsent(propertyVisitor.getName(), name -> new HashSet<>());
+                valuesWithMustaches.forEach(value -> references.addAll(extractReferencedNames(value)));
+                if (propertyVisitor instanceof SimplePropertyVisitor && ((SimplePropertyVisitor) propertyVisitor).getValueOrDefault()
+                        .filter(value -> MUSTACHE_REFERENCE_PATTERN.matcher(value.trim()).matches())
+                        .isPresent()) {
+                    aliasNames.add(propertyVisitor.getName());
+                }
+            }
+        });
+        sortInLayers();
+    }
+
+    static boolean containsMustaches(String value) {
+        return StringUtils.contains(value, "}}"); // not bullet-proof but a false positive on mustaches escaped by a delimiter set is OK
+    }
+
+    static Set<String> extractReferencedNames(String value) {
+        Set<String> names = new HashSet<>();
+        Matcher matcher = MUSTACHE_REFERENCE_PATTERN.matcher(value);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    /**
+     * Tri topologique (algorithme de Kahn) : les propriétés d'une couche ne dépendent
+     * que de propriétés des couches précédentes et peuvent donc être valorisées ensemble.
+     * <p>
+     * Lorsque le tri est bloqué, les propriétés restantes qui appartiennent à un cycle
+     * sont écartées (cf. getCircularReferences) et le tri reprend pour celles qui en dépendent.
+     */
+    private void sortInLayers() {
+        Map<String, Set<String>> remainingDependencies = new LinkedHashMap<>();
+        Map<String, Set<String>> dependentsPerName = new HashMap<>();
+        referencesPerName.forEach((name, references) -> {
+            Set<String> dependencies = new HashSet<>();
+            for (String reference : references) {
+                if (!reference.equals(name) && referencesPerName.containsKey(reference)) {
+                    dependencies.add(reference);
+                    dependentsPerName.computeIfAbsent(reference, dependency -> new HashSet<>()).add(name);
+                }
+            }
+            remainingDependencies.put(name, dependencies);
+        });
+
+        Set<String> layer = new LinkedHashSet<>();
+        remainingDependencies.forEach((name, dependencies) -> {
+            if (dependencies.isEmpty()) {
+                layer.add(name);
+            }
+        });
+        layer.forEach(remainingDependencies::remove);
+
+        while (!layer.isEmpty() || !remainingDependencies.isEmpty()) {
+            if (layer.isEmpty()) {
+                Set<String> cycles = findNamesInCycles(remainingDependencies);
+                circularReferences.addAll(cycles);
+                cycles.forEach(remainingDependencies::remove);
+                layer.addAll(releaseDependents(cycles, remainingDependencies, dependentsPerName));
+            } else {
+                layers.add(new LinkedHashSet<>(layer));
+                Set<String> nextLayer = releaseDependents(layer, remainingDependencies, dependentsPerName);
+                layer.clear();
+                layer.addAll(nextLayer);
+            }
+        }
+    }
+
+    private static Set<String> releaseDependents(Set<String> resolvedNames,
+                                                 Map<String, Set<String>> remainingDependencies,
+                                                 Map<String, Set<String>> dependentsPerName) {
+        Set<String> releasedNames = new LinkedHashSet<>();
+        for (String resolvedName : resolvedNames) {
+            for (String dependent : dependentsPerName.getOrDefault(resolvedName, Collections.emptySet())) {
+                Set<String> dependencies = remainingDependencies.get(dependent);
+                if (dependencies != null) {
+                    dependencies.remove(resolvedName);
+                    if (dependencies.isEmpty()) {
+                        remainingDependencies.remove(dependent);
+                        releasedNames.add(dependent);
+                    }
+                }
+            }
+        }
+        return releasedNames;
+    }
+
+    /**
+     * Parmi les propriétés restantes, toutes bloquées, ne retient que celles qui appartiennent à un cycle
+     * et non celles qui se contentent d'en dépendre. Ces propriétés sont rares : un parcours en profondeur
+     * depuis chacune d'elles suffit.
+     */
+    private static Set<String> findNamesInCycles(Map<String, Set<String>> remainingDependencies) {
+        Set<String> namesInCycles = new LinkedHashSet<>();
+        for (String name : remainingDependencies.keySet()) {
+            Deque<String> namesToVisit = new ArrayDeque<>(remainingDependencies.get(name));
+            Set<String> visitedNames = new HashSet<>();
+            while (!namesToVisit.isEmpty()) {
+                String visitedName = namesToVisit.pop();
+                if (visitedName.equals(name)) {
+                    namesInCycles.add(name);
+                    break;
+                }
+                if (visitedNames.add(visitedName) && remainingDependencies.containsKey(visitedName)) {
+                    namesToVisit.addAll(remainingDependencies.get(visitedName));
+                }
+            }
+        }
+        return namesInCycles;
+    }
+
+    /**
+     * @return les noms des propriétés dont la valorisation comporte des moustaches
+     */
+    Set<String> getReferencingNames() {
+        return referencesPerName.keySet();
+    }
+
+    /**
+     * @return les noms des propriétés à valoriser, couche par couche
+     */
+    List<Set<String>> getLayers() {
+        return layers;
+    }
+
+    /**
+     * @return les noms des propriétés appartenant à un cycle de références, exclues des couches
+     */
+    Set<String> getCircularReferences() {
+        return circularReferences;
+    }
+
+    /**
+     * Un alias est une propriété dont la valorisation se résume à la référence d'une autre propriété
+     */
+    boolean isAlias(String name) {
+        return aliasNames.contains(name);
+    }
+
+    boolean referencesItself(String name) {
+        return referencesPerName.getOrDefault(name, Collections.emptySet()).contains(name);
+    }
+}
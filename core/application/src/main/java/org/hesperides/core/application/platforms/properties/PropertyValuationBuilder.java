@@ -1,12 +1,12 @@
 package org.hesperides.core.application.platforms.properties;
 
 import com.github.mustachejava.Mustache;
-import org.apache.commons.lang3.StringUtils;
 import org.hesperides.core.application.files.FileUseCases;
 import org.hesperides.core.application.files.InfiniteMustacheRecursion;
 import org.hesperides.core.domain.platforms.entities.properties.ValuedPropertyTransformation;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitor;
 import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.SimplePropertyVisitor;
 import org.hesperides.core.domain.platforms.queries.views.DeployedModuleView;
 import org.hesperides.core.domain.platforms.queries.views.PlatformView;
 import org.hesperides.core.domain.platforms.queries.views.properties.AbstractValuedPropertyView;
@@ -15,6 +15,7 @@ import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyVie
 
 import java.io.StringWriter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.hesperides.core.application.platforms.properties.PropertyType.GLOBAL;
@@ -24,8 +25,6 @@ import static org.hesperides.core.domain.platforms.queries.views.properties.Abst
 
 public class PropertyValuationBuilder {
 
-    private static int MAX_PREPARE_PROPERTIES_COUNT = 10;
-
     /**
      * Récupère les valorisations de propriétés après avoir caché
      * les mots de passe et tenu compte des valeurs par défaut
@@ -57,8 +56,8 @@ public class PropertyValuationBuilder {
                                                                               EnumSet<PropertyType> propertiesToInclude) {
 
         PropertyVisitorsSequence completedPropertyVisitors = valuationContext.completeWithContextualProperties(propertyVisitors, propertiesToInclude);
-        // Prépare les propriétés faisant référence à d'autres propriétés, de manière récursive :
-        return preparePropertiesValues(completedPropertyVisitors, valuationContext, 0);
+        // Prépare les propriétés faisant référence à d'autres propriétés, dans l'ordre de leurs références :
+        return preparePropertiesValues(completedPropertyVisitors, valuationContext);
     }
 
     public static PropertyVisitorsSequence buildPropertyVisitorsSequenceForGlobals(PlatformView platform) {
@@ -66,7 +65,7 @@ public class PropertyValuationBuilder {
         List<AbstractValuedPropertyView> valuedPropertiesWithoutModel = extractValuedPropertiesWithoutModel(platform.getGlobalProperties(), propertyVisitors);
         PropertyValuationContext valuationContext = new PropertyValuationContext(platform, valuedPropertiesWithoutModel);
         PropertyVisitorsSequence completedPropertyVisitors = valuationContext.completeWithContextualProperties(propertyVisitors, EnumSet.of(GLOBAL, WITHOUT_MODEL));
-        propertyVisitors = preparePropertiesValues(completedPropertyVisitors, valuationContext, 0);
+        propertyVisitors = preparePropertiesValues(completedPropertyVisitors, valuationContext);
         propertyVisitors = valuationContext.removePredefinedProperties(propertyVisitors);
         return propertyVisitors;
     }
@@ -81,48 +80,160 @@ public class PropertyValuationBuilder {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Valorise les propriétés faisant référence à d'autres propriétés, par itérations successives
+     * jusqu'à ce que les valorisations ne changent plus : chaque itération substitue les références
+     * de toutes les propriétés à partir de la séquence de l'itération précédente et ajoute à chacune
+     * la transformation correspondant au niveau de substitution atteint (cf. PropertyDiffValueOutput.transformations).
+     * <p>
+     * Les références sont analysées une seule fois, pour construire le graphe des dépendances entre propriétés,
+     * ce qui permet de détecter les cycles avant toute substitution :
+     * - un cycle d'alias converge, ses moustaches restantes sont effacées par PropertyVisitorsSequence.removeMustachesInPropertyValues
+     * (cf. BDD Scenario: cross-referencing properties should not crash the application) ;
+     * - tout autre cycle produirait une valeur infinie et provoque une InfiniteMustacheRecursion,
+     * de même qu'une propriété dont la valorisation se référence sans être surchargée
+     * (cf. BDD Scenario: detect self-referencing property generating infinite recursion).
+     */
     private static PropertyVisitorsSequence preparePropertiesValues(PropertyVisitorsSequence propertyVisitors,
-                                                                    PropertyValuationContext valuationContext,
-                                                                    int iterationCount) {
-        if (iterationCount > MAX_PREPARE_PROPERTIES_COUNT) {
-            throw new InfiniteMustacheRecursion("Infinite loop due to self-referencing property or template");
+                                                                    PropertyValuationContext valuationContext) {
+        PropertyReferencesGraph referencesGraph = new PropertyReferencesGraph(propertyVisitors);
+        Set<String> referencingNames = referencesGraph.getReferencingNames();
+        if (referencingNames.isEmpty()) {
+            return propertyVisitors;
+        }
+        SubstitutionScopes substitutionScopes = new SubstitutionScopes(propertyVisitors, valuationContext);
+        checkCircularReferences(propertyVisitors, referencesGraph, substitutionScopes);
+        // Hors cycle, chaque itération résout au moins une référence de chaque chaîne de propriétés restant à valoriser,
+        // chaîne qui ne peut pas compter plus de maillons que les scopes ne comptent de clefs
+        int maxIterationsCount = substitutionScopes.getGlobalAndWithoutModelScopes().size() + 1;
+        Set<PropertyVisitorsSequence> previousPropertyVisitors = new HashSet<>();
+        for (int iterationCount = 1; ; iterationCount++) {
+            // Les scopes ne dépendent que de la séquence de l'itération courante et non de la propriété valorisée :
+            // ils sont donc calculés au plus une fois par niveau de substitution et par itération
+            SubstitutionScopes iterationScopes = iterationCount == 1 ? substitutionScopes : new SubstitutionScopes(propertyVisitors, valuationContext);
+            PropertyVisitorsSequence preparedPropertyVisitors = mapPropertiesByName(propertyVisitors, referencingNames, propertyVisitor ->
+                    propertyVisitor.mapSimplesRecursive(simplePropertyVisitor -> substituteReferences(simplePropertyVisitor, iterationScopes)));
+            if (propertyVisitors.equals(preparedPropertyVisitors)) {
+                return preparedPropertyVisitors;
+            }
+            previousPropertyVisitors.add(propertyVisitors);
+            if (previousPropertyVisitors.contains(preparedPropertyVisitors) || iterationCount >= maxIterationsCount) {
+                throw new InfiniteMustacheRecursion("Infinite loop due to circular references through overridden property values");
+            }
+            propertyVisitors = preparedPropertyVisitors;
         }
-        PropertyVisitorsSequence preparedPropertyVisitors = propertyVisitors.mapSimplesRecursive(propertyVisitor -> {
-            Optional<String> optValue = propertyVisitor.getValueOrDefault();
-            if (optValue.isPresent() && StringUtils.contains(optValue.get(), "}}")) { // not bullet-proof but a false positive on mustaches escaped by a delimiter set is OK
-                // iso-legacy: on inclue les valorisations sans modèle ici
-                // cf. BDD Scenario: get file with property valorized with another valued property
-                Map<String, Object> scopes = FileUseCases
-                        .propertiesToScopes(valuationContext.completeWithContextualProperties(propertyVisitors, EnumSet.of(GLOBAL, WITHOUT_MODEL))
-                                .passOverPropertyValuesToChildItems());
-                String value = replaceMustachePropertiesWithValues(optValue.get(), scopes);
-                // Principe de substitution : une propriété qui en réference une autre doit prendre sa valeur,
-                // en sachant que cette valeur peut elle-même e, référencer une autre...
-                // Le "niveau" indique le nombre de remplacements de ce type.
-                ValuedPropertyTransformation transformation = PROPERTY_SUBSTITUTION_LEVEL_1;
-                // cf. BDD Scenario: get file with instance properties created by a module property that references itself and a global property with same name
-                if (StringUtils.contains(value, "}}")) {
-                    scopes = FileUseCases
-                            .propertiesToScopes(valuationContext.completeWithContextualProperties(propertyVisitors, EnumSet.of(WITHOUT_MODEL))
-                                    .passOverPropertyValuesToChildItems());
-                    value = replaceMustachePropertiesWithValues(value, scopes);
-                    transformation = PROPERTY_SUBSTITUTION_LEVEL_2;
-                    // cf. BDD Scenario: get file with property valorized with another valued property valorized with a predefined property
-                    if (StringUtils.contains(value, "}}")) {
-                        scopes = FileUseCases
-                                .propertiesToScopes(valuationContext.completeWithContextualProperties(propertyVisitors, EnumSet.of(GLOBAL))
-                                        .passOverPropertyValuesToChildItems());
-                        value = replaceMustachePropertiesWithValues(value, scopes);
-                        transformation = PROPERTY_SUBSTITUTION_LEVEL_3;
-                    }
+    }
+
+    private static PropertyVisitorsSequence mapPropertiesByName(PropertyVisitorsSequence propertyVisitors,
+                                                                Set<String> propertyNames,
+                                                                Function<PropertyVisitor, PropertyVisitor> mapper) {
+        return new PropertyVisitorsSequence(propertyVisitors.stream()
+                .map(propertyVisitor -> propertyNames.contains(propertyVisitor.getName()) ? mapper.apply(propertyVisitor) : propertyVisitor)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Une propriété qui se référence, directement ou au travers d'un cycle, est normalement résolue par une valorisation surchargeant la sienne
+     * (cf. BDD Scenario: get file with instance properties created by a module property that references itself and a global property with same name).
+     * Sans une telle valorisation, elle se substitue à elle-même : c'est sans effet pour un alias,
+     * mais la valeur d'une propriété comportant autre chose que cette référence croîtrait indéfiniment.
+     */
+    private static void checkCircularReferences(PropertyVisitorsSequence propertyVisitors,
+                                                PropertyReferencesGraph referencesGraph,
+                                                SubstitutionScopes substitutionScopes) {
+        Set<String> circularReferences = referencesGraph.getCircularReferences();
+        Set<String> notOverriddenNames = propertyVisitors.stream()
+                .filter(propertyVisitor -> !isOverridden(propertyVisitor, substitutionScopes))
+                .map(PropertyVisitor::getName)
+                .collect(Collectors.toSet());
+        if (!circularReferences.isEmpty()
+                && !circularReferences.stream().allMatch(referencesGraph::isAlias)
+                && notOverriddenNames.containsAll(circularReferences)) {
+            throw new InfiniteMustacheRecursion("Infinite loop due to circular references between properties " + String.join(", ", circularReferences));
+        }
+        referencesGraph.getReferencingNames().stream()
+                .filter(referencesGraph::referencesItself)
+                .filter(propertyName -> !referencesGraph.isAlias(propertyName))
+                .filter(notOverriddenNames::contains)
+                .findFirst()
+                .ifPresent(propertyName -> {
+                    throw new InfiniteMustacheRecursion("Infinite loop due to self-referencing property " + propertyName);
+                });
+    }
+
+    private static boolean isOverridden(PropertyVisitor propertyVisitor, SubstitutionScopes substitutionScopes) {
+        return propertyVisitor instanceof SimplePropertyVisitor && ((SimplePropertyVisitor) propertyVisitor).getValueOrDefault()
+                .filter(value -> !value.equals(substitutionScopes.getGlobalAndWithoutModelScopes().get(propertyVisitor.getName())))
+                .isPresent();
+    }
+
+    private static SimplePropertyVisitor substituteReferences(SimplePropertyVisitor propertyVisitor, SubstitutionScopes substitutionScopes) {
+        Optional<String> optValue = propertyVisitor.getValueOrDefault();
+        if (optValue.isPresent() && PropertyReferencesGraph.containsMustaches(optValue.get())) {
+            // iso-legacy: on inclue les valorisations sans modèle ici
+            // cf. BDD Scenario: get file with property valorized with another valued property
+            String value = replaceMustachePropertiesWithValues(optValue.get(), substitutionScopes.getGlobalAndWithoutModelScopes());
+            // Principe de substitution : une propriété qui en réference une autre doit prendre sa valeur,
+            // en sachant que cette valeur peut elle-même e, référencer une autre...
+            // Le "niveau" indique le nombre de remplacements de ce type.
+            ValuedPropertyTransformation transformation = PROPERTY_SUBSTITUTION_LEVEL_1;
+            // cf. BDD Scenario: get file with instance properties created by a module property that references itself and a global property with same name
+            if (PropertyReferencesGraph.containsMustaches(value)) {
+                value = replaceMustachePropertiesWithValues(value, substitutionScopes.getWithoutModelScopes());
+                transformation = PROPERTY_SUBSTITUTION_LEVEL_2;
+                // cf. BDD Scenario: get file with property valorized with another valued property valorized with a predefined property
+                if (PropertyReferencesGraph.containsMustaches(value)) {
+                    value = replaceMustachePropertiesWithValues(value, substitutionScopes.getGlobalScopes());
+                    transformation = PROPERTY_SUBSTITUTION_LEVEL_3;
                 }
-                propertyVisitor = propertyVisitor.withValue(value, transformation);
             }
-            return propertyVisitor;
-        });
-        return propertyVisitors.equals(preparedPropertyVisitors)
-                ? preparedPropertyVisitors
-                : preparePropertiesValues(preparedPropertyVisitors, valuationContext, iterationCount + 1);
+            propertyVisitor = propertyVisitor.withValue(value, transformation);
+        }
+        return propertyVisitor;
+    }
+
+    /**
+     * Scopes utilisés par les 3 niveaux de substitution d'une itération de `preparePropertiesValues`,
+     * construits à la demande : la plupart des itérations n'ont besoin que du premier niveau.
+     */
+    private static class SubstitutionScopes {
+
+        private final PropertyVisitorsSequence propertyVisitors;
+        private final PropertyValuationContext valuationContext;
+        private Map<String, Object> globalAndWithoutModelScopes;
+        private Map<String, Object> withoutModelScopes;
+        private Map<String, Object> globalScopes;
+
+        SubstitutionScopes(PropertyVisitorsSequence propertyVisitors, PropertyValuationContext valuationContext) {
+            this.propertyVisitors = propertyVisitors;
+            this.valuationContext = valuationContext;
+        }
+
+        Map<String, Object> getGlobalAndWithoutModelScopes() {
+            if (globalAndWithoutModelScopes == null) {
+                globalAndWithoutModelScopes = buildScopes(EnumSet.of(GLOBAL, WITHOUT_MODEL));
+            }
+            return globalAndWithoutModelScopes;
+        }
+
+        Map<String, Object> getWithoutModelScopes() {
+            if (withoutModelScopes == null) {
+                withoutModelScopes = buildScopes(EnumSet.of(WITHOUT_MODEL));
+            }
+            return withoutModelScopes;
+        }
+
+        Map<String, Object> getGlobalScopes() {
+            if (globalScopes == null) {
+                globalScopes = buildScopes(EnumSet.of(GLOBAL));
+            }
+            return globalScopes;
+        }
+
+        private Map<String, Object> buildScopes(EnumSet<PropertyType> propertiesToInclude) {
+            return FileUseCases.propertiesToScopes(valuationContext.completeWithContextualProperties(propertyVisitors, propertiesToInclude)
+                    .passOverPropertyValuesToChildItems());
+        }
     }
 
     /**
@@ -0,0 +1,85 @@
+package org.hesperides.core.application.platforms;
+
+import org.hesperides.commons.axon.AxonQueries;
+import org.hesperides.core.domain.modules.entities.Module;
+import org.hesperides.core.domain.modules.queries.ModuleQueries;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.entities.properties.diff.PropertiesDiff.ComparisonMode;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.security.AuthenticatedQueryExecutor;
+import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PropertiesUseCasesTest {
+
+    private static final Platform.Key FROM_PLATFORM_KEY = new Platform.Key("APP", "FROM");
+    private static final Platform.Key TO_PLATFORM_KEY = new Platform.Key("APP", "TO");
+    private static final String FROM_PROPERTIES_PATH = "#GROUP#from-module#1.0#WORKINGCOPY";
+    private static final String TO_PROPERTIES_PATH = "#GROUP#to-module#1.0#WORKINGCOPY";
+
+    private final PlatformUseCases platformUseCases = mock(PlatformUseCases.class);
+    private final ModuleQueries moduleQueries = mock(ModuleQueries.class);
+    // Les threads du pool sont des daemons : ils ne bloquent pas la fin des tests
+    private final AuthenticatedQueryExecutor queryExecutor = new AuthenticatedQueryExecutor(4);
+    private final PropertiesUseCases propertiesUseCases = new PropertiesUseCases(null, null, platformUseCases, moduleQueries,
+            null, null, null, queryExecutor, 100);
+
+    private void givenModulePropertiesModelFails(String moduleName, RuntimeException error) {
+        when(moduleQueries.getPropertiesModelAsync(any(TemplateContainer.Key.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(moduleQueries.getPropertiesModelAsync(eq(Module.Key.fromPropertiesPath("#GROUP#" + moduleName + "#1.0#WORKINGCOPY"))))
+                .thenReturn(CompletableFuture.failedFuture(error));
+    }
+
+    private RuntimeException getPropertiesDiffError(String fromPropertiesPath) {
+        try {
+            AxonQueries.join(propertiesUseCases.getPropertiesDiff(FROM_PLATFORM_KEY, fromPropertiesPath, null,
+                    TO_PLATFORM_KEY, TO_PROPERTIES_PATH, null, null, null, ComparisonMode.FINAL, null));
+        } catch (RuntimeException error) {
+            return error;
+        }
+        fail("getPropertiesDiff should have failed");
+        return null;
+    }
+
+    @Test
+    public void fromPlatformErrorIsRaisedFirst() {
+        RuntimeException fromPlatformError = new IllegalStateException("from platform");
+        when(platformUseCases.getPlatformWithDeployedModule(FROM_PLATFORM_KEY, FROM_PROPERTIES_PATH)).thenThrow(fromPlatformError);
+        when(platformUseCases.getPlatformWithDeployedModule(TO_PLATFORM_KEY, TO_PROPERTIES_PATH)).thenThrow(new IllegalStateException("to platform"));
+        givenModulePropertiesModelFails("to-module", new IllegalStateException("to module"));
+
+        assertSame(fromPlatformError, getPropertiesDiffError(FROM_PROPERTIES_PATH));
+    }
+
+    @Test
+    public void toPlatformErrorIsRaisedBeforeModuleErrors() {
+        RuntimeException toPlatformError = new IllegalStateException("to platform");
+        when(platformUseCases.getPlatformWithDeployedModule(FROM_PLATFORM_KEY, FROM_PROPERTIES_PATH)).thenReturn(emptyPlatform());
+        when(platformUseCases.getPlatformWithDeployedModule(TO_PLATFORM_KEY, TO_PROPERTIES_PATH)).thenThrow(toPlatformError);
+        givenModulePropertiesModelFails("from-module", new IllegalStateException("from module"));
+
+        assertSame(toPlatformError, getPropertiesDiffError(FROM_PROPERTIES_PATH));
+    }
+
+    @Test
+    public void invalidFromPropertiesPathErrorIsRaisedBeforeToModuleError() {
+        when(platformUseCases.getPlatformWithDeployedModule(any(Platform.Key.class), any(String.class))).thenReturn(emptyPlatform());
+        givenModulePropertiesModelFails("to-module", new IllegalStateException("to module"));
+
+        RuntimeException error = getPropertiesDiffError("invalid");
+        assertSame(IllegalArgumentException.class, error.getClass());
+    }
+
+    private static PlatformView emptyPlatform() {
+        return new PlatformView(null, null, null, null, false, null, null, null, null);
+    }
+}
@@ -0,0 +1,61 @@
+package org.hesperides.core.application.platforms.properties;
+
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.queries.views.properties.ValuedPropertyView;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PropertyReferencesGraphTest {
+
+    private static PropertyReferencesGraph buildGraph(String... namesAndValues) {
+        List<ValuedPropertyView> valuedProperties = new ArrayList<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            valuedProperties.add(new ValuedPropertyView(namesAndValues[i], namesAndValues[i + 1]));
+        }
+        return new PropertyReferencesGraph(PropertyVisitorsSequence.fromModelAndValuedProperties(Collections.emptyList(), valuedProperties, true));
+    }
+
+    private static Set<String> names(String... names) {
+        return new LinkedHashSet<>(Arrays.asList(names));
+    }
+
+    @Test
+    public void extractReferencedNames() {
+        assertEquals(names("a", "b", "c", "d"), PropertyReferencesGraph.extractReferencedNames("{{ a }}/{{b|@comment 'x'}}{{{c}}}{{#d}}{{/d}}{{! comment}}"));
+    }
+
+    @Test
+    public void propertiesAreSortedAfterTheirReferences() {
+        PropertyReferencesGraph graph = buildGraph(
+                "a", "{{ b }}-{{ c }}",
+                "b", "{{ c }}",
+                "c", "{{ hesperides.application.name }}",
+                "d", "no reference");
+        assertEquals(Arrays.asList(names("c"), names("b"), names("a")), graph.getLayers());
+        assertTrue(graph.getCircularReferences().isEmpty());
+    }
+
+    @Test
+    public void selfReferencesAreNotDependencies() {
+        PropertyReferencesGraph graph = buildGraph("a", "{{ a }}", "b", "{{ a }}/{{ b }}");
+        assertEquals(Arrays.asList(names("a"), names("b")), graph.getLayers());
+        assertTrue(graph.referencesItself("b"));
+        assertTrue(graph.isAlias("a"));
+        assertFalse(graph.isAlias("b"));
+    }
+
+    @Test
+    public void cyclesAreReportedAndTheirDependentsStillSorted() {
+        PropertyReferencesGraph graph = buildGraph(
+                "a", "{{ b }}",
+                "b", "{{ a }}",
+                "c", "{{ a }}/{{ d }}",
+                "d", "{{ e }}",
+                "e", "e-{{ d }}");
+        assertEquals(names("a", "b", "d", "e"), graph.getCircularReferences());
+        assertEquals(Collections.singletonList(names("c")), graph.getLayers());
+    }
+}
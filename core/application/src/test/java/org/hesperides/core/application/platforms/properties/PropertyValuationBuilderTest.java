@@ -0,0 +1,86 @@
+package org.hesperides.core.application.platforms.properties;
+
+import org.hesperides.core.application.files.InfiniteMustacheRecursion;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedPropertyTransformation;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.SimplePropertyVisitor;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.platforms.queries.views.properties.ValuedPropertyView;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hesperides.core.domain.platforms.entities.properties.ValuedPropertyTransformation.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PropertyValuationBuilderTest {
+
+    private static Map<String, SimplePropertyVisitor> buildGlobals(String... namesAndValues) {
+        List<ValuedPropertyView> globalProperties = new ArrayList<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            globalProperties.add(new ValuedPropertyView(namesAndValues[i], namesAndValues[i + 1]));
+        }
+        PlatformView platform = new PlatformView(null, "platform", "application", "1", false, Collections.emptyList(), 1L, 1L, globalProperties);
+        PropertyVisitorsSequence propertyVisitors = PropertyValuationBuilder.buildPropertyVisitorsSequenceForGlobals(platform);
+        Map<String, SimplePropertyVisitor> propertyVisitorsPerName = new HashMap<>();
+        propertyVisitors.stream().forEach(propertyVisitor -> propertyVisitorsPerName.put(propertyVisitor.getName(), (SimplePropertyVisitor) propertyVisitor));
+        return propertyVisitorsPerName;
+    }
+
+    private static void assertValuation(SimplePropertyVisitor propertyVisitor, String expectedValue, ValuedPropertyTransformation... expectedTransformations) {
+        assertEquals(expectedValue, propertyVisitor.getValueOrDefault().orElse(null));
+        assertArrayEquals(expectedTransformations, propertyVisitor.getTransformations());
+    }
+
+    @Test
+    public void eachIterationRecordsTheSubstitutionLevelReached() {
+        Map<String, SimplePropertyVisitor> globals = buildGlobals(
+                "a", "v",
+                "b", "x{{a}}",
+                "c", "y{{b}}",
+                "d", "{{c}}-{{a}}");
+        assertValuation(globals.get("a"), "v", OVERRIDDEN_BY_GLOBAL);
+        assertValuation(globals.get("b"), "xv", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_1);
+        assertValuation(globals.get("c"), "yxv", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_2);
+        assertValuation(globals.get("d"), "yxv-v", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3);
+    }
+
+    @Test
+    public void chainsLongerThanThreeLevelsAccumulateTransformations() {
+        Map<String, SimplePropertyVisitor> globals = buildGlobals(
+                "a", "{{hesperides.platform.name}}",
+                "b", "{{a}}/{{c}}",
+                "c", "{{b2}}",
+                "b2", "{{e}}",
+                "e", "{{f}}",
+                "f", "z");
+        assertValuation(globals.get("a"), "platform", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_1);
+        assertValuation(globals.get("b"), "platform/z", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3, PROPERTY_SUBSTITUTION_LEVEL_1);
+        assertValuation(globals.get("c"), "z", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3);
+    }
+
+    @Test
+    public void aliasCyclesKeepTheirMustaches() {
+        // Les moustaches restantes ne sont effacées qu'au rendu, par PropertyVisitorsSequence.removeMustachesInPropertyValues
+        Map<String, SimplePropertyVisitor> globals = buildGlobals("a", "{{b}}", "b", "{{a}}");
+        assertValuation(globals.get("a"), "{{a}}", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3, PROPERTY_SUBSTITUTION_LEVEL_3);
+        assertValuation(globals.get("b"), "{{b}}", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3, PROPERTY_SUBSTITUTION_LEVEL_3);
+
+        globals = buildGlobals("a", "{{b}}", "b", "{{c}}", "c", "{{d}}", "d", "{{a}}");
+        assertValuation(globals.get("a"), "{{c}}", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3, PROPERTY_SUBSTITUTION_LEVEL_3, PROPERTY_SUBSTITUTION_LEVEL_3);
+
+        globals = buildGlobals("a", "{{a}}");
+        assertValuation(globals.get("a"), "{{a}}", OVERRIDDEN_BY_GLOBAL, PROPERTY_SUBSTITUTION_LEVEL_3);
+    }
+
+    @Test(expected = InfiniteMustacheRecursion.class)
+    public void growingCyclesAreDetected() {
+        buildGlobals("a", "{{b}}", "b", "x{{a}}");
+    }
+
+    @Test(expected = InfiniteMustacheRecursion.class)
+    public void growingSelfReferencesAreDetected() {
+        buildGlobals("a", "x{{a}}");
+    }
+}
@@ -13,5 +13,8 @@ public interface EventRepository {
     @QueryHandler
     List<EventView> onGetLastToFirstPlatformModulePropertiesUpdatedEvents(GetLastToFirstPlatformModulePropertiesUpdatedEvents query);
 
+    @QueryHandler
+    List<EventView> onGetFirstToLastPropertiesEventsAfterQuery(GetFirstToLastPropertiesEventsAfterQuery query);
+
     void cleanAggregateEvents(String aggregateIdentifier);
 }
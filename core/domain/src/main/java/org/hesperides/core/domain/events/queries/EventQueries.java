@@ -2,11 +2,14 @@ package org.hesperides.core.domain.events.queries;
 
 import org.axonframework.queryhandling.QueryGateway;
 import org.hesperides.commons.axon.AxonQueries;
+import org.hesperides.core.domain.events.GetFirstToLastPropertiesEventsAfterQuery;
 import org.hesperides.core.domain.events.GetLastToFirstEventsQuery;
 import org.hesperides.core.domain.events.GetLastToFirstPlatformModulePropertiesUpdatedEvents;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 @Component
@@ -31,4 +34,24 @@ public class EventQueries extends AxonQueries {
     public List<EventView> getLastToFirstPlatformModulePropertiesUpdatedEvents(String aggregateId, String propertiesPath, Integer page, Integer size) {
         return querySyncList(new GetLastToFirstPlatformModulePropertiesUpdatedEvents(aggregateId, propertiesPath, page, size), EventView.class);
     }
+
+    public List<EventView> getFirstToLastPropertiesEventsAfter(String aggregateId, String propertiesPath, EventView afterEvent, int size) {
+        return querySyncList(new GetFirstToLastPropertiesEventsAfterQuery(aggregateId, propertiesPath,
+                afterEvent == null ? null : afterEvent.getSequenceNumber(),
+                size), EventView.class);
+    }
+
+    /**
+     * Évènements de valorisation des propriétés (globales ou d'un module déployé) dans l'ordre chronologique,
+     * lus à la demande par lots de batchSize évènements, chaque lot reprenant après le dernier évènement du précédent :
+     * l'historique n'est jamais chargé entièrement en mémoire et le coût d'un lot ne dépend pas de sa position
+     */
+    public Stream<EventView> streamFirstToLastPropertiesEvents(String aggregateId, String propertiesPath, int batchSize) {
+        return Stream.iterate(getFirstToLastPropertiesEventsAfter(aggregateId, propertiesPath, null, batchSize),
+                batch -> !batch.isEmpty(),
+                batch -> batch.size() < batchSize
+                        ? Collections.emptyList()
+                        : getFirstToLastPropertiesEventsAfter(aggregateId, propertiesPath, batch.get(batch.size() - 1), batchSize))
+                .flatMap(List::stream);
+    }
 }
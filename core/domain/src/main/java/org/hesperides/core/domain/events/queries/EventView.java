@@ -10,4 +10,6 @@ public class EventView {
     String type;
     UserEvent data;
     Instant timestamp;
+    // Départage les évènements d'un même agrégat de même timestamp
+    long sequenceNumber;
 }
@@ -4,6 +4,7 @@ import org.axonframework.queryhandling.QueryGateway;
 import org.hesperides.commons.axon.AxonQueries;
 import org.hesperides.core.domain.modules.*;
 import org.hesperides.core.domain.modules.entities.Module;
+import org.hesperides.core.domain.security.AuthenticatedQueryExecutor;
 import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
 import org.hesperides.core.domain.templatecontainers.queries.TemplateContainerKeyView;
@@ -12,12 +13,13 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ModuleQueries extends AxonQueries {
 
-    protected ModuleQueries(QueryGateway queryGateway) {
-        super(queryGateway);
+    protected ModuleQueries(QueryGateway queryGateway, AuthenticatedQueryExecutor queryExecutor) {
+        super(queryGateway, queryExecutor.getExecutor());
     }
 
     public Optional<String> getOptionalModuleId(TemplateContainer.Key moduleKey) {
@@ -64,6 +66,10 @@ public class ModuleQueries extends AxonQueries {
         return querySyncList(new GetModulePropertiesQuery(moduleKey), AbstractPropertyView.class);
     }
 
+    public CompletableFuture<List<AbstractPropertyView>> getPropertiesModelAsync(TemplateContainer.Key moduleKey) {
+        return queryAsyncList(new GetModulePropertiesQuery(moduleKey), AbstractPropertyView.class);
+    }
+
     public List<ModulePropertiesView> getModulesProperties(List<TemplateContainer.Key> modulesKeys) {
         return querySyncList(new GetModulesPropertiesQuery(modulesKeys), ModulePropertiesView.class);
     }
@@ -76,10 +82,18 @@ public class ModuleQueries extends AxonQueries {
         return querySyncList(new GetModulesWithinQuery(moduleKeys), ModuleView.class);
     }
 
+    public CompletableFuture<List<ModuleView>> getModulesWithinAsync(List<Module.Key> moduleKeys) {
+        return queryAsyncList(new GetModulesWithinQuery(moduleKeys), ModuleView.class);
+    }
+
     public List<Module.Key> getModulesWithPasswordWithin(List<Module.Key> moduleKeys) {
         return querySyncList(new GetModulesWithPasswordWithinQuery(moduleKeys), Module.Key.class);
     }
 
+    public CompletableFuture<List<Module.Key>> getModulesWithPasswordWithinAsync(List<Module.Key> moduleKeys) {
+        return queryAsyncList(new GetModulesWithPasswordWithinQuery(moduleKeys), Module.Key.class);
+    }
+
     public List<ModulePasswordProperties> findAllPasswordProperties() {
         return querySyncList(new FindAllPasswordPropertiesQuery(), ModulePasswordProperties.class);
     }
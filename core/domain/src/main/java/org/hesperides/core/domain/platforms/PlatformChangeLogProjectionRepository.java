@@ -0,0 +1,30 @@
+package org.hesperides.core.domain.platforms;
+
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.eventsourcing.SequenceNumber;
+import org.axonframework.queryhandling.QueryHandler;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Historique des modifications significatives d'une plateforme,
+ * tel que renvoyé par /applications/{application_name}/platforms/{platform_name}/events
+ */
+public interface PlatformChangeLogProjectionRepository {
+
+    /*** EVENT HANDLERS ***/
+
+    @EventHandler
+    void onPlatformCreatedEvent(PlatformCreatedEvent event, @SequenceNumber Long sequenceNumber, @Timestamp Instant timestamp);
+
+    @EventHandler
+    void onPlatformUpdatedEvent(PlatformUpdatedEvent event, @SequenceNumber Long sequenceNumber, @Timestamp Instant timestamp);
+
+    /*** QUERY HANDLERS ***/
+
+    @QueryHandler
+    List<PlatformEventView> onGetPlatformEventsQuery(GetPlatformEventsQuery query);
+}
@@ -1,12 +1,14 @@
 package org.hesperides.core.domain.platforms;
 
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.Timestamp;
 import org.axonframework.queryhandling.QueryHandler;
 import org.hesperides.core.domain.platforms.queries.views.*;
 import org.hesperides.core.domain.platforms.queries.views.properties.PlatformPropertiesView;
 import org.hesperides.core.domain.platforms.queries.views.properties.PropertySearchResultView;
 import org.hesperides.core.domain.platforms.queries.views.properties.ValuedPropertyView;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +20,7 @@ public interface PlatformProjectionRepository {
     void onPlatformCreatedEvent(PlatformCreatedEvent event);
 
     @EventHandler
-    void onPlatformDeletedEvent(PlatformDeletedEvent event);
+    void onPlatformDeletedEvent(PlatformDeletedEvent event, @Timestamp Instant timestamp);
 
     @EventHandler
     void onPlatformUpdatedEvent(PlatformUpdatedEvent event);
@@ -26,6 +28,9 @@ public interface PlatformProjectionRepository {
     @EventHandler
     void onPlatformModulePropertiesUpdatedEvent(PlatformModulePropertiesUpdatedEvent event);
 
+    @EventHandler
+    void onPlatformModulePropertiesDeltaUpdatedEvent(PlatformModulePropertiesDeltaUpdatedEvent event);
+
     @EventHandler
     void onPlatformPropertiesUpdatedEvent(PlatformPropertiesUpdatedEvent event);
 
@@ -46,6 +51,9 @@ public interface PlatformProjectionRepository {
     @QueryHandler
     Optional<PlatformView> onGetPlatformByKeyQuery(GetPlatformByKeyQuery query);
 
+    @QueryHandler
+    Optional<PlatformView> onGetPlatformWithDeployedModuleQuery(GetPlatformWithDeployedModuleQuery query);
+
     @QueryHandler
     PlatformView onGetPlatformAtPointInTimeQuery(GetPlatformAtPointInTimeQuery query);
 
@@ -32,8 +32,13 @@ import org.hesperides.core.domain.exceptions.OutOfDatePlatformVersionException;
 import org.hesperides.core.domain.exceptions.OutOfDatePropertiesException;
 import org.hesperides.core.domain.platforms.*;
 import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.entities.properties.AbstractValuedProperty;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedPropertiesDelta;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.axonframework.commandhandling.model.AggregateLifecycle.apply;
@@ -44,10 +49,17 @@ import static org.hesperides.core.domain.platforms.entities.DeployedModule.INIT_
 @Aggregate(snapshotTriggerDefinition = "snapshotTrigger")
 public class PlatformAggregate implements Serializable {
 
+    // Nombre d'évènements de valorisation d'un module déployé entre 2 enregistrements de son état complet
+    static final int MODULE_PROPERTIES_CHECKPOINT_INTERVAL = 20;
+
     @AggregateIdentifier
     private String id;
     private Platform.Key key;
     private Long versionId;
+    // Par propertiesPath : propertiesVersionId de la dernière valorisation du module déployé,
+    // et nombre d'évènements ne contenant que des différences depuis le dernier état complet enregistré
+    private Map<String, Long> modulePropertiesVersionIds;
+    private Map<String, Integer> modulePropertiesDeltaCounts;
 
     /*** COMMAND HANDLERS ***/
 
@@ -101,12 +113,25 @@ public class PlatformAggregate implements Serializable {
                 command.getExpectedPropertiesVersionId(),
                 command.getPropertiesPath());
 
-        apply(new PlatformModulePropertiesUpdatedEvent(
+        String propertiesPath = command.getPropertiesPath();
+        List<AbstractValuedProperty> previousValuedProperties = command.getPreviousValuedProperties();
+        List<AbstractValuedProperty> valuedProperties = command.getValuedProperties();
+        ValuedPropertiesDelta delta = ValuedPropertiesDelta.between(previousValuedProperties, valuedProperties);
+        // L'état complet est enregistré périodiquement, ainsi que lorsque la valorisation précédente fournie
+        // ne correspond pas à la dernière valorisation du module connue de l'agrégat (propriétés copiées depuis
+        // une autre version du module, snapshot antérieur...) ou que le delta ne permet pas de reproduire
+        // exactement la nouvelle valorisation (ordre des propriétés modifié...)
+        boolean isCheckpoint = getModulePropertiesDeltaCounts().getOrDefault(propertiesPath, 0) + 1 >= MODULE_PROPERTIES_CHECKPOINT_INTERVAL
+                || !Objects.equals(getModulePropertiesVersionIds().get(propertiesPath), command.getExpectedPropertiesVersionId())
+                || !delta.applyTo(previousValuedProperties).equals(valuedProperties);
+
+        apply(new PlatformModulePropertiesDeltaUpdatedEvent(
                 command.getPlatformId(),
-                command.getPropertiesPath(),
+                propertiesPath,
                 (versionId + 1),
                 (command.getExpectedPropertiesVersionId() + 1),
-                command.getValuedProperties(),
+                delta,
+                isCheckpoint ? valuedProperties : null,
                 command.getUserComment(),
                 command.getUser().getName()));
     }
@@ -199,6 +224,22 @@ public class PlatformAggregate implements Serializable {
                 event.getPlatformId(), event.getPlatformVersionId(), event.getUser());
         logAfterEventVersionId(event.getPlatformVersionId());
         this.versionId = event.getPlatformVersionId();
+        getModulePropertiesVersionIds().put(event.getPropertiesPath(), event.getPropertiesVersionId());
+        getModulePropertiesDeltaCounts().remove(event.getPropertiesPath());
+    }
+
+    @EventSourcingHandler
+    public void onPlatformModulePropertiesDeltaUpdatedEvent(PlatformModulePropertiesDeltaUpdatedEvent event) {
+        log.debug("onPlatformModulePropertiesDeltaUpdatedEvent - platformId: {} - versionId: {} - user: {}",
+                event.getPlatformId(), event.getPlatformVersionId(), event.getUser());
+        logAfterEventVersionId(event.getPlatformVersionId());
+        this.versionId = event.getPlatformVersionId();
+        getModulePropertiesVersionIds().put(event.getPropertiesPath(), event.getPropertiesVersionId());
+        if (event.getValuedProperties() != null) {
+            getModulePropertiesDeltaCounts().remove(event.getPropertiesPath());
+        } else {
+            getModulePropertiesDeltaCounts().merge(event.getPropertiesPath(), 1, Integer::sum);
+        }
     }
 
     @EventSourcingHandler
@@ -209,6 +250,21 @@ public class PlatformAggregate implements Serializable {
         this.versionId = event.getPlatformVersionId();
     }
 
+    // Les snapshots antérieurs à l'ajout de ces champs en sont dépourvus
+    private Map<String, Long> getModulePropertiesVersionIds() {
+        if (modulePropertiesVersionIds == null) {
+            modulePropertiesVersionIds = new HashMap<>();
+        }
+        return modulePropertiesVersionIds;
+    }
+
+    private Map<String, Integer> getModulePropertiesDeltaCounts() {
+        if (modulePropertiesDeltaCounts == null) {
+            modulePropertiesDeltaCounts = new HashMap<>();
+        }
+        return modulePropertiesDeltaCounts;
+    }
+
     private void logBeforeEventVersionId() {
         logBeforeEventVersionId(null);
     }
@@ -61,9 +61,10 @@ public class PlatformCommands {
                                                final Long providedPropertiesVersionId,
                                                final Long expectedPropertiesVersionId,
                                                final List<AbstractValuedProperty> valuedProperties,
+                                               final List<AbstractValuedProperty> previousValuedProperties,
                                                final String userComment,
                                                final User user) {
-        commandGateway.sendAndWait(new UpdatePlatformModulePropertiesCommand(platformId, propertiesPath, platformVersionId, providedPropertiesVersionId, expectedPropertiesVersionId, valuedProperties, userComment, user));
+        commandGateway.sendAndWait(new UpdatePlatformModulePropertiesCommand(platformId, propertiesPath, platformVersionId, providedPropertiesVersionId, expectedPropertiesVersionId, valuedProperties, previousValuedProperties, userComment, user));
     }
 
     public void savePlatformProperties(final String platformId,
@@ -0,0 +1,83 @@
+package org.hesperides.core.domain.platforms.entities.properties;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Différences entre 2 valorisations des propriétés d'un module déployé, une propriété étant identifiée par son nom.
+ * <p>
+ * Les valeurs précédentes des propriétés modifiées et supprimées sont conservées
+ * afin que l'historique des propriétés puisse être affiché sans connaître l'état précédent.
+ */
+@Value
+public class ValuedPropertiesDelta {
+
+    List<AbstractValuedProperty> addedProperties;
+    List<UpdatedValuedProperty> updatedProperties;
+    List<AbstractValuedProperty> removedProperties;
+
+    public static ValuedPropertiesDelta between(List<AbstractValuedProperty> previousProperties, List<AbstractValuedProperty> currentProperties) {
+        Map<String, AbstractValuedProperty> previousPropertiesByName = new LinkedHashMap<>();
+        previousProperties.forEach(previousProperty -> previousPropertiesByName.put(previousProperty.getName(), previousProperty));
+
+        List<AbstractValuedProperty> addedProperties = new ArrayList<>();
+        List<UpdatedValuedProperty> updatedProperties = new ArrayList<>();
+        Set<String> currentPropertiesNames = new HashSet<>();
+        for (AbstractValuedProperty currentProperty : currentProperties) {
+            currentPropertiesNames.add(currentProperty.getName());
+            AbstractValuedProperty previousProperty = previousPropertiesByName.get(currentProperty.getName());
+            if (previousProperty == null) {
+                addedProperties.add(currentProperty);
+            } else if (!previousProperty.equals(currentProperty)) {
+                updatedProperties.add(new UpdatedValuedProperty(previousProperty, currentProperty));
+            }
+        }
+        List<AbstractValuedProperty> removedProperties = new ArrayList<>();
+        previousPropertiesByName.forEach((name, previousProperty) -> {
+            if (!currentPropertiesNames.contains(name)) {
+                removedProperties.add(previousProperty);
+            }
+        });
+        return new ValuedPropertiesDelta(addedProperties, updatedProperties, removedProperties);
+    }
+
+    /**
+     * Les propriétés modifiées conservent leur position, les propriétés ajoutées sont placées à la fin
+     */
+    public List<AbstractValuedProperty> applyTo(List<AbstractValuedProperty> previousProperties) {
+        Map<String, AbstractValuedProperty> updatedPropertiesByName = new HashMap<>();
+        updatedProperties.forEach(updatedProperty -> updatedPropertiesByName.put(updatedProperty.getName(), updatedProperty.getCurrentProperty()));
+        Set<String> removedPropertiesNames = new HashSet<>();
+        removedProperties.forEach(removedProperty -> removedPropertiesNames.add(removedProperty.getName()));
+
+        List<AbstractValuedProperty> currentProperties = new ArrayList<>();
+        for (AbstractValuedProperty previousProperty : previousProperties) {
+            if (!removedPropertiesNames.contains(previousProperty.getName())) {
+                currentProperties.add(updatedPropertiesByName.getOrDefault(previousProperty.getName(), previousProperty));
+            }
+        }
+        currentProperties.addAll(addedProperties);
+        return currentProperties;
+    }
+
+    public boolean isEmpty() {
+        return addedProperties.isEmpty() && updatedProperties.isEmpty() && removedProperties.isEmpty();
+    }
+
+    @Value
+    public static class UpdatedValuedProperty {
+        AbstractValuedProperty previousProperty;
+        AbstractValuedProperty currentProperty;
+
+        public String getName() {
+            return currentProperty.getName();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.platforms.entities.properties.visitors;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.IterablePropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.PropertyView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU borné des séquences de propriétés valorisées d'une plateforme.
+ * <p>
+ * Une entrée n'est valide que pour la version (versionId) de la plateforme à partir de laquelle elle a été calculée :
+ * l'empreinte du modèle de propriétés du module faisant partie de la clef, une modification de template invalide également l'entrée.
+ * Ces 2 vérifications suffisent à la cohérence des données servies, y compris lorsque plusieurs instances d'Hesperides
+ * partagent la même base : chacune dispose de son propre cache, dont les entrées sont validées à chaque lecture.
+ * <p>
+ * Les handlers de la projection des plateformes invalident par ailleurs toutes les entrées d'une plateforme
+ * dès qu'elle est modifiée, afin de libérer la mémoire au plus tôt. Cette invalidation est locale :
+ * sur les autres instances, les entrées obsolètes ne sont plus servies et finissent évincées par la politique LRU.
+ * <p>
+ * Les compteurs sont exposés via /manage/metrics/cache.* (tag name:property-visitors-sequences).
+ */
+@Component
+public class PropertyVisitorsSequenceCache {
+
+    public static final String NAME = "property-visitors-sequences";
+
+    private final Map<Key, Entry> entries;
+    private final int maxSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder putCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @Autowired
+    public PropertyVisitorsSequenceCache(@Value("${hesperides.property-visitors-cache-size:2000}") int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Property visitors cache size must be strictly positive");
+        }
+        this.maxSize = maxSize;
+        // accessOrder = true => LRU
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                boolean shouldEvict = size() > PropertyVisitorsSequenceCache.this.maxSize;
+                if (shouldEvict) {
+                    evictionCount.increment();
+                }
+                return shouldEvict;
+            }
+        };
+    }
+
+    /**
+     * Renvoie la séquence correspondant à cette clef pour la version courante de la plateforme,
+     * en la calculant au besoin. Les séquences calculées à partir d'une version antérieure de la plateforme
+     * (ex: consultation à un instant T) ne remplacent pas celles de versions plus récentes.
+     */
+    public PropertyVisitorsSequence get(PlatformView platform, Key key, Supplier<PropertyVisitorsSequence> loader) {
+        if (platform.getId() == null || platform.getVersionId() == null) {
+            return loader.get();
+        }
+        Key platformKey = key.withPlatformId(platform.getId());
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(platformKey);
+        }
+        if (entry != null && entry.getPlatformVersionId().equals(platform.getVersionId())) {
+            hitCount.increment();
+            return entry.getPropertyVisitors();
+        }
+        missCount.increment();
+        PropertyVisitorsSequence propertyVisitors = loader.get();
+        synchronized (entries) {
+            Entry currentEntry = entries.get(platformKey);
+            if (currentEntry == null || currentEntry.getPlatformVersionId() < platform.getVersionId()) {
+                entries.put(platformKey, new Entry(platform.getVersionId(), propertyVisitors));
+                putCount.increment();
+            }
+        }
+        return propertyVisitors;
+    }
+
+    public void invalidate(String platformId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> Objects.equals(platformId, key.getPlatformId()));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getPutCount() {
+        return putCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * - kind : permet de distinguer les différentes façons de construire une séquence (fichiers, diff, globales...)
+     * - propertiesModelDigest : empreinte SHA-256 du modèle de propriétés du module, calculée une seule fois à la construction
+     * de la clef : celle-ci ne retient pas le modèle lui-même et sa comparaison ne le parcourt pas
+     */
+    @Getter
+    @EqualsAndHashCode
+    public static class Key {
+
+        private final String platformId;
+        private final String kind;
+        private final String propertiesPath;
+        private final String instanceName;
+        private final String propertiesModelDigest;
+        private final boolean shouldHidePasswordProperties;
+
+        public Key(String kind, String propertiesPath, String instanceName, List<AbstractPropertyView> propertiesModel, boolean shouldHidePasswordProperties) {
+            this(null, kind, propertiesPath, instanceName, digest(propertiesModel), shouldHidePasswordProperties);
+        }
+
+        private Key(String platformId, String kind, String propertiesPath, String instanceName, String propertiesModelDigest, boolean shouldHidePasswordProperties) {
+            this.platformId = platformId;
+            this.kind = kind;
+            this.propertiesPath = propertiesPath;
+            this.instanceName = instanceName;
+            this.propertiesModelDigest = propertiesModelDigest;
+            this.shouldHidePasswordProperties = shouldHidePasswordProperties;
+        }
+
+        Key withPlatformId(String platformId) {
+            return new Key(platformId, kind, propertiesPath, instanceName, propertiesModelDigest, shouldHidePasswordProperties);
+        }
+
+        private static String digest(List<AbstractPropertyView> propertiesModel) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            updateDigest(digest, propertiesModel);
+            return Base64.getEncoder().encodeToString(digest.digest());
+        }
+
+        private static void updateDigest(MessageDigest digest, List<AbstractPropertyView> properties) {
+            updateDigest(digest, properties == null ? null : String.valueOf(properties.size()));
+            if (properties != null) {
+                for (AbstractPropertyView property : properties) {
+                    updateDigest(digest, property.getName());
+                    if (property instanceof IterablePropertyView) {
+                        updateDigest(digest, "iterable");
+                        updateDigest(digest, ((IterablePropertyView) property).getProperties());
+                    } else {
+                        PropertyView simpleProperty = (PropertyView) property;
+                        updateDigest(digest, "simple");
+                        updateDigest(digest, simpleProperty.getMustacheContent());
+                        updateDigest(digest, String.valueOf(simpleProperty.isRequired()));
+                        updateDigest(digest, simpleProperty.getComment());
+                        updateDigest(digest, simpleProperty.getDefaultValue());
+                        updateDigest(digest, simpleProperty.getPattern());
+                        updateDigest(digest, String.valueOf(simpleProperty.isPassword()));
+                    }
+                }
+            }
+        }
+
+        // Chaque valeur est préfixée par sa longueur (-1 pour null) : 2 modèles différents ne produisent jamais le même flux
+        private static void updateDigest(MessageDigest digest, String value) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value == null ? -1 : bytes.length).array());
+            digest.update(bytes);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final Long platformVersionId;
+        private final PropertyVisitorsSequence propertyVisitors;
+    }
+}
@@ -63,6 +63,13 @@ public class PlatformQueries extends AxonQueries {
         return querySyncOptional(new GetPlatformByKeyQuery(platformKey), PlatformView.class);
     }
 
+    /**
+     * Plateforme ne contenant, parmi ses modules déployés, que le module actif correspondant à ce propertiesPath
+     */
+    public Optional<PlatformView> getOptionalPlatformWithDeployedModule(Platform.Key platformKey, String propertiesPath) {
+        return querySyncOptional(new GetPlatformWithDeployedModuleQuery(platformKey, propertiesPath), PlatformView.class);
+    }
+
     public PlatformView getPlatformAtPointInTime(String platformId, long timestamp) {
         try {
             return queryGateway.query(new GetPlatformAtPointInTimeQuery(platformId, timestamp), PlatformView.class).get();
@@ -74,6 +81,10 @@ public class PlatformQueries extends AxonQueries {
         }
     }
 
+    public List<PlatformEventView> getPlatformEvents(String platformId, Integer page, Integer size) {
+        return querySyncList(new GetPlatformEventsQuery(platformId, page, size), PlatformEventView.class);
+    }
+
     public boolean platformExists(Platform.Key platformKey) {
         return querySync(new PlatformExistsByKeyQuery(platformKey), Boolean.class);
     }
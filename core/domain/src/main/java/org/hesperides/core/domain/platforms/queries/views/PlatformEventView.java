@@ -22,17 +22,15 @@ package org.hesperides.core.domain.platforms.queries.views;
 
 import lombok.Value;
 import lombok.experimental.NonFinal;
-import org.hesperides.core.domain.events.queries.EventView;
-import org.hesperides.core.domain.platforms.PlatformCreatedEvent;
-import org.hesperides.core.domain.platforms.PlatformUpdatedEvent;
 import org.hesperides.core.domain.platforms.entities.DeployedModule;
 import org.hesperides.core.domain.platforms.entities.Platform;
-import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
 @Value
@@ -73,88 +71,60 @@ public class PlatformEventView {
         String propertiesPath;
     }
 
-    public static List<PlatformEventView> buildPlatformEvents(List<EventView> events) {
-        List<PlatformEventView> platformEvents = new ArrayList<>();
-        if (!CollectionUtils.isEmpty(events)) {
-            // Il est important de trier les évènements dans l'ordre chronologique
-            // parce que l'algorithme ci-dessous dépend de ce tri
-            events.sort(Comparator.comparing(EventView::getTimestamp));
-
-            ListIterator<EventView> eventsIterator = events.listIterator();
-            EventView previousEvent = eventsIterator.next();
-
-            if (isPlatformCreatedEvent(previousEvent)) {
-                List<PlatformChangeView> firstChanges = new ArrayList<>();
-                // Évènement de création
-                firstChanges.add(new PlatformCreatedView());
-
-                // Modules déployés au moment de la création
-                Platform firstPlatformData = getPlatformDataFromEvent(previousEvent);
-                firstPlatformData.getDeployedModules().forEach(firstDeployedModule ->
-                        firstChanges.add(new DeployedModuleAddedView(firstDeployedModule.getPropertiesPath())));
-
-                platformEvents.add(new PlatformEventView(previousEvent.getTimestamp(),
-                        previousEvent.getData().getUser(), firstChanges));
-            }
-
-            while (eventsIterator.hasNext()) {
-                EventView currentEvent = eventsIterator.next();
-                List<PlatformChangeView> platformChanges = new ArrayList<>();
-                Platform previousPlatformData = getPlatformDataFromEvent(previousEvent);
-                Platform currentPlatformData = getPlatformDataFromEvent(currentEvent);
+    /**
+     * Modifications correspondant à la création d'une plateforme :
+     * l'évènement de création et les modules déployés à ce moment-là.
+     */
+    public static List<PlatformChangeView> buildPlatformCreationChanges(Map<Long, String> propertiesPaths) {
+        List<PlatformChangeView> changes = new ArrayList<>();
+        changes.add(new PlatformCreatedView());
+        propertiesPaths.values().forEach(propertiesPath -> changes.add(new DeployedModuleAddedView(propertiesPath)));
+        return changes;
+    }
 
-                if (!previousPlatformData.getVersion().equals(currentPlatformData.getVersion())) {
-                    // Mise à jour de la version de la plateforme
-                    platformChanges.add(new PlatformVersionUpdatedView(previousPlatformData.getVersion(), currentPlatformData.getVersion()));
-                }
+    /**
+     * Modifications significatives entre deux états successifs d'une plateforme (liste vide si seul le version_id a changé),
+     * à partir des seules données nécessaires : la version de la plateforme et les `propertiesPath` des modules déployés,
+     * indexés par leur identifiant.
+     */
+    public static List<PlatformChangeView> buildPlatformChanges(String previousVersion, Map<Long, String> previousPropertiesPaths,
+                                                                String currentVersion, Map<Long, String> currentPropertiesPaths) {
+        List<PlatformChangeView> platformChanges = new ArrayList<>();
+
+        if (!previousVersion.equals(currentVersion)) {
+            // Mise à jour de la version de la plateforme
+            platformChanges.add(new PlatformVersionUpdatedView(previousVersion, currentVersion));
+        }
 
-                List<DeployedModule> previousDeployedModules = previousPlatformData.getDeployedModules();
-                List<DeployedModule> currentDeployedModules = currentPlatformData.getDeployedModules();
-                Map<Long, DeployedModule> currentDeployedModulesById = currentDeployedModules.stream().collect(toMap(DeployedModule::getId, identity()));
-                Map<Long, DeployedModule> previousDeployedModulesById = previousDeployedModules.stream().collect(toMap(DeployedModule::getId, identity()));
-
-                previousDeployedModules.forEach(previousDeployedModule -> {
-                    if (currentDeployedModulesById.containsKey(previousDeployedModule.getId())) {
-                        DeployedModule currentDeployedModule = currentDeployedModulesById.get(previousDeployedModule.getId());
-                        // Mise à jour du module déployé
-                        if (!previousDeployedModule.getPropertiesPath().equals(currentDeployedModule.getPropertiesPath())) {
-                            platformChanges.add(new DeployedModuleUpdatedView(previousDeployedModule.getPropertiesPath(), currentDeployedModule.getPropertiesPath()));
-                        }
-                    } else {
-                        // Module déployé supprimé
-                        platformChanges.add(new DeployedModuleRemovedView(previousDeployedModule.getPropertiesPath()));
-                    }
-                });
-
-                currentDeployedModules.forEach(currentDeployedModule -> {
-                    if (!previousDeployedModulesById.containsKey(currentDeployedModule.getId())) {
-                        // Nouveau module déployé
-                        platformChanges.add(new PlatformEventView.DeployedModuleAddedView(currentDeployedModule.getPropertiesPath()));
-                    }
-                });
-
-                if (!CollectionUtils.isEmpty(platformChanges)) {
-                    platformEvents.add(new PlatformEventView(currentEvent.getTimestamp(), currentEvent.getData().getUser(), platformChanges));
+        previousPropertiesPaths.forEach((previousId, previousPropertiesPath) -> {
+            if (currentPropertiesPaths.containsKey(previousId)) {
+                String currentPropertiesPath = currentPropertiesPaths.get(previousId);
+                // Mise à jour du module déployé
+                if (!previousPropertiesPath.equals(currentPropertiesPath)) {
+                    platformChanges.add(new DeployedModuleUpdatedView(previousPropertiesPath, currentPropertiesPath));
                 }
-                previousEvent = currentEvent;
+            } else {
+                // Module déployé supprimé
+                platformChanges.add(new DeployedModuleRemovedView(previousPropertiesPath));
             }
-        }
-        return platformEvents;
-    }
+        });
 
-    private static Platform getPlatformDataFromEvent(EventView event) {
-        Platform platformData;
-        if (isPlatformCreatedEvent(event)) {
-            platformData = ((PlatformCreatedEvent) event.getData()).getPlatform();
-        } else if (event.getData() instanceof PlatformUpdatedEvent) {
-            platformData = ((PlatformUpdatedEvent) event.getData()).getPlatform();
-        } else {
-            throw new RuntimeException("Wrong type of event return: " + event.getData().getClass().getName());
-        }
-        return platformData;
+        currentPropertiesPaths.forEach((currentId, currentPropertiesPath) -> {
+            if (!previousPropertiesPaths.containsKey(currentId)) {
+                // Nouveau module déployé
+                platformChanges.add(new DeployedModuleAddedView(currentPropertiesPath));
+            }
+        });
+        return platformChanges;
     }
 
-    private static boolean isPlatformCreatedEvent(EventView event) {
-        return event.getData() instanceof PlatformCreatedEvent;
+    /**
+     * L'ordre des modules déployés est conservé afin que les modifications le soient également.
+     */
+    public static Map<Long, String> getPropertiesPathsById(Platform platform) {
+        return platform.getDeployedModules().stream()
+                .collect(toMap(DeployedModule::getId, DeployedModule::getPropertiesPath, (first, second) -> {
+                    throw new IllegalStateException("Duplicate deployed module id");
+                }, LinkedHashMap::new));
     }
 }
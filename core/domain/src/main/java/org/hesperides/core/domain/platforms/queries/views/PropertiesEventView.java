@@ -3,9 +3,11 @@ package org.hesperides.core.domain.platforms.queries.views;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 import org.hesperides.core.domain.events.queries.EventView;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesDeltaUpdatedEvent;
 import org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent;
 import org.hesperides.core.domain.platforms.PlatformPropertiesUpdatedEvent;
 import org.hesperides.core.domain.platforms.entities.properties.AbstractValuedProperty;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedPropertiesDelta;
 import org.hesperides.core.domain.platforms.entities.properties.ValuedProperty;
 
 import java.time.Instant;
@@ -46,6 +48,8 @@ public class PropertiesEventView {
             comment = ((PlatformPropertiesUpdatedEvent) event.getData()).getUserComment();
         } else if (event.getData() instanceof PlatformModulePropertiesUpdatedEvent) {
             comment = ((PlatformModulePropertiesUpdatedEvent) event.getData()).getUserComment();
+        } else if (event.getData() instanceof PlatformModulePropertiesDeltaUpdatedEvent) {
+            comment = ((PlatformModulePropertiesDeltaUpdatedEvent) event.getData()).getUserComment();
         }
         return comment;
     }
@@ -55,83 +59,114 @@ public class PropertiesEventView {
 
         if (!isEmpty(providedEvents)) {
             // L'algorithme dépend du tri dans l'ordre chronologique
-            providedEvents.sort(Comparator.comparing(EventView::getTimestamp));
-            Iterator<EventView> eventsIterator = providedEvents.iterator();
-            EventView previousEvent = eventsIterator.next();
-
-            if (shouldExtractCreationEvent) {
-                // Si la liste des évènements contient le tout premier évènement créé,
-                // alors on ajoute un évènement contenant la création des propriétés
-                // à notre propre liste
-                List<ValuedPropertyView> firstAddedProperties = extractSimpleValuedPropertiesFromEvent(isModuleProperties, previousEvent)
-                        .stream()
-                        .map(ValuedPropertyView::new)
-                        .collect(toList());
-                propertiesEvents.add(new PropertiesEventView(previousEvent, firstAddedProperties, emptyList(), emptyList()));
+            providedEvents.sort(Comparator.comparing(EventView::getTimestamp).thenComparing(EventView::getSequenceNumber));
+            PropertiesEventsBuilder propertiesEventsBuilder = new PropertiesEventsBuilder(isModuleProperties, shouldExtractCreationEvent);
+            providedEvents.forEach(event -> propertiesEventsBuilder.next(event).ifPresent(propertiesEvents::add));
+        }
+        return propertiesEvents;
+    }
+
+    static PropertiesEventView buildPropertiesEventFromStates(EventView currentEvent,
+                                                                      Map<String, ValuedProperty> previousPropertiesByName,
+                                                                      Map<String, ValuedProperty> currentPropertiesByName) {
+        // Si une propriété est dans l'évènement précédent mais pas dans l'évènement
+        // courant, c'est une propriété supprimée. Si elle n'est pas dans l'évènement
+        // précédent mais dans l'évènement courant, c'est une nouvelle propriété. Si
+        // elle est présente dans l'évènement précédent et l'évènement courant mais
+        // que sa valeur est différente, c'est une propriété mise à jour.
+        List<ValuedPropertyView> addedProperties = new ArrayList<>();
+        List<UpdatedPropertyView> updatedProperties = new ArrayList<>();
+        List<ValuedPropertyView> removedProperties = new ArrayList<>();
+
+        previousPropertiesByName.values().forEach(previousProperty -> {
+            ValuedProperty remainingProperty = currentPropertiesByName.getOrDefault(previousProperty.getName(), null);
+            if (remainingProperty == null) {
+                // Propriété supprimée
+                removedProperties.add(new ValuedPropertyView(previousProperty));
+            } else if (!Objects.equals(previousProperty.getValue(), remainingProperty.getValue())) {
+                // Propriété modifiée
+                updatedProperties.add(new UpdatedPropertyView(previousProperty, remainingProperty));
             }
+        });
 
-            Map<String, ValuedProperty> previousPropertiesByName = null;
-            while (eventsIterator.hasNext()) {
-                // On a besoin de conserver `currentEvent` pour le timestamp
-                EventView currentEvent = eventsIterator.next();
-                // Si une propriété est dans l'évènement précédent mais pas dans l'évènement
-                // courant, c'est une propriété supprimée. Si elle n'est pas dans l'évènement
-                // précédent mais dans l'évènement courant, c'est une nouvelle propriété. Si
-                // elle est présente dans l'évènement précédent et l'évènement courant mais
-                // que sa valeur est différente, c'est une propriété mise à jour.
-                List<ValuedPropertyView> addedProperties = new ArrayList<>();
-                List<UpdatedPropertyView> updatedProperties = new ArrayList<>();
-                List<ValuedPropertyView> removedProperties = new ArrayList<>();
-
-                // Propriétés potentiellement déjà extraites au tour précédent et récupérées dans `currentPropertiesByName`
-                if (previousPropertiesByName == null) {
-                    previousPropertiesByName = extractSimpleValuedPropertiesByName(isModuleProperties, previousEvent);
-                }
-                // Pour l'instant on ne traite que les propriétés simples
-                Map<String, ValuedProperty> currentPropertiesByName = extractSimpleValuedPropertiesByName(isModuleProperties, currentEvent);
-
-                previousPropertiesByName.values().forEach(previousProperty -> {
-                    ValuedProperty remainingProperty = currentPropertiesByName.getOrDefault(previousProperty.getName(), null);
-                    if (remainingProperty == null) {
-                        // Propriété supprimée
-                        removedProperties.add(new ValuedPropertyView(previousProperty));
-                    } else if (!Objects.equals(previousProperty.getValue(), remainingProperty.getValue())) {
-                        // Propriété modifiée
-                        updatedProperties.add(new UpdatedPropertyView(previousProperty, remainingProperty));
-                    }
-                });
-
-                for (ValuedProperty currentProperty : currentPropertiesByName.values()) {
-                    if (!previousPropertiesByName.containsKey(currentProperty.getName())) {
-                        // Nouvelle propriété
-                        addedProperties.add(new ValuedPropertyView(currentProperty));
-                    }
-                }
+        for (ValuedProperty currentProperty : currentPropertiesByName.values()) {
+            if (!previousPropertiesByName.containsKey(currentProperty.getName())) {
+                // Nouvelle propriété
+                addedProperties.add(new ValuedPropertyView(currentProperty));
+            }
+        }
+        return new PropertiesEventView(currentEvent, addedProperties, updatedProperties, removedProperties);
+    }
 
-                if (!isEmpty(addedProperties) || !isEmpty(updatedProperties) || !isEmpty(removedProperties)) {
-                    // Si aucune propriété n'est ajoutée, modifiée ou supprimée, on ne crée pas d'évènement.
-                    // Cela peut se produire notamment dans les pipelines qui sauvegardent parfois les propriétés
-                    // telles qu'elles ont été récupérées. Cela pose problème au niveau de la pagination d'ailleurs...
-                    propertiesEvents.add(new PropertiesEventView(currentEvent, addedProperties, updatedProperties, removedProperties));
+    /**
+     * Pour l'instant on ne traite que les propriétés simples : une propriété simple
+     * devenue itérable est donc considérée comme supprimée, et inversement
+     */
+    static PropertiesEventView buildPropertiesEventFromDelta(EventView event) {
+        ValuedPropertiesDelta delta = getDelta(event);
+        List<ValuedPropertyView> addedProperties = new ArrayList<>();
+        List<UpdatedPropertyView> updatedProperties = new ArrayList<>();
+        List<ValuedPropertyView> removedProperties = new ArrayList<>();
+
+        extractSimpleValuedProperties(delta.getAddedProperties()).forEach(addedProperty -> addedProperties.add(new ValuedPropertyView(addedProperty)));
+        for (ValuedPropertiesDelta.UpdatedValuedProperty updatedProperty : delta.getUpdatedProperties()) {
+            AbstractValuedProperty previousProperty = updatedProperty.getPreviousProperty();
+            AbstractValuedProperty currentProperty = updatedProperty.getCurrentProperty();
+            if (previousProperty instanceof ValuedProperty && currentProperty instanceof ValuedProperty) {
+                if (!Objects.equals(((ValuedProperty) previousProperty).getValue(), ((ValuedProperty) currentProperty).getValue())) {
+                    updatedProperties.add(new UpdatedPropertyView((ValuedProperty) previousProperty, (ValuedProperty) currentProperty));
                 }
-
-                previousEvent = currentEvent;
-                previousPropertiesByName = currentPropertiesByName;
+            } else if (previousProperty instanceof ValuedProperty) {
+                removedProperties.add(new ValuedPropertyView((ValuedProperty) previousProperty));
+            } else if (currentProperty instanceof ValuedProperty) {
+                addedProperties.add(new ValuedPropertyView((ValuedProperty) currentProperty));
             }
         }
-        return propertiesEvents;
+        extractSimpleValuedProperties(delta.getRemovedProperties()).forEach(removedProperty -> removedProperties.add(new ValuedPropertyView(removedProperty)));
+
+        return new PropertiesEventView(event, addedProperties, updatedProperties, removedProperties);
+    }
+
+    static ValuedPropertiesDelta getDelta(EventView event) {
+        return ((PlatformModulePropertiesDeltaUpdatedEvent) event.getData()).getDelta();
     }
 
-    private static List<ValuedProperty> extractSimpleValuedPropertiesFromEvent(boolean isModuleProperties, EventView event) {
-        return isModuleProperties
-                ? extractSimpleValuedProperties(((PlatformModulePropertiesUpdatedEvent) event.getData()).getValuedProperties())
-                : ((PlatformPropertiesUpdatedEvent) event.getData()).getValuedProperties();
+    static Map<String, ValuedProperty> applyDelta(Map<String, ValuedProperty> previousPropertiesByName, ValuedPropertiesDelta delta) {
+        Map<String, ValuedProperty> currentPropertiesByName = new LinkedHashMap<>(previousPropertiesByName);
+        delta.getRemovedProperties().forEach(removedProperty -> currentPropertiesByName.remove(removedProperty.getName()));
+        delta.getUpdatedProperties().forEach(updatedProperty -> currentPropertiesByName.remove(updatedProperty.getName()));
+        extractSimpleValuedProperties(delta.getUpdatedProperties().stream()
+                .map(ValuedPropertiesDelta.UpdatedValuedProperty::getCurrentProperty)
+                .collect(toList()))
+                .forEach(updatedProperty -> currentPropertiesByName.put(updatedProperty.getName(), updatedProperty));
+        extractSimpleValuedProperties(delta.getAddedProperties())
+                .forEach(addedProperty -> currentPropertiesByName.put(addedProperty.getName(), addedProperty));
+        return currentPropertiesByName;
     }
 
-    private static Map<String, ValuedProperty> extractSimpleValuedPropertiesByName(boolean isModuleProperties, EventView event) {
-        return extractSimpleValuedPropertiesFromEvent(isModuleProperties, event)
+    boolean hasChanges() {
+        return !isEmpty(addedProperties) || !isEmpty(updatedProperties) || !isEmpty(removedProperties);
+    }
+
+    /**
+     * @return null si l'évènement ne contient que les différences avec l'état précédent
+     */
+    static Map<String, ValuedProperty> extractSimpleValuedPropertiesByName(boolean isModuleProperties, EventView event) {
+        List<ValuedProperty> valuedProperties;
+        if (!isModuleProperties) {
+            valuedProperties = ((PlatformPropertiesUpdatedEvent) event.getData()).getValuedProperties();
+        } else if (event.getData() instanceof PlatformModulePropertiesDeltaUpdatedEvent) {
+            List<AbstractValuedProperty> checkpointValuedProperties = ((PlatformModulePropertiesDeltaUpdatedEvent) event.getData()).getValuedProperties();
+            if (checkpointValuedProperties == null) {
+                return null;
+            }
+            valuedProperties = extractSimpleValuedProperties(checkpointValuedProperties);
+        } else {
+            valuedProperties = extractSimpleValuedProperties(((PlatformModulePropertiesUpdatedEvent) event.getData()).getValuedProperties());
+        }
+        return valuedProperties
                 .stream()
-                .collect(toMap(ValuedProperty::getName, identity()));
+                .collect(toMap(ValuedProperty::getName, identity(), (previousProperty, property) -> property, LinkedHashMap::new));
     }
 
     private static List<ValuedProperty> extractSimpleValuedProperties(List<AbstractValuedProperty> valuedProperties) {
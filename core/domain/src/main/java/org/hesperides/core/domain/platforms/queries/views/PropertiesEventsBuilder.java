@@ -0,0 +1,75 @@
+package org.hesperides.core.domain.platforms.queries.views;
+
+import org.hesperides.core.domain.events.queries.EventView;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesDeltaUpdatedEvent;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedProperty;
+import org.hesperides.core.domain.platforms.queries.views.PropertiesEventView.ValuedPropertyView;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Construction de l'historique des propriétés au fil des évènements, fournis un à un dans l'ordre chronologique.
+ * Seules les propriétés valorisées à l'issue de l'évènement précédent sont conservées,
+ * ce qui permet de parcourir un historique sans le charger entièrement en mémoire.
+ */
+public class PropertiesEventsBuilder {
+
+    private final boolean isModuleProperties;
+    private final boolean shouldExtractCreationEvent;
+    private boolean isFirstEvent = true;
+    // Propriétés valorisées à l'issue de l'évènement précédent, null si elles ne peuvent pas être déterminées
+    private Map<String, ValuedProperty> previousPropertiesByName;
+
+    /**
+     * @param shouldExtractCreationEvent le premier évènement fourni est le tout premier évènement créé :
+     *                                   il donne lieu à un évènement contenant la création des propriétés.
+     *                                   Sinon, il ne sert que de point de comparaison avec le suivant.
+     */
+    public PropertiesEventsBuilder(boolean isModuleProperties, boolean shouldExtractCreationEvent) {
+        this.isModuleProperties = isModuleProperties;
+        this.shouldExtractCreationEvent = shouldExtractCreationEvent;
+    }
+
+    /**
+     * @return vide si l'évènement n'ajoute, ne modifie ni ne supprime aucune propriété
+     */
+    public Optional<PropertiesEventView> next(EventView event) {
+        Map<String, ValuedProperty> currentPropertiesByName = PropertiesEventView.extractSimpleValuedPropertiesByName(isModuleProperties, event);
+        PropertiesEventView propertiesEvent = null;
+
+        boolean isCreationEvent = isFirstEvent && shouldExtractCreationEvent;
+        if (isFirstEvent) {
+            isFirstEvent = false;
+            if (isCreationEvent) {
+                if (currentPropertiesByName != null) {
+                    List<ValuedPropertyView> firstAddedProperties = currentPropertiesByName.values()
+                            .stream()
+                            .map(ValuedPropertyView::new)
+                            .collect(toList());
+                    propertiesEvent = new PropertiesEventView(event, firstAddedProperties, emptyList(), emptyList());
+                } else {
+                    propertiesEvent = PropertiesEventView.buildPropertiesEventFromDelta(event);
+                }
+            }
+        } else if (event.getData() instanceof PlatformModulePropertiesDeltaUpdatedEvent) {
+            // Les différences avec l'état précédent sont contenues dans l'évènement
+            propertiesEvent = PropertiesEventView.buildPropertiesEventFromDelta(event);
+            if (currentPropertiesByName == null && previousPropertiesByName != null) {
+                currentPropertiesByName = PropertiesEventView.applyDelta(previousPropertiesByName, PropertiesEventView.getDelta(event));
+            }
+        } else if (previousPropertiesByName != null) {
+            propertiesEvent = PropertiesEventView.buildPropertiesEventFromStates(event, previousPropertiesByName, currentPropertiesByName);
+        }
+        previousPropertiesByName = currentPropertiesByName;
+
+        // Si aucune propriété n'est ajoutée, modifiée ou supprimée, on ne crée pas d'évènement.
+        // Cela peut se produire notamment dans les pipelines qui sauvegardent parfois les propriétés
+        // telles qu'elles ont été récupérées. Cela pose problème au niveau de la pagination d'ailleurs...
+        return Optional.ofNullable(propertiesEvent).filter(view -> isCreationEvent || view.hasChanges());
+    }
+}
@@ -0,0 +1,65 @@
+package org.hesperides.core.domain.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécuteur des requêtes asynchrones (cf. AxonQueries), afin que des requêtes indépendantes soient menées en parallèle.
+ * <p>
+ * Le contexte de sécurité de l'appelant est propagé aux threads du pool, certains query handlers en ayant besoin.
+ * Une requête asynchrone lancée depuis un thread du pool est exécutée dans ce même thread :
+ * elle ne peut ainsi pas attendre indéfiniment un thread libre.
+ * <p>
+ * Ce composant n'est volontairement pas un bean de type Executor, ce qui désactiverait
+ * l'applicationTaskExecutor de Spring Boot utilisé par les réponses asynchrones de Spring MVC.
+ */
+@Component
+public class AuthenticatedQueryExecutor {
+
+    private static final ThreadLocal<Boolean> IS_QUERY_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final ExecutorService queryThreadsPool;
+    private final Executor executor;
+
+    public AuthenticatedQueryExecutor(@Value("${hesperides.query-threads:8}") int queryThreads) {
+        AtomicInteger threadsCount = new AtomicInteger();
+        queryThreadsPool = Executors.newFixedThreadPool(queryThreads, runnable -> {
+            Thread thread = new Thread(() -> {
+                IS_QUERY_THREAD.set(true);
+                runnable.run();
+            }, "query-" + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Executor authenticatedExecutor = new DelegatingSecurityContextExecutor(queryThreadsPool);
+        executor = runnable -> {
+            if (IS_QUERY_THREAD.get()) {
+                runnable.run();
+            } else {
+                authenticatedExecutor.execute(runnable);
+            }
+        };
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    @PreDestroy
+    void shutdownQueryThreadsPool() {
+        queryThreadsPool.shutdownNow();
+    }
+}
@@ -42,16 +42,29 @@ import static java.util.stream.Collectors.groupingBy;
 @Slf4j
 public abstract class AbstractProperty {
 
+    // Une instance de DefaultMustacheFactory peut être partagée entre threads
+    private static final MustacheFactory MUSTACHE_FACTORY = new UnescapedValuesMustacheFactory();
+
     String name;
 
     public static List<AbstractProperty> extractPropertiesFromTemplates(Collection<Template> templates, String templateContainerKey) {
-        Set<AbstractProperty> properties = new HashSet<>();
-
-        Stream<AbstractProperty> propertiesFromTemplates = Optional.ofNullable(templates)
+        List<AbstractProperty> propertiesFromTemplates = Optional.ofNullable(templates)
                 .orElseGet(Collections::emptyList).stream()
                 .map(Template::extractProperties)
-                .flatMap(List::stream);
-        List<AbstractProperty> mergedProperties = mergeAbstractPropertyDefinitions(propertiesFromTemplates, templateContainerKey)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        return mergeExtractedProperties(propertiesFromTemplates, templateContainerKey);
+    }
+
+    /**
+     * Fusionne des propriétés déjà extraites de templates, qu'elles soient brutes (cf. Template::extractProperties)
+     * ou déjà fusionnées (modèle d'une techno par exemple) : les règles de fusion étant cumulatives,
+     * le résultat est le même que si l'on réextrayait l'ensemble des templates concernés.
+     */
+    public static List<AbstractProperty> mergeExtractedProperties(Collection<AbstractProperty> extractedProperties, String templateContainerKey) {
+        Set<AbstractProperty> properties = new HashSet<>();
+
+        List<AbstractProperty> mergedProperties = mergeAbstractPropertyDefinitions(extractedProperties.stream(), templateContainerKey)
                 .collect(Collectors.toList());
         properties.addAll(mergedProperties);
 
@@ -116,6 +129,18 @@ public abstract class AbstractProperty {
     }
 
     public static List<AbstractProperty> extractPropertiesFromStringContent(String content) {
+        List<AbstractProperty> properties = content != null ? MustachePropertiesScanner.scan(content) : null;
+        if (properties == null) {
+            properties = extractPropertiesUsingMustacheEngine(content);
+        }
+        return properties;
+    }
+
+    /**
+     * Extraction historique, qui parcourt l'arbre de codes construit par le moteur Mustache.
+     * Elle n'est plus employée que lorsque MustachePropertiesScanner ne prend pas en charge le contenu.
+     */
+    static List<AbstractProperty> extractPropertiesUsingMustacheEngine(String content) {
         List<AbstractProperty> properties = new ArrayList<>();
         Mustache mustache = getMustacheInstanceFromStringContent(content);
         for (Code code : mustache.getCodes()) {
@@ -133,9 +158,16 @@ public abstract class AbstractProperty {
         return properties;
     }
 
+    /**
+     * Les templates compilés sont partagés via CompiledMustacheCache :
+     * ils ne doivent donc pas être modifiés par l'appelant.
+     */
     public static Mustache getMustacheInstanceFromStringContent(String content) {
-        MustacheFactory mustacheFactory = new UnescapedValuesMustacheFactory();
-        return mustacheFactory.compile(new StringReader(content), "anything");
+        return CompiledMustacheCache.getInstance().get(content, AbstractProperty::compileMustache);
+    }
+
+    private static Mustache compileMustache(String content) {
+        return MUSTACHE_FACTORY.compile(new StringReader(content), "anything");
     }
 
     /**
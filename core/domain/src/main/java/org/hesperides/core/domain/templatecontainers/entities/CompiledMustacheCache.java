@@ -0,0 +1,138 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.templatecontainers.entities;
+
+import com.github.mustachejava.Mustache;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache LRU borné des templates Mustache compilés, indexés par l'empreinte de leur contenu.
+ * <p>
+ * Il est partagé par l'extraction des propriétés (cf. AbstractProperty)
+ * et par la valorisation des fichiers (cf. PropertyValuationBuilder) :
+ * un même contenu (template, location, filename, valeur de propriété...)
+ * n'est donc compilé qu'une seule fois tant qu'il reste dans le cache.
+ * <p>
+ * Les compteurs sont exposés via /manage/metrics/cache.* (tag name:compiled-mustache-templates).
+ */
+public class CompiledMustacheCache {
+
+    public static final String NAME = "compiled-mustache-templates";
+    public static final int DEFAULT_MAX_SIZE = 5000;
+
+    private static final CompiledMustacheCache INSTANCE = new CompiledMustacheCache(DEFAULT_MAX_SIZE);
+
+    private final Map<String, Mustache> compiledMustaches;
+    private volatile int maxSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder putCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    CompiledMustacheCache(int maxSize) {
+        this.maxSize = maxSize;
+        // accessOrder = true => LRU
+        this.compiledMustaches = new LinkedHashMap<String, Mustache>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Mustache> eldest) {
+                boolean shouldEvict = size() > CompiledMustacheCache.this.maxSize;
+                if (shouldEvict) {
+                    evictionCount.increment();
+                }
+                return shouldEvict;
+            }
+        };
+    }
+
+    public static CompiledMustacheCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Renvoie le template compilé correspondant à ce contenu, en le compilant au besoin.
+     * La compilation est effectuée hors verrou : deux threads peuvent compiler
+     * le même contenu en parallèle, le dernier résultat est alors conservé.
+     */
+    public Mustache get(String content, Function<String, Mustache> compiler) {
+        String key = hash(content);
+        Mustache mustache;
+        synchronized (compiledMustaches) {
+            mustache = compiledMustaches.get(key);
+        }
+        if (mustache != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+            mustache = compiler.apply(content);
+            synchronized (compiledMustaches) {
+                compiledMustaches.put(key, mustache);
+            }
+            putCount.increment();
+        }
+        return mustache;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Compiled mustache cache size must be strictly positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public void clear() {
+        synchronized (compiledMustaches) {
+            compiledMustaches.clear();
+        }
+    }
+
+    public long size() {
+        synchronized (compiledMustaches) {
+            return compiledMustaches.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getPutCount() {
+        return putCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static String hash(String content) {
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + ":" + content.length();
+    }
+}
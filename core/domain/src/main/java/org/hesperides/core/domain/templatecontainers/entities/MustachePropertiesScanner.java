@@ -0,0 +1,149 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.templatecontainers.entities;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extrait en une seule passe les définitions de propriétés d'un contenu Mustache,
+ * sans construire l'arbre de codes du moteur Mustache.
+ * <p>
+ * Seule la syntaxe employée dans les templates est prise en charge :
+ * {{valeur}}, {{{valeur}}}, {{&valeur}}, {{#section}}, {{^section}}, {{/section}} et {{!commentaire}}.
+ * Le découpage des balises reproduit celui de com.github.mustachejava.MustacheParser.
+ * <p>
+ * Pour tout le reste (changement de délimiteurs, partials, pragmas, template mal formé...),
+ * scan renvoie null : l'appelant se rabat alors sur le moteur Mustache,
+ * qui fournit le même résultat ou la même erreur qu'auparavant.
+ */
+final class MustachePropertiesScanner {
+
+    private static final String START_TAG = "{{";
+    private static final String END_TAG = "}}";
+
+    private final String content;
+    private int position;
+
+    private MustachePropertiesScanner(String content) {
+        this.content = content;
+    }
+
+    /**
+     * @return les propriétés dans l'ordre où les renverrait le moteur Mustache,
+     * ou null si le contenu doit être confié au moteur Mustache
+     */
+    static List<AbstractProperty> scan(String content) {
+        List<Tag> tags = new MustachePropertiesScanner(content).scanTags(null);
+        if (tags == null) {
+            return null;
+        }
+        // Les définitions ne sont analysées qu'une fois le contenu entièrement découpé,
+        // comme avec le moteur Mustache : une erreur de syntaxe reste prioritaire.
+        List<AbstractProperty> properties = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            properties.add(toProperty(tag));
+        }
+        return properties;
+    }
+
+    private List<Tag> scanTags(String sectionName) {
+        List<Tag> tags = new ArrayList<>();
+        int length = content.length();
+        while (true) {
+            int start = content.indexOf(START_TAG, position);
+            if (start == -1) {
+                // Une section non fermée est une erreur de syntaxe
+                return sectionName == null ? tags : null;
+            }
+            int commandStart = start + START_TAG.length();
+            if (commandStart < length && content.charAt(commandStart) == '=') {
+                // Changement de délimiteurs
+                return null;
+            }
+            int end = content.indexOf(END_TAG, commandStart);
+            if (end == -1 || end == commandStart) {
+                // Balise non fermée ou vide
+                return null;
+            }
+            position = end + END_TAG.length();
+            char type = content.charAt(commandStart);
+            switch (type) {
+                case '#':
+                case '^': {
+                    String name = content.substring(commandStart + 1, end).trim();
+                    List<Tag> children = scanTags(name);
+                    if (children == null) {
+                        return null;
+                    }
+                    tags.add(new Tag(name, children));
+                    break;
+                }
+                case '/':
+                    return content.substring(commandStart + 1, end).trim().equals(sectionName) ? tags : null;
+                case '{':
+                    if (position >= length || content.charAt(position) != '}') {
+                        return null;
+                    }
+                    position++;
+                    tags.add(new Tag(content.substring(commandStart + 1, end).trim(), null));
+                    break;
+                case '&':
+                    tags.add(new Tag(content.substring(commandStart + 1, end).trim(), null));
+                    break;
+                case '!':
+                    break;
+                case '>':
+                case '<':
+                case '$':
+                case '%':
+                    return null;
+                default:
+                    tags.add(new Tag(content.substring(commandStart, end).trim(), null));
+            }
+        }
+    }
+
+    private static AbstractProperty toProperty(Tag tag) {
+        AbstractProperty property;
+        if (tag.getChildren() == null) {
+            property = Property.extractProperty(tag.getDefinition());
+        } else {
+            // Même dédoublonnage que IterableProperty.extractIterablePropertyFromMustacheCode
+            Set<AbstractProperty> properties = new HashSet<>();
+            for (Tag child : tag.getChildren()) {
+                properties.add(toProperty(child));
+            }
+            property = new IterableProperty(tag.getDefinition(), new ArrayList<>(properties));
+        }
+        return property;
+    }
+
+    @Value
+    private static class Tag {
+        String definition;
+        List<Tag> children;
+    }
+}
@@ -51,9 +51,12 @@ public class Property extends AbstractProperty {
         IS_PASSWORD("password");
 
         private final String name;
+        // #318
+        private final Pattern followedBySpacePattern;
 
         AnnotationType(String name) {
             this.name = name;
+            this.followedBySpacePattern = Pattern.compile("(?i)(@" + name + ")(\\s|$)");
         }
 
         public String getName() {
@@ -61,14 +64,21 @@ public class Property extends AbstractProperty {
         }
     }
 
-    private static final String PIPE_REGEX = "[|]";
+    // Les expressions régulières sont compilées une fois pour toutes,
+    // extractProperty étant appelée pour chaque propriété de chaque template
+    private static final Pattern PIPE_PATTERN = Pattern.compile("[|]");
+    private static final Pattern STARTS_WITH_KNOWN_ANNOTATION_PATTERN = Pattern.compile("^(@required|@comment |@default |@pattern |@password).*");
+    private static final Pattern KNOWN_ANNOTATION_PATTERN = Pattern.compile("(?i)(@required|@comment|@default|@pattern|@password)");
+    private static final Pattern AROBASE_ENDS_WITH_SPACE_OR_IS_THE_END_PATTERN = Pattern.compile("^@[a-zA-Z]*( |$)");
+    private static final Pattern ANNOTATIONS_SEPARATOR_PATTERN = Pattern.compile("(^| )((?i)(?=@required|@comment |@default |@pattern |@password))");
+    private static final Pattern DOUBLE_QUOTE_PATTERN = Pattern.compile("\\\"");
     private static final int NAME_INDEX = 0;
     private static final int ANNOTATIONS_INDEX = 1;
 
     public static Property extractProperty(String propertyDefinition) {
         Property property = null;
         if (propertyDefinition != null) {
-            String[] propertyAttributes = propertyDefinition.split(PIPE_REGEX, 2);
+            String[] propertyAttributes = PIPE_PATTERN.split(propertyDefinition, 2);
 
             String name = propertyAttributes[NAME_INDEX].trim();
             // Valeurs par défaut
@@ -151,7 +161,7 @@ public class Property extends AbstractProperty {
      * #318
      */
     private static boolean annotationIsFollowedBySpace(AnnotationType annotationType, String propertyAnnotations) {
-        return Pattern.compile("(?i)(@" + annotationType.getName() + ")(\\s|$)").matcher(propertyAnnotations).find();
+        return annotationType.followedBySpacePattern.matcher(propertyAnnotations).find();
     }
 
     private static boolean onlyStartsWithQuotes(String value) {
@@ -185,11 +195,8 @@ public class Property extends AbstractProperty {
     }
 
     static boolean startsWithKnownAnnotation(String value) {
-        return value
-                .trim()
-                .toLowerCase()
-                // On met un espace après comment, default et pattern pour résoudre le problème de diff décrit dans l'issue 307
-                .matches("^(@required|@comment |@default |@pattern |@password).*");
+        // On met un espace après comment, default et pattern pour résoudre le problème de diff décrit dans l'issue 307
+        return STARTS_WITH_KNOWN_ANNOTATION_PATTERN.matcher(value.trim().toLowerCase()).matches();
     }
 
     /**
@@ -206,7 +213,7 @@ public class Property extends AbstractProperty {
      */
     static String extractValueBeforeFirstKnownAnnotation(String value) {
         String result;
-        Matcher matcher = Pattern.compile("(?i)(@required|@comment|@default|@pattern|@password)").matcher(value);
+        Matcher matcher = KNOWN_ANNOTATION_PATTERN.matcher(value);
         if (matcher.find()) {
             int indexOfFirstKnownAnnotation = matcher.start();
             result = value.substring(0, indexOfFirstKnownAnnotation);
@@ -253,7 +260,7 @@ public class Property extends AbstractProperty {
     }
 
     static boolean arobaseEndsWithSpaceOrIsTheEnd(String value) {
-        return Pattern.compile("^@[a-zA-Z]*( |$)").matcher(value).find();
+        return AROBASE_ENDS_WITH_SPACE_OR_IS_THE_END_PATTERN.matcher(value).find();
     }
 
     /**
@@ -261,7 +268,7 @@ public class Property extends AbstractProperty {
      * sauf dans le cas de la première annotation.
      */
     private static String[] splitAnnotationsButKeepDelimiters(String propertyAnnotations) {
-        return propertyAnnotations.split("(^| )((?i)(?=@required|@comment |@default |@pattern |@password))");
+        return ANNOTATIONS_SEPARATOR_PATTERN.split(propertyAnnotations);
     }
 
     private static boolean annotationDefinitionStartsWith(String annotationDefinition, AnnotationType annotationType, String propertyAnnotations) {
@@ -326,7 +333,7 @@ public class Property extends AbstractProperty {
                 result = extractBetweenFirstAndNextUnescapedQuotes(value, "'");
                 if (result != null) {
                     // #320
-                    result = result.replaceAll("\\\"", "\\\\\"");
+                    result = DOUBLE_QUOTE_PATTERN.matcher(result).replaceAll("\\\\\"");
                 }
             }
             if (result != null) {
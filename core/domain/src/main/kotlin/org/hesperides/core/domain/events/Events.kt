@@ -4,3 +4,5 @@ import org.hesperides.core.domain.security.UserEvent
 
 data class GetLastToFirstEventsQuery(val aggregateIdentifier: String, val eventTypes: Array<Class<UserEvent>>, val page: Int, val size: Int)
 data class GetLastToFirstPlatformModulePropertiesUpdatedEvents(val aggregateIdentifier: String, val propertiesPath: String, val page: Int, val size: Int)
+// Pagination par curseur : évènements postérieurs à celui de numéro de séquence afterSequenceNumber (tous si null)
+data class GetFirstToLastPropertiesEventsAfterQuery(val aggregateIdentifier: String, val propertiesPath: String, val afterSequenceNumber: Long?, val size: Int)
@@ -0,0 +1,60 @@
+package org.hesperides.core.domain.platforms.entities.properties;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ValuedPropertiesDeltaTest {
+
+    private static final IterableValuedProperty ITERABLE_PROPERTY = new IterableValuedProperty("iterable", Collections.singletonList(
+            new IterablePropertyItem("item", Collections.singletonList(new ValuedProperty("nested", "value")))));
+
+    @Test
+    public void deltaContainsAddedUpdatedAndRemovedProperties() {
+        List<AbstractValuedProperty> previousProperties = Arrays.asList(
+                new ValuedProperty("unchanged", "value"),
+                new ValuedProperty("updated", "old"),
+                new ValuedProperty("removed", "value"),
+                ITERABLE_PROPERTY);
+        List<AbstractValuedProperty> currentProperties = Arrays.asList(
+                new ValuedProperty("unchanged", "value"),
+                new ValuedProperty("updated", "new"),
+                ITERABLE_PROPERTY,
+                new ValuedProperty("added", "value"));
+
+        ValuedPropertiesDelta delta = ValuedPropertiesDelta.between(previousProperties, currentProperties);
+
+        assertEquals(Collections.singletonList(new ValuedProperty("added", "value")), delta.getAddedProperties());
+        assertEquals(Collections.singletonList(new ValuedPropertiesDelta.UpdatedValuedProperty(
+                new ValuedProperty("updated", "old"), new ValuedProperty("updated", "new"))), delta.getUpdatedProperties());
+        assertEquals(Collections.singletonList(new ValuedProperty("removed", "value")), delta.getRemovedProperties());
+        assertEquals(currentProperties, delta.applyTo(previousProperties));
+    }
+
+    @Test
+    public void deltaOfIdenticalPropertiesIsEmpty() {
+        List<AbstractValuedProperty> properties = Arrays.asList(new ValuedProperty("property", "value"), ITERABLE_PROPERTY);
+
+        ValuedPropertiesDelta delta = ValuedPropertiesDelta.between(properties, properties);
+
+        assertTrue(delta.isEmpty());
+        assertEquals(properties, delta.applyTo(properties));
+    }
+
+    @Test
+    public void reorderedPropertiesAreNotReproducedByTheDelta() {
+        // Cas déclenchant un point de reprise, cf. PlatformAggregate
+        List<AbstractValuedProperty> previousProperties = Arrays.asList(new ValuedProperty("first", "value"), new ValuedProperty("second", "value"));
+        List<AbstractValuedProperty> currentProperties = Arrays.asList(new ValuedProperty("second", "value"), new ValuedProperty("first", "value"));
+
+        ValuedPropertiesDelta delta = ValuedPropertiesDelta.between(previousProperties, currentProperties);
+
+        assertTrue(delta.isEmpty());
+        assertEquals(previousProperties, delta.applyTo(previousProperties));
+    }
+}
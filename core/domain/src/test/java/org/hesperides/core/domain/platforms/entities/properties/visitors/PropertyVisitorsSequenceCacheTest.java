@@ -0,0 +1,105 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.platforms.entities.properties.visitors;
+
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.IterablePropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.PropertyView;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class PropertyVisitorsSequenceCacheTest {
+
+    private final AtomicInteger loadingsCount = new AtomicInteger();
+
+    private final Supplier<PropertyVisitorsSequence> loader = () -> {
+        loadingsCount.incrementAndGet();
+        return new PropertyVisitorsSequence(Collections.emptyList());
+    };
+
+    private final PropertyVisitorsSequenceCache.Key key = new PropertyVisitorsSequenceCache.Key(
+            "files", "#GROUP#module#1.0#WORKINGCOPY", "instance", Collections.emptyList(), false);
+
+    private static PlatformView platform(String id, long versionId) {
+        return new PlatformView(id, "platform", "app", "1.0", false, Collections.emptyList(), versionId, 1L, Collections.emptyList());
+    }
+
+    @Test
+    public void sequenceIsLoadedOnlyOnceForTheSamePlatformVersion() {
+        PropertyVisitorsSequenceCache cache = new PropertyVisitorsSequenceCache(10);
+        PropertyVisitorsSequence first = cache.get(platform("id", 1), key, loader);
+        PropertyVisitorsSequence second = cache.get(platform("id", 1), key, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loadingsCount.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void newPlatformVersionIsNotServedAStaleSequence() {
+        PropertyVisitorsSequenceCache cache = new PropertyVisitorsSequenceCache(10);
+        cache.get(platform("id", 1), key, loader);
+        cache.get(platform("id", 2), key, loader);
+        assertEquals(2, loadingsCount.get());
+
+        // Une version antérieure (ex: consultation à un instant T) ne remplace pas la plus récente
+        cache.get(platform("id", 1), key, loader);
+        cache.get(platform("id", 2), key, loader);
+        assertEquals(3, loadingsCount.get());
+    }
+
+    @Test
+    public void invalidationOnlyConcernsTheGivenPlatform() {
+        PropertyVisitorsSequenceCache cache = new PropertyVisitorsSequenceCache(10);
+        cache.get(platform("id-1", 1), key, loader);
+        cache.get(platform("id-2", 1), key, loader);
+
+        cache.invalidate("id-1");
+
+        assertEquals(1, cache.size());
+        cache.get(platform("id-2", 1), key, loader);
+        assertEquals(2, loadingsCount.get());
+    }
+
+    @Test
+    public void keysAreComparedOnTheirPropertiesModelDigest() {
+        List<AbstractPropertyView> propertiesModel = Collections.singletonList(new IterablePropertyView("iterable",
+                Collections.singletonList(new PropertyView("property", "property|@required", true, null, null, null, false))));
+        List<AbstractPropertyView> samePropertiesModel = Collections.singletonList(new IterablePropertyView("iterable",
+                Collections.singletonList(new PropertyView("property", "property|@required", true, null, null, null, false))));
+        List<AbstractPropertyView> renamedIterableModel = Collections.singletonList(new IterablePropertyView("renamed",
+                Collections.singletonList(new PropertyView("property", "property|@required", true, null, null, null, false))));
+
+        PropertyVisitorsSequenceCache.Key modelKey = new PropertyVisitorsSequenceCache.Key("files", "path", null, propertiesModel, false);
+        assertEquals(modelKey, new PropertyVisitorsSequenceCache.Key("files", "path", null, samePropertiesModel, false));
+        assertNotEquals(modelKey, new PropertyVisitorsSequenceCache.Key("files", "path", null, renamedIterableModel, false));
+        assertNotEquals(modelKey, new PropertyVisitorsSequenceCache.Key("files", "path", null, Collections.emptyList(), false));
+    }
+}
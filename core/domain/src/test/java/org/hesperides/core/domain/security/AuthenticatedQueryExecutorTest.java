@@ -0,0 +1,48 @@
+package org.hesperides.core.domain.security;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.Assert.*;
+
+public class AuthenticatedQueryExecutorTest {
+
+    private final AuthenticatedQueryExecutor queryExecutor = new AuthenticatedQueryExecutor(1);
+
+    @After
+    public void tearDown() {
+        queryExecutor.shutdownQueryThreadsPool();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test(timeout = 5000)
+    public void nestedQueriesRunInlineInPoolThreads() {
+        // Avec un pool d'un seul thread, une requête imbriquée soumise au pool attendrait indéfiniment
+        String threadNames = queryExecutor.supplyAsync(() -> {
+            String parentThreadName = Thread.currentThread().getName();
+            String childThreadName = queryExecutor.supplyAsync(() -> Thread.currentThread().getName()).join();
+            return parentThreadName + "/" + childThreadName;
+        }).join();
+        assertEquals("query-1/query-1", threadNames);
+    }
+
+    @Test
+    public void queriesDoNotRunInCallerThread() {
+        String threadName = queryExecutor.supplyAsync(() -> Thread.currentThread().getName()).join();
+        assertNotEquals(Thread.currentThread().getName(), threadName);
+    }
+
+    @Test
+    public void securityContextIsPropagatedToPoolThreads() {
+        Authentication authentication = new TestingAuthenticationToken("user", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        assertSame(authentication, queryExecutor.supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication()).join());
+
+        // Le contexte de sécurité n'est pas conservé d'une requête à l'autre
+        SecurityContextHolder.clearContext();
+        assertNull(queryExecutor.supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication()).join());
+    }
+}
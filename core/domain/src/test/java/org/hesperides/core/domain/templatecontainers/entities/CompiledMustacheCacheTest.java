@@ -0,0 +1,79 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.templatecontainers.entities;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompiledMustacheCacheTest {
+
+    private final AtomicInteger compilationsCount = new AtomicInteger();
+
+    private final Function<String, Mustache> compiler = content -> {
+        compilationsCount.incrementAndGet();
+        return new DefaultMustacheFactory().compile(new StringReader(content), "anything");
+    };
+
+    @Test
+    public void sameContentIsCompiledOnlyOnce() {
+        CompiledMustacheCache cache = new CompiledMustacheCache(10);
+        Mustache first = cache.get("{{foo}}", compiler);
+        Mustache second = cache.get("{{foo}}", compiler);
+
+        assertSame(first, second);
+        assertEquals(1, compilationsCount.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        CompiledMustacheCache cache = new CompiledMustacheCache(2);
+        cache.get("{{a}}", compiler);
+        cache.get("{{b}}", compiler);
+        cache.get("{{a}}", compiler); // "a" devient le plus récemment utilisé
+        cache.get("{{c}}", compiler); // => "b" est évincé
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.get("{{a}}", compiler);
+        assertEquals(3, compilationsCount.get());
+        cache.get("{{b}}", compiler);
+        assertEquals(4, compilationsCount.get());
+    }
+
+    @Test
+    public void extractionAndRenderingShareTheSameCache() {
+        String content = "{{shared-cache-property | @comment \"shared\"}}";
+        Mustache extracted = AbstractProperty.getMustacheInstanceFromStringContent(content);
+        AbstractProperty.extractPropertiesFromStringContent(content);
+        assertSame(extracted, AbstractProperty.getMustacheInstanceFromStringContent(content));
+    }
+}
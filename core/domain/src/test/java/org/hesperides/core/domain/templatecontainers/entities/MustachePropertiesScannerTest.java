@@ -0,0 +1,159 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.domain.templatecontainers.entities;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class MustachePropertiesScannerTest {
+
+    // Définitions passées à Property.extractProperty & co dans PropertyTest
+    private static final Pattern PROPERTY_TEST_DEFINITION_PATTERN = Pattern.compile(
+            "(?:extractProperty|failExtractingProperty)\\(\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    @Test
+    public void scannerAndMustacheEngineGiveTheSameResultOnPropertyTestCorpus() throws IOException {
+        List<String> definitions = readPropertyTestDefinitions();
+        assertFalse(definitions.isEmpty());
+        for (String definition : definitions) {
+            // Les accolades échappées de testExtractPropertyWithDefaultValueContainingProperties
+            // ne sont pas des délimiteurs Mustache
+            assertSameExtraction("{{" + definition + "}}");
+            assertSameExtraction("prefix {{{" + definition + "}}} {{#section}}\n  {{" + definition + "}}\n{{/section}} suffix");
+        }
+    }
+
+    @Test
+    public void scannerAndMustacheEngineGiveTheSameResultOnSupportedSyntax() {
+        List<String> contents = Arrays.asList(
+                "",
+                "no property at all",
+                "{{ foo}} {{bar }} {{ fub }}",
+                "{{foo}}{{foo}}{{foo | @required}}",
+                "{{{unescaped}}} {{& unescaped too }} {{! a comment }}",
+                "{{#a}}{{foo|@required}}{{#b}}{{bar|@default zzz}}{{/b}}{{/a}}",
+                "{{^not-iterable}}{{foo}}{{/not-iterable}}",
+                "{{# spaces }}{{ foo }}{{/ spaces }}",
+                "{{#a}}{{x}}{{x}}{{/a}}{{#a}}{{y}}{{/a}}",
+                "{ {not a property} } {{\n multi\r\n line \n}}",
+                "{{ }} {{ #not-a-section}}",
+                "{{first}}}}",
+                "{{a}}{{b|@default 1}}{{c|@comment \"c\" @password}}\r\n{{d | @pattern * @required}}");
+        for (String content : contents) {
+            assertNotNull(content, MustachePropertiesScanner.scan(content));
+            assertSameExtraction(content);
+        }
+    }
+
+    @Test
+    public void unsupportedSyntaxIsLeftToMustacheEngine() {
+        List<String> contents = Arrays.asList(
+                "{{=<% %>=}}<%foo%>",
+                "{{> partial}}",
+                "{{%pragma}}",
+                "{{$name}}{{/name}}",
+                "{{<extend}}{{/extend}}",
+                "{{}}",
+                "{{unclosed",
+                "{{{unclosed}}",
+                "{{#a}}{{/b}}",
+                "{{#a}}",
+                "{{/a}}");
+        for (String content : contents) {
+            assertNull(content, MustachePropertiesScanner.scan(content));
+            assertSameExtraction(content);
+        }
+    }
+
+    @Test
+    public void syntaxErrorsPrevailOverInvalidDefinitions() {
+        assertSameExtraction("{{foo|@required @default 12}}{{#a}}");
+    }
+
+    private static void assertSameExtraction(String content) {
+        assertEquals(content, extract(content, false), extract(content, true));
+    }
+
+    /**
+     * Renvoie une représentation textuelle des propriétés extraites ou de l'erreur rencontrée
+     */
+    private static String extract(String content, boolean usingMustacheEngine) {
+        try {
+            List<AbstractProperty> properties = usingMustacheEngine
+                    ? AbstractProperty.extractPropertiesUsingMustacheEngine(content)
+                    : AbstractProperty.extractPropertiesFromStringContent(content);
+            return properties.toString();
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static List<String> readPropertyTestDefinitions() throws IOException {
+        String source = new String(Files.readAllBytes(Paths.get(
+                "src/test/java/org/hesperides/core/domain/templatecontainers/entities/PropertyTest.java")), StandardCharsets.UTF_8);
+        List<String> definitions = new ArrayList<>();
+        Matcher matcher = PROPERTY_TEST_DEFINITION_PATTERN.matcher(source);
+        while (matcher.find()) {
+            definitions.add(unescapeJavaLiteral(matcher.group(1)));
+        }
+        return definitions;
+    }
+
+    private static String unescapeJavaLiteral(String literal) {
+        StringBuilder result = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '\\' && i + 1 < literal.length()) {
+                char next = literal.charAt(++i);
+                switch (next) {
+                    case 't':
+                        result.append('\t');
+                        break;
+                    case 'n':
+                        result.append('\n');
+                        break;
+                    case 'r':
+                        result.append('\r');
+                        break;
+                    default:
+                        result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
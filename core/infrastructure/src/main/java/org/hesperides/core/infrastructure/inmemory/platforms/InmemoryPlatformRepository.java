@@ -21,10 +21,25 @@ public class InmemoryPlatformRepository implements MinimalPlatformRepository {
     // On stocke donc l'état existant/supprimé dans un booléen :
     private boolean exist = true; // false => deleted
 
+    public InmemoryPlatformRepository() {
+    }
+
+    /**
+     * Reprend la reconstruction à partir d'un état intermédiaire (snapshot) de la plateforme.
+     */
+    public InmemoryPlatformRepository(PlatformDocument platformDocument, boolean exist) {
+        this.currentPlatformDocument = platformDocument;
+        this.exist = exist;
+    }
+
     public PlatformDocument getCurrentPlatformDocument() {
         return currentPlatformDocument;
     }
 
+    public boolean isExisting() {
+        return exist;
+    }
+
     @Override
     public PlatformDocument save(PlatformDocument platformDoc) {
         currentPlatformDocument = platformDoc;
@@ -4,6 +4,10 @@ public class Collections {
     public static final String DOMAINEVENTS = "domainevents";
     public static final String MODULE = "module";
     public static final String PLATFORM = "platform";
+    public static final String PLATFORM_SNAPSHOT = "platform_snapshot";
+    public static final String DELETED_PLATFORM = "deleted_platform";
+    public static final String PLATFORM_CHANGE_LOG = "platform_change_log";
+    public static final String PLATFORM_CHANGE_LOG_STATE = "platform_change_log_state";
     public static final String TECHNO = "techno";
     public static final String APPLICATION_DIRECTORY_GROUPS = "application_directory_groups";
 }
@@ -7,6 +7,9 @@ import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
 import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
 import org.axonframework.mongo.DefaultMongoTemplate;
 import org.axonframework.mongo.eventsourcing.eventstore.MongoEventStorageEngine;
+import org.hesperides.core.infrastructure.mongo.events.CompressedXStreamSerializer;
+import org.hesperides.core.infrastructure.mongo.events.PropertiesPathEventStorageStrategy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -37,8 +40,10 @@ public class FakeMongoConfiguration {
     }
 
     @Bean
-    public EventStorageEngine eventStorageEngine(MongoClient mongoClient) {
+    public EventStorageEngine eventStorageEngine(MongoClient mongoClient,
+                                                 @Value("${hesperides.compress-event-payloads:false}") boolean compressEventPayloads) {
         DefaultMongoTemplate axonMongoTemplate = new DefaultMongoTemplate(mongoClient, MONGO_DB_NAME);
-        return new MongoEventStorageEngine(axonMongoTemplate);
+        return new MongoEventStorageEngine(null, null, new CompressedXStreamSerializer(compressEventPayloads),
+                axonMongoTemplate, new PropertiesPathEventStorageStrategy());
     }
 }
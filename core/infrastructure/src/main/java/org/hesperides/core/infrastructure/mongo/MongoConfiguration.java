@@ -8,7 +8,10 @@ import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
 import org.axonframework.mongo.DefaultMongoTemplate;
 import org.axonframework.mongo.eventsourcing.eventstore.MongoEventStorageEngine;
 import org.bson.Document;
+import org.hesperides.core.infrastructure.mongo.events.CompressedXStreamSerializer;
+import org.hesperides.core.infrastructure.mongo.events.PropertiesPathEventStorageStrategy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -56,9 +59,12 @@ public class MongoConfiguration {
 
     @Bean
     @Primary
-    public EventStorageEngine eventStorageEngine(MongoClient mongoClient, MongoClientURI mongoClientURI) {
+    public EventStorageEngine eventStorageEngine(MongoClient mongoClient, MongoClientURI mongoClientURI,
+                                                 @Value("${hesperides.compress-event-payloads:false}") boolean compressEventPayloads) {
         DefaultMongoTemplate axonMongoTemplate = new DefaultMongoTemplate(mongoClient, mongoClientURI.getDatabase());
-        return new MongoEventStorageEngine(axonMongoTemplate);
+        // Les snapshots Axon restent au format XML par défaut
+        return new MongoEventStorageEngine(null, null, new CompressedXStreamSerializer(compressEventPayloads),
+                axonMongoTemplate, new PropertiesPathEventStorageStrategy());
     }
 
     public static void ensureCaseInsensitivity(MongoTemplate mongoTemplate, String collectionName) {
@@ -0,0 +1,76 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.xml.XStreamSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Sérialiseur des évènements Axon pouvant stocker le XML XStream compressé (zlib) et encodé en Base64,
+ * afin de réduire la taille de la collection domainevents, dominée par les payloads des
+ * PlatformModulePropertiesUpdatedEvent qui contiennent l'ensemble des propriétés valorisées d'un module.
+ * <p>
+ * Les deux formats sont lisibles quelle que soit la configuration : un document XML commence toujours par "<",
+ * caractère absent de l'alphabet Base64. Les évènements existants peuvent être compressés
+ * par le script mongo_compress_event_payloads.js
+ */
+public class CompressedXStreamSerializer extends XStreamSerializer {
+
+    private final boolean compressOnWrite;
+
+    public CompressedXStreamSerializer(boolean compressOnWrite) {
+        this.compressOnWrite = compressOnWrite;
+    }
+
+    @Override
+    protected <T> T doSerialize(Object object, Class<T> expectedFormat, XStream xStream) {
+        if (!compressOnWrite) {
+            return super.doSerialize(object, expectedFormat, xStream);
+        }
+        byte[] xml = super.doSerialize(object, byte[].class, xStream);
+        return convert(compress(xml), String.class, expectedFormat);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object doDeserialize(SerializedObject serializedObject, XStream xStream) {
+        // Les évènements lus depuis Mongo sont des String, les autres représentations (dom4j...) ne sont jamais compressées
+        if (serializedObject.getContentType() == String.class || serializedObject.getContentType() == byte[].class) {
+            String data = (String) convert(serializedObject.getData(), serializedObject.getContentType(), String.class);
+            if (isCompressed(data)) {
+                serializedObject = new SimpleSerializedObject<>(decompress(data), byte[].class, serializedObject.getType());
+            }
+        }
+        return super.doDeserialize(serializedObject, xStream);
+    }
+
+    public static boolean isCompressed(String payload) {
+        return payload != null && !payload.isEmpty() && payload.charAt(0) != '<';
+    }
+
+    public static String compress(byte[] xml) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(xml.length / 8 + 64);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            deflater.write(xml);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return Base64.getEncoder().encodeToString(compressed.toByteArray());
+    }
+
+    public static byte[] decompress(String payload) {
+        try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(payload)))) {
+            return inflater.readAllBytes();
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package org.hesperides.core.infrastructure.mongo.events;
 
-import com.thoughtworks.xstream.XStream;
 import lombok.Data;
 import org.hesperides.core.domain.events.queries.EventView;
-import org.hesperides.core.domain.security.UserEvent;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -13,6 +13,9 @@ import static org.hesperides.core.infrastructure.mongo.Collections.DOMAINEVENTS;
 
 @Data
 @Document(collection = DOMAINEVENTS)
+// Historique des propriétés ordonné par numéro de séquence, y compris pour la pagination par curseur (cf. MongoEventRepository)
+@CompoundIndexes({@CompoundIndex(name = "aggregateIdentifier_payloadType_propertiesPath_sequenceNumber",
+        def = "{'aggregateIdentifier': 1, 'payloadType': 1, 'propertiesPath': 1, 'sequenceNumber': 1}")})
 public class EventDocument {
 
     @Indexed
@@ -24,20 +27,15 @@ public class EventDocument {
     private String payloadType;
     private String serializedMetadata;
     private String eventIdentifier;
+    // Uniquement pour les évènements de valorisation des propriétés d'un module, cf. PropertiesPathEventStorageStrategy
+    private String propertiesPath;
 
-    public EventView toEventView() {
-        XStream xStream = new XStream();
-        // Afin d'éviter le message "Security framework of XStream
-        // not initialized, XStream is probably vulnerable"
-        // cf. https://stackoverflow.com/questions/44698296/security-framework-of-xstream-not-initialized-xstream-is-probably-vulnerable
-        xStream.allowTypesByWildcard(new String[]{
-                "org.hesperides.core.domain.**"
-        });
-
+    public EventView toEventView(EventPayloadDeserializer payloadDeserializer) {
         return new EventView(
                 payloadType,
-                (UserEvent) xStream.fromXML(serializedPayload),
-                Instant.parse(timestamp)
+                payloadDeserializer.deserialize(payloadType, serializedPayload),
+                Instant.parse(timestamp),
+                sequenceNumber
         );
     }
 }
@@ -0,0 +1,75 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import com.thoughtworks.xstream.XStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hesperides.core.domain.security.UserEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Désérialisation des payloads XML des évènements stockés, partagée par toutes les requêtes.
+ * <p>
+ * La construction d'une instance XStream est coûteuse (reconstruction de ses caches de réflexion et de converters),
+ * on n'en crée donc qu'une seule : une fois configurée, elle peut être utilisée par plusieurs threads.
+ * Les payloads compressées (cf. CompressedXStreamSerializer) sont décompressées au préalable.
+ * Pour chaque type de payload, la classe et son converter sont résolus une seule fois, lors de sa première rencontre,
+ * et la durée de désérialisation est mesurée : /manage/metrics/event.deserialization?tag=payloadType:PlatformCreatedEvent
+ */
+@Slf4j
+@Component
+public class EventPayloadDeserializer {
+
+    static final String TIMER_METRIC_NAME = "event.deserialization";
+
+    private final XStream xStream;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timersByPayloadType = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EventPayloadDeserializer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        xStream = new XStream();
+        // Afin d'éviter le message "Security framework of XStream
+        // not initialized, XStream is probably vulnerable"
+        // cf. https://stackoverflow.com/questions/44698296/security-framework-of-xstream-not-initialized-xstream-is-probably-vulnerable
+        xStream.allowTypesByWildcard(new String[]{
+                "org.hesperides.core.domain.**"
+        });
+    }
+
+    public UserEvent deserialize(String payloadType, String serializedPayload) {
+        return getTimer(payloadType).record(() -> (UserEvent) xStream.fromXML(toXml(serializedPayload)));
+    }
+
+    private static String toXml(String serializedPayload) {
+        return CompressedXStreamSerializer.isCompressed(serializedPayload)
+                ? new String(CompressedXStreamSerializer.decompress(serializedPayload), StandardCharsets.UTF_8)
+                : serializedPayload;
+    }
+
+    private Timer getTimer(String payloadType) {
+        return timersByPayloadType.computeIfAbsent(payloadType, type -> {
+            warmUpConverter(type);
+            return Timer.builder(TIMER_METRIC_NAME)
+                    .tags("class", this.getClass().getSimpleName())
+                    .tags("payloadType", type.substring(type.lastIndexOf('.') + 1))
+                    .register(meterRegistry);
+        });
+    }
+
+    private void warmUpConverter(String payloadType) {
+        try {
+            Class<?> payloadClass = xStream.getMapper().realClass(payloadType);
+            xStream.getConverterLookup().lookupConverterForType(payloadClass);
+        } catch (RuntimeException exception) {
+            // Type inconnu (évènement d'une version antérieure...) : l'erreur éventuelle surviendra à la désérialisation
+            log.debug("Could not warm up XStream converter for " + payloadType, exception);
+        }
+    }
+}
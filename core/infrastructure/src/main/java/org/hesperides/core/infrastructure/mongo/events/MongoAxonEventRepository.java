@@ -3,33 +3,67 @@ package org.hesperides.core.infrastructure.mongo.events;
 import io.micrometer.core.annotation.Timed;
 import org.axonframework.queryhandling.QueryHandler;
 import org.hesperides.core.domain.events.EventRepository;
+import org.hesperides.core.domain.events.GetFirstToLastPropertiesEventsAfterQuery;
 import org.hesperides.core.domain.events.GetLastToFirstEventsQuery;
 import org.hesperides.core.domain.events.GetLastToFirstPlatformModulePropertiesUpdatedEvents;
 import org.hesperides.core.domain.events.queries.EventView;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesDeltaUpdatedEvent;
 import org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent;
+import org.hesperides.core.domain.platforms.PlatformPropertiesUpdatedEvent;
+import org.hesperides.core.infrastructure.mongo.platforms.MongoDeletedPlatformRepository;
+import org.hesperides.core.infrastructure.mongo.platforms.MongoPlatformChangeLogRepository;
+import org.hesperides.core.infrastructure.mongo.platforms.MongoPlatformChangeLogStateRepository;
+import org.hesperides.core.infrastructure.mongo.platforms.MongoPlatformSnapshotRepository;
+import org.hesperides.core.infrastructure.mongo.platforms.PlatformsAtPointInTimeCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
 import static org.hesperides.commons.SpringProfiles.MONGO;
+import static org.hesperides.core.domain.platforms.entities.Platform.GLOBAL_PROPERTIES_PATH;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 @Profile({MONGO, FAKE_MONGO})
 @Repository
 public class MongoAxonEventRepository implements EventRepository {
 
+    // Les évènements antérieurs aux deltas restent dans l'historique des propriétés
+    private static final List<String> MODULE_PROPERTIES_PAYLOAD_TYPES = Arrays.asList(
+            PlatformModulePropertiesUpdatedEvent.class.getName(),
+            PlatformModulePropertiesDeltaUpdatedEvent.class.getName());
+
     private final MongoEventRepository mongoEventRepository;
+    private final MongoPlatformSnapshotRepository platformSnapshotRepository;
+    private final PlatformsAtPointInTimeCache platformsAtPointInTimeCache;
+    private final MongoDeletedPlatformRepository deletedPlatformRepository;
+    private final MongoPlatformChangeLogRepository platformChangeLogRepository;
+    private final MongoPlatformChangeLogStateRepository platformChangeLogStateRepository;
+    private final EventPayloadDeserializer payloadDeserializer;
 
     @Autowired
-    public MongoAxonEventRepository(MongoEventRepository mongoEventRepository) {
+    public MongoAxonEventRepository(MongoEventRepository mongoEventRepository,
+                                    MongoPlatformSnapshotRepository platformSnapshotRepository,
+                                    PlatformsAtPointInTimeCache platformsAtPointInTimeCache,
+                                    MongoDeletedPlatformRepository deletedPlatformRepository,
+                                    MongoPlatformChangeLogRepository platformChangeLogRepository,
+                                    MongoPlatformChangeLogStateRepository platformChangeLogStateRepository,
+                                    EventPayloadDeserializer payloadDeserializer) {
         this.mongoEventRepository = mongoEventRepository;
+        this.platformSnapshotRepository = platformSnapshotRepository;
+        this.platformsAtPointInTimeCache = platformsAtPointInTimeCache;
+        this.deletedPlatformRepository = deletedPlatformRepository;
+        this.platformChangeLogRepository = platformChangeLogRepository;
+        this.platformChangeLogStateRepository = platformChangeLogStateRepository;
+        this.payloadDeserializer = payloadDeserializer;
     }
 
     @Override
@@ -47,22 +81,43 @@ public class MongoAxonEventRepository implements EventRepository {
                 : mongoEventRepository.findAllByAggregateIdentifierAndPayloadTypeInOrderByTimestampDesc(query.getAggregateIdentifier(), payloadTypes, pageable);
 
         return events.stream()
-                .map(EventDocument::toEventView)
+                .map(event -> event.toEventView(payloadDeserializer))
                 .collect(toList());
     }
 
     @Override
     public List<EventView> onGetLastToFirstPlatformModulePropertiesUpdatedEvents(GetLastToFirstPlatformModulePropertiesUpdatedEvents query) {
-        String propertiesPathPayload = "<propertiesPath>" + query.getPropertiesPath() + "</propertiesPath>";
         Pageable pageable = buildPageable(query.getPage(), query.getSize());
 
-        return mongoEventRepository.findAllByAggregateIdentifierAndPayloadTypeAndSerializedPayloadLikeOrderByTimestampDesc(
+        return mongoEventRepository.findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathOrderBySequenceNumberDesc(
                 query.getAggregateIdentifier(),
-                PlatformModulePropertiesUpdatedEvent.class.getName(),
-                propertiesPathPayload,
+                MODULE_PROPERTIES_PAYLOAD_TYPES,
+                query.getPropertiesPath(),
                 pageable)
                 .stream()
-                .map(EventDocument::toEventView)
+                .map(event -> event.toEventView(payloadDeserializer))
+                .collect(toList());
+    }
+
+    @Override
+    @Timed
+    @QueryHandler
+    public List<EventView> onGetFirstToLastPropertiesEventsAfterQuery(GetFirstToLastPropertiesEventsAfterQuery query) {
+        boolean isGlobalProperties = GLOBAL_PROPERTIES_PATH.equals(query.getPropertiesPath());
+        List<String> payloadTypes = isGlobalProperties
+                ? Collections.singletonList(PlatformPropertiesUpdatedEvent.class.getName())
+                : MODULE_PROPERTIES_PAYLOAD_TYPES;
+        String propertiesPath = isGlobalProperties ? null : query.getPropertiesPath();
+        Pageable pageable = PageRequest.of(0, query.getSize());
+
+        List<EventDocument> events = query.getAfterSequenceNumber() == null
+                ? mongoEventRepository.findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathOrderBySequenceNumberAsc(
+                query.getAggregateIdentifier(), payloadTypes, propertiesPath, pageable)
+                : mongoEventRepository.findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+                query.getAggregateIdentifier(), payloadTypes, propertiesPath, query.getAfterSequenceNumber(), pageable);
+
+        return events.stream()
+                .map(event -> event.toEventView(payloadDeserializer))
                 .collect(toList());
     }
 
@@ -70,6 +125,13 @@ public class MongoAxonEventRepository implements EventRepository {
     @Timed
     public void cleanAggregateEvents(String aggregateIdentifier) {
         mongoEventRepository.deleteAllByAggregateIdentifier(aggregateIdentifier);
+        // Les snapshots et reconstructions éventuels de l'agrégat ne correspondent plus à aucun historique
+        platformSnapshotRepository.deleteAllByPlatformId(aggregateIdentifier);
+        platformsAtPointInTimeCache.invalidate(aggregateIdentifier);
+        // L'agrégat n'ayant plus d'historique, il ne peut plus être restauré
+        deletedPlatformRepository.deleteById(aggregateIdentifier);
+        platformChangeLogRepository.deleteAllByPlatformId(aggregateIdentifier);
+        platformChangeLogStateRepository.deleteById(aggregateIdentifier);
     }
 
     private static Pageable buildPageable(Integer page, Integer size) {
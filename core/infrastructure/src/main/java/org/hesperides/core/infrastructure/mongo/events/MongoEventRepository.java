@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MongoEventRepository extends MongoRepository<EventDocument, String> {
@@ -16,6 +17,25 @@ public interface MongoEventRepository extends MongoRepository<EventDocument, Str
 
     void deleteAllByAggregateIdentifier(String aggregateIdentifier);
 
-    List<EventDocument> findAllByAggregateIdentifierAndPayloadTypeAndSerializedPayloadLikeOrderByTimestampDesc(
-            String aggregateIdentifier, String payloadType, String serializedPayload, Pageable pageable);
+    // Les timestamps des évènements sont enregistrés par Axon au format ISO-8601 avec 3 à 9 décimales.
+    // Comparés en tant que chaînes de caractères à une borne formatée à la milliseconde (3 décimales),
+    // les décimales supplémentaires sont sans effet ("Z" suivant les chiffres dans l'ordre lexicographique) :
+    // la comparaison équivaut à celle des timestamps tronqués à la milliseconde, comme lors du rejeu
+    // (cf. MongoPlatformProjectionRepository.getPlatformAtPointInTime et EventTimestampComparisonTest)
+    Optional<EventDocument> findFirstByAggregateIdentifierAndTimestampLessThanEqualOrderBySequenceNumberDesc(String aggregateIdentifier, String timestamp);
+
+    // Au sein d'un agrégat, le numéro de séquence ordonne strictement les évènements, contrairement au timestamp
+    // enregistré par Axon avec 3 à 9 décimales, dont la comparaison en tant que chaîne de caractères n'est pas fiable
+    List<EventDocument> findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathOrderBySequenceNumberDesc(
+            String aggregateIdentifier, List<String> payloadTypes, String propertiesPath, Pageable pageable);
+
+    // Pagination par curseur (keyset) des évènements de propriétés dans l'ordre chronologique : l'évènement
+    // de départ étant désigné par son numéro de séquence, le coût d'une page ne dépend pas de sa position
+    // dans l'historique, contrairement à un `skip`.
+    // `propertiesPath` est null pour les propriétés globales, dont les évènements n'ont pas ce champ
+    List<EventDocument> findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathOrderBySequenceNumberAsc(
+            String aggregateIdentifier, List<String> payloadTypes, String propertiesPath, Pageable pageable);
+
+    List<EventDocument> findAllByAggregateIdentifierAndPayloadTypeInAndPropertiesPathAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+            String aggregateIdentifier, List<String> payloadTypes, String propertiesPath, long sequenceNumber, Pageable pageable);
 }
@@ -0,0 +1,38 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.mongo.eventsourcing.eventstore.documentperevent.DocumentPerEventStorageStrategy;
+import org.axonframework.serialization.Serializer;
+import org.bson.Document;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesDeltaUpdatedEvent;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stockage Axon par défaut (un document par évènement), complété par un champ `propertiesPath`
+ * sur les évènements `PlatformModulePropertiesUpdatedEvent` et `PlatformModulePropertiesDeltaUpdatedEvent`, afin que l'historique des propriétés
+ * d'un module déployé puisse être récupéré via un index plutôt qu'en analysant la payload XML.
+ * <p>
+ * Les évènements antérieurs sont complétés par le script mongo_backfill_properties_path.js
+ */
+public class PropertiesPathEventStorageStrategy extends DocumentPerEventStorageStrategy {
+
+    public static final String PROPERTIES_PATH_FIELD = "propertiesPath";
+
+    @Override
+    protected Stream<Document> createEventDocuments(List<? extends EventMessage<?>> events, Serializer serializer) {
+        // Les documents sont créés dans le même ordre que les évènements
+        Iterator<? extends EventMessage<?>> eventsIterator = events.iterator();
+        return super.createEventDocuments(events, serializer).peek(document -> {
+            Object payload = eventsIterator.next().getPayload();
+            if (payload instanceof PlatformModulePropertiesUpdatedEvent) {
+                document.append(PROPERTIES_PATH_FIELD, ((PlatformModulePropertiesUpdatedEvent) payload).getPropertiesPath());
+            } else if (payload instanceof PlatformModulePropertiesDeltaUpdatedEvent) {
+                document.append(PROPERTIES_PATH_FIELD, ((PlatformModulePropertiesDeltaUpdatedEvent) payload).getPropertiesPath());
+            }
+        });
+    }
+}
@@ -7,7 +7,6 @@ import org.hesperides.core.domain.modules.queries.ModulePasswordProperties;
 import org.hesperides.core.domain.modules.queries.ModulePropertiesView;
 import org.hesperides.core.domain.modules.queries.ModuleView;
 import org.hesperides.core.domain.templatecontainers.entities.AbstractProperty;
-import org.hesperides.core.domain.templatecontainers.entities.Template;
 import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.infrastructure.mongo.technos.TechnoDocument;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.AbstractPropertyDocument;
@@ -71,30 +70,22 @@ public class ModuleDocument {
     }
 
     public void extractPropertiesAndSave(MongoModuleRepository moduleRepository) {
-        this.setProperties(extractPropertiesFromTemplatesAndTechnos());
+        extractProperties();
         moduleRepository.save(this);
     }
 
-    private List<AbstractPropertyDocument> extractPropertiesFromTemplatesAndTechnos() {
-        List<Template> allTemplates = getDomainTemplatesFromTemplateDocumentsAndTechnoDocuments();
-        List<AbstractProperty> abstractProperties = AbstractProperty.extractPropertiesFromTemplates(allTemplates, key.toString());
-        return AbstractPropertyDocument.fromDomainInstances(abstractProperties);
-    }
-
-    private List<Template> getDomainTemplatesFromTemplateDocumentsAndTechnoDocuments() {
-        Module module = this.toDomainInstance();
-        List<Template> allTemplates = new ArrayList<>();
-        if (module.getTemplates() != null) {
-            allTemplates.addAll(module.getTemplates());
-        }
-        if (module.getTechnos() != null) {
-            module.getTechnos().forEach(techno -> {
-                if (techno.getTemplates() != null) {
-                    allTemplates.addAll(techno.getTemplates());
-                }
-            });
-        }
-        return allTemplates;
+    /**
+     * Recalcule le modèle de propriétés sans sauvegarder le document.
+     * Seuls les templates du module modifiés depuis leur dernière extraction sont reparsés,
+     * et les propriétés déjà extraites des technos sont réutilisées telles quelles.
+     */
+    public void extractProperties() {
+        List<AbstractProperty> extractedProperties = TemplateDocument.getOrExtractProperties(templates, getDomainKey());
+        Optional.ofNullable(technos)
+                .orElseGet(Collections::emptyList)
+                .forEach(technoDocument -> extractedProperties.addAll(technoDocument.getOrExtractDomainProperties()));
+        List<AbstractProperty> abstractProperties = AbstractProperty.mergeExtractedProperties(extractedProperties, key.toString());
+        this.setProperties(AbstractPropertyDocument.fromDomainInstances(abstractProperties));
     }
 
     public Module toDomainInstance() {
@@ -0,0 +1,67 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.modules;
+
+import org.hesperides.core.infrastructure.mongo.templatecontainers.AbstractPropertyDocument;
+import org.hesperides.core.infrastructure.mongo.templatecontainers.KeyDocument;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Modèles de propriétés d'un ensemble de modules, récupérés en une seule requête
+ * (cf. MongoModuleRepository::findPropertiesByKeyIn) plutôt que module par module.
+ * <p>
+ * Un module absent du résultat, par exemple parce que sa clé ne diffère de celle enregistrée
+ * que par la casse (la collection y étant insensible), est recherché individuellement.
+ */
+public class ModulesPropertiesModels {
+
+    private final MongoModuleRepository moduleRepository;
+    private final Map<KeyDocument, List<AbstractPropertyDocument>> propertiesByModuleKey = new HashMap<>();
+
+    public ModulesPropertiesModels(MongoModuleRepository moduleRepository, Collection<KeyDocument> modulesKeys) {
+        this.moduleRepository = moduleRepository;
+        List<KeyDocument> distinctModulesKeys = modulesKeys.stream().distinct().collect(Collectors.toList());
+        if (!distinctModulesKeys.isEmpty()) {
+            moduleRepository.findPropertiesByKeyIn(distinctModulesKeys)
+                    .forEach(moduleDocument -> propertiesByModuleKey.put(moduleDocument.getKey(), getProperties(moduleDocument)));
+        }
+    }
+
+    /**
+     * @return le modèle de propriétés du module, vide si le module n'existe pas
+     */
+    public List<AbstractPropertyDocument> getProperties(KeyDocument moduleKey) {
+        return propertiesByModuleKey.computeIfAbsent(moduleKey, key -> moduleRepository.findPropertiesByModuleKey(key)
+                .map(ModulesPropertiesModels::getProperties)
+                .orElseGet(Collections::emptyList));
+    }
+
+    private static List<AbstractPropertyDocument> getProperties(ModuleDocument moduleDocument) {
+        return Optional.ofNullable(moduleDocument.getProperties()).orElseGet(Collections::emptyList);
+    }
+}
@@ -33,7 +33,8 @@ public interface MongoModuleRepository extends MongoRepository<ModuleDocument, S
     @Query(value = "{ 'key': ?0 }", fields = "{ 'templates': { $elemMatch: { 'name': ?1 } } }")
     Optional<ModuleDocument> findByKeyAndTemplateName(KeyDocument moduleKey, String templateName);
 
-    @Query(value = "{ 'key': ?0 }", fields = "{ 'templates': 1 }")
+    // Les propriétés extraites de chaque template (cf. TemplateDocument) ne sont pas nécessaires ici
+    @Query(value = "{ 'key': ?0 }", fields = "{ 'templates.name': 1, 'templates.filename': 1, 'templates.location': 1, 'templates.content': 1, 'templates.rights': 1, 'templates.versionId': 1 }")
     Optional<ModuleDocument> findTemplatesByModuleKey(KeyDocument moduleKey);
 
     @Query(value = "{ 'technos.$id': ?0 }")
@@ -0,0 +1,19 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import org.hesperides.core.infrastructure.mongo.platforms.documents.DeletedPlatformDocument;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformKeyDocument;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
+import static org.hesperides.commons.SpringProfiles.MONGO;
+
+@Profile({MONGO, FAKE_MONGO})
+@Repository
+public interface MongoDeletedPlatformRepository extends MongoRepository<DeletedPlatformDocument, String> {
+
+    Optional<DeletedPlatformDocument> findFirstByKeyOrderByDeletionTimestampDesc(PlatformKeyDocument key);
+}
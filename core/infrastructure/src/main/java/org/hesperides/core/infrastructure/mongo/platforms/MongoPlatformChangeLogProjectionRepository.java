@@ -0,0 +1,184 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.eventsourcing.SequenceNumber;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.queryhandling.QueryHandler;
+import org.hesperides.core.domain.platforms.GetPlatformEventsQuery;
+import org.hesperides.core.domain.platforms.PlatformChangeLogProjectionRepository;
+import org.hesperides.core.domain.platforms.PlatformCreatedEvent;
+import org.hesperides.core.domain.platforms.PlatformUpdatedEvent;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView.PlatformChangeView;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformChangeLogEntryDocument;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformChangeLogStateDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
+import static org.hesperides.commons.SpringProfiles.MONGO;
+import static org.hesperides.core.domain.platforms.queries.views.PlatformEventView.*;
+
+/**
+ * Les évènements de mise à jour d'une plateforme ne contiennent parfois que l'incrémentation
+ * du version_id : seules les modifications significatives sont enregistrées ici, au fil de l'eau,
+ * afin que la pagination puisse être effectuée directement par MongoDB.
+ * <p>
+ * Cette projection n'est écrite que par ses gestionnaires d'évènements, jamais par ses requêtes.
+ */
+@Slf4j
+@Profile({MONGO, FAKE_MONGO})
+@Repository
+public class MongoPlatformChangeLogProjectionRepository implements PlatformChangeLogProjectionRepository {
+
+    private final MongoPlatformChangeLogRepository changeLogRepository;
+    private final MongoPlatformChangeLogStateRepository changeLogStateRepository;
+    private final EventStorageEngine eventStorageEngine;
+
+    @Autowired
+    public MongoPlatformChangeLogProjectionRepository(MongoPlatformChangeLogRepository changeLogRepository,
+                                                      MongoPlatformChangeLogStateRepository changeLogStateRepository,
+                                                      EventStorageEngine eventStorageEngine) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeLogStateRepository = changeLogStateRepository;
+        this.eventStorageEngine = eventStorageEngine;
+    }
+
+    /*** EVENT HANDLERS ***/
+
+    @EventHandler
+    @Override
+    @Timed
+    public void onPlatformCreatedEvent(PlatformCreatedEvent event, @SequenceNumber Long sequenceNumber, @Timestamp Instant timestamp) {
+        ChangeLog changeLog = new ChangeLog(event.getPlatformId());
+        changeLog.logCreation(event.getPlatform(), sequenceNumber, timestamp, event.getUser());
+        save(changeLog);
+    }
+
+    @EventHandler
+    @Override
+    @Timed
+    public void onPlatformUpdatedEvent(PlatformUpdatedEvent event, @SequenceNumber Long sequenceNumber, @Timestamp Instant timestamp) {
+        String platformId = event.getPlatformId();
+        ChangeLog changeLog = changeLogStateRepository.findById(platformId)
+                .map(previousState -> new ChangeLog(platformId, previousState))
+                .orElseGet(() -> {
+                    // Plateforme créée avant la mise en place de cette projection : son historique est reconstruit
+                    // lors de sa première modification, par ce gestionnaire d'évènements, afin que la projection
+                    // ne soit jamais écrite par plusieurs traitements concurrents ni par une requête
+                    changeLogRepository.deleteAllByPlatformId(platformId);
+                    return rebuildChangeLogFromEvents(platformId, sequenceNumber);
+                });
+        changeLog.logUpdate(event.getPlatform(), sequenceNumber, timestamp, event.getUser());
+        save(changeLog);
+    }
+
+    private void save(ChangeLog changeLog) {
+        changeLogRepository.saveAll(changeLog.getEntries());
+        changeLogStateRepository.save(changeLog.getState());
+    }
+
+    /*** QUERY HANDLERS ***/
+
+    @QueryHandler
+    @Override
+    @Timed
+    public List<PlatformEventView> onGetPlatformEventsQuery(GetPlatformEventsQuery query) {
+        Stream<PlatformChangeLogEntryDocument> entries;
+        if (changeLogStateRepository.existsById(query.getPlatformId())) {
+            entries = changeLogRepository
+                    .findAllByPlatformIdOrderBySequenceNumberDesc(query.getPlatformId(), PageRequest.of(query.getPage() - 1, query.getSize()))
+                    .stream();
+        } else {
+            // Plateforme non modifiée depuis la mise en place de cette projection : son historique est calculé
+            // à la volée, sans être enregistré (cf. onPlatformUpdatedEvent)
+            List<PlatformChangeLogEntryDocument> rebuiltEntries = rebuildChangeLogFromEvents(query.getPlatformId(), Long.MAX_VALUE).getEntries();
+            Collections.reverse(rebuiltEntries);
+            entries = rebuiltEntries.stream()
+                    .skip((long) (query.getPage() - 1) * query.getSize())
+                    .limit(query.getSize());
+        }
+        return entries
+                .map(PlatformChangeLogEntryDocument::toPlatformEventView)
+                .collect(toList());
+    }
+
+    /**
+     * Reconstruction, en une seule lecture de l'event store, de l'historique
+     * d'une plateforme dont les évènements précèdent la mise en place de cette projection.
+     */
+    private ChangeLog rebuildChangeLogFromEvents(String platformId, long untilSequenceNumber) {
+        log.info("Rebuilding change log of platform {} from its events", platformId);
+        ChangeLog changeLog = new ChangeLog(platformId);
+        eventStorageEngine.readEvents(platformId).asStream()
+                .filter(event -> event.getSequenceNumber() < untilSequenceNumber)
+                .forEach(event -> {
+                    Object payload = event.getPayload();
+                    if (payload instanceof PlatformCreatedEvent) {
+                        PlatformCreatedEvent createdEvent = (PlatformCreatedEvent) payload;
+                        changeLog.logCreation(createdEvent.getPlatform(), event.getSequenceNumber(), event.getTimestamp(), createdEvent.getUser());
+                    } else if (payload instanceof PlatformUpdatedEvent) {
+                        PlatformUpdatedEvent updatedEvent = (PlatformUpdatedEvent) payload;
+                        changeLog.logUpdate(updatedEvent.getPlatform(), event.getSequenceNumber(), event.getTimestamp(), updatedEvent.getUser());
+                    }
+                });
+        return changeLog;
+    }
+
+    /**
+     * Entrées de l'historique d'une plateforme restant à enregistrer, et dernier état connu de celle-ci
+     */
+    @Getter
+    private static class ChangeLog {
+
+        private final String platformId;
+        private final List<PlatformChangeLogEntryDocument> entries = new ArrayList<>();
+        private PlatformChangeLogStateDocument state;
+
+        ChangeLog(String platformId) {
+            this.platformId = platformId;
+        }
+
+        ChangeLog(String platformId, PlatformChangeLogStateDocument state) {
+            this.platformId = platformId;
+            this.state = state;
+        }
+
+        void logCreation(Platform platform, long sequenceNumber, Instant timestamp, String author) {
+            Map<Long, String> propertiesPathsById = getPropertiesPathsById(platform);
+            entries.add(new PlatformChangeLogEntryDocument(platformId, sequenceNumber, timestamp, author,
+                    buildPlatformCreationChanges(propertiesPathsById)));
+            state = new PlatformChangeLogStateDocument(platformId, platform.getVersion(), propertiesPathsById);
+        }
+
+        void logUpdate(Platform platform, long sequenceNumber, Instant timestamp, String author) {
+            Map<Long, String> propertiesPathsById = getPropertiesPathsById(platform);
+            // Sans état précédent (historique ne débutant pas par une création, cas des plateformes migrées),
+            // ce premier évènement sert uniquement de point de comparaison
+            if (state != null) {
+                List<PlatformChangeView> changes = buildPlatformChanges(state.getVersion(), state.getPropertiesPathsById(),
+                        platform.getVersion(), propertiesPathsById);
+                if (!CollectionUtils.isEmpty(changes)) {
+                    entries.add(new PlatformChangeLogEntryDocument(platformId, sequenceNumber, timestamp, author, changes));
+                }
+            }
+            state = new PlatformChangeLogStateDocument(platformId, platform.getVersion(), propertiesPathsById);
+        }
+    }
+}
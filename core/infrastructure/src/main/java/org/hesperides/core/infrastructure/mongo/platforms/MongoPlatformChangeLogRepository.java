@@ -0,0 +1,21 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformChangeLogEntryDocument;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
+import static org.hesperides.commons.SpringProfiles.MONGO;
+
+@Profile({MONGO, FAKE_MONGO})
+@Repository
+public interface MongoPlatformChangeLogRepository extends MongoRepository<PlatformChangeLogEntryDocument, String> {
+
+    List<PlatformChangeLogEntryDocument> findAllByPlatformIdOrderBySequenceNumberDesc(String platformId, Pageable pageable);
+
+    void deleteAllByPlatformId(String platformId);
+}
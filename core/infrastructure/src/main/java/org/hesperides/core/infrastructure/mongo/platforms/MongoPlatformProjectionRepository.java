@@ -5,18 +5,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.axonframework.eventhandling.AnnotationEventListenerAdapter;
 import org.axonframework.eventhandling.EventHandler;
-import org.axonframework.eventhandling.EventMessage;
-import org.axonframework.eventhandling.TrackedEventMessage;
-import org.axonframework.eventsourcing.GenericTrackedDomainEventMessage;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
-import org.axonframework.messaging.MessageDecorator;
 import org.axonframework.queryhandling.QueryHandler;
 import org.hesperides.commons.SpringProfiles;
 import org.hesperides.core.domain.exceptions.NotFoundException;
 import org.hesperides.core.domain.modules.entities.Module;
 import org.hesperides.core.domain.platforms.*;
-import org.hesperides.core.domain.platforms.commands.PlatformAggregate;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.entities.properties.AbstractValuedProperty;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
 import org.hesperides.core.domain.platforms.exceptions.InexistantPlatformAtTimeException;
 import org.hesperides.core.domain.platforms.exceptions.UnreplayablePlatformEventsException;
 import org.hesperides.core.domain.platforms.queries.views.*;
@@ -27,14 +27,19 @@ import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.infrastructure.MinimalPlatformRepository;
 import org.hesperides.core.infrastructure.inmemory.platforms.InmemoryPlatformRepository;
 import org.hesperides.core.infrastructure.mongo.MongoConfiguration;
-import org.hesperides.core.infrastructure.mongo.modules.ModuleDocument;
+import org.hesperides.core.infrastructure.mongo.events.EventDocument;
+import org.hesperides.core.infrastructure.mongo.events.MongoEventRepository;
+import org.hesperides.core.infrastructure.mongo.modules.ModulesPropertiesModels;
 import org.hesperides.core.infrastructure.mongo.modules.MongoModuleRepository;
 import org.hesperides.core.infrastructure.mongo.platforms.documents.*;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.AbstractPropertyDocument;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.KeyDocument;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
@@ -44,14 +49,20 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.groupingBy;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.axonframework.common.DateTimeUtils.formatInstant;
 import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
 import static org.hesperides.commons.SpringProfiles.MONGO;
+import static org.hesperides.core.infrastructure.mongo.Collections.DELETED_PLATFORM;
 import static org.hesperides.core.infrastructure.mongo.Collections.PLATFORM;
+import static org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformSnapshotDocument.PROJECTION_VERSION;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Slf4j
 @Profile({MONGO, FAKE_MONGO})
@@ -64,6 +75,13 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
     private final EventStorageEngine eventStorageEngine;
     private final MongoTemplate mongoTemplate;
     private final SpringProfiles springProfiles;
+    private final PropertyVisitorsSequenceCache propertyVisitorsSequenceCache;
+    private final MongoPlatformSnapshotRepository platformSnapshotRepository;
+    private final int platformSnapshotInterval;
+    private final MongoEventRepository eventRepository;
+    private final PlatformsAtPointInTimeCache platformsAtPointInTimeCache;
+    private final PlatformViewsCache platformViewsCache;
+    private final MongoDeletedPlatformRepository deletedPlatformRepository;
 
     private int numberOfArchivedModuleVersions = 0;
 
@@ -72,13 +90,27 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
                                              MongoModuleRepository moduleRepository,
                                              EventStorageEngine eventStorageEngine,
                                              MongoTemplate mongoTemplate,
-                                             SpringProfiles springProfiles) {
+                                             SpringProfiles springProfiles,
+                                             PropertyVisitorsSequenceCache propertyVisitorsSequenceCache,
+                                             MongoPlatformSnapshotRepository platformSnapshotRepository,
+                                             @Value("${hesperides.platform-snapshot-interval:100}") int platformSnapshotInterval,
+                                             MongoEventRepository eventRepository,
+                                             PlatformsAtPointInTimeCache platformsAtPointInTimeCache,
+                                             PlatformViewsCache platformViewsCache,
+                                             MongoDeletedPlatformRepository deletedPlatformRepository) {
         this.minimalPlatformRepository = platformRepository;
         this.platformRepository = platformRepository;
         this.moduleRepository = moduleRepository;
         this.eventStorageEngine = eventStorageEngine;
         this.mongoTemplate = mongoTemplate;
         this.springProfiles = springProfiles;
+        this.propertyVisitorsSequenceCache = propertyVisitorsSequenceCache;
+        this.platformSnapshotRepository = platformSnapshotRepository;
+        this.platformSnapshotInterval = platformSnapshotInterval;
+        this.eventRepository = eventRepository;
+        this.platformsAtPointInTimeCache = platformsAtPointInTimeCache;
+        this.platformViewsCache = platformViewsCache;
+        this.deletedPlatformRepository = deletedPlatformRepository;
     }
 
     private MongoPlatformProjectionRepository(MinimalPlatformRepository minimalPlatformRepository) {
@@ -88,12 +120,32 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
         this.eventStorageEngine = null;
         this.mongoTemplate = null;
         this.springProfiles = null;
+        this.propertyVisitorsSequenceCache = null;
+        this.platformSnapshotRepository = null;
+        this.platformSnapshotInterval = 0;
+        this.eventRepository = null;
+        this.platformsAtPointInTimeCache = null;
+        this.platformViewsCache = null;
+        this.deletedPlatformRepository = null;
     }
 
     @PostConstruct
     private void ensureIndexCaseInsensitivity() {
         if (springProfiles != null && springProfiles.isActive(MONGO)) {
             MongoConfiguration.ensureCaseInsensitivity(mongoTemplate, PLATFORM);
+            MongoConfiguration.ensureCaseInsensitivity(mongoTemplate, DELETED_PLATFORM);
+        }
+    }
+
+    /**
+     * La vue et les séquences de propriétés valorisées de la plateforme mises en cache
+     * ne sont plus à jour dès que la plateforme est modifiée.
+     */
+    private void invalidatePlatformCaches(String platformId) {
+        if (propertyVisitorsSequenceCache != null) {
+            // Cas du InmemoryPlatformRepository exclu
+            propertyVisitorsSequenceCache.invalidate(platformId);
+            platformViewsCache.invalidate(platformId);
         }
     }
 
@@ -106,18 +158,21 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
         PlatformDocument platformDocument = new PlatformDocument(event.getPlatformId(), event.getPlatform());
         // Il arrive que les propriétés d'un module déployé ne soient pas valorisées par la suite,
         // cela ne doit pas empêcher de tenir compte des valeurs par défaut:
-        platformDocument.getActiveDeployedModules()
-                .forEach(deployedModuleDocument ->
-                        completePropertiesWithMustacheContent(deployedModuleDocument.getValuedProperties(), deployedModuleDocument)
-                );
+        completeActiveModulesPropertiesWithMustacheContent(platformDocument);
         platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
+        invalidatePlatformCaches(event.getPlatformId());
     }
 
     @EventHandler
     @Override
     @Timed
-    public void onPlatformDeletedEvent(PlatformDeletedEvent event) {
+    public void onPlatformDeletedEvent(PlatformDeletedEvent event, @Timestamp Instant timestamp) {
         minimalPlatformRepository.deleteById(event.getPlatformId());
+        invalidatePlatformCaches(event.getPlatformId());
+        if (deletedPlatformRepository != null) {
+            // Cas du InmemoryPlatformRepository exclu
+            deletedPlatformRepository.save(new DeletedPlatformDocument(event.getPlatformId(), new PlatformKeyDocument(event.getPlatformKey()), timestamp));
+        }
     }
 
     @EventHandler
@@ -140,63 +195,171 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
 
             platformDocument.setVersionId(newPlatformDocument.getVersionId());
 
-            platformDocument.getActiveDeployedModules()
-                    .forEach(deployedModuleDocument ->
-                            completePropertiesWithMustacheContent(deployedModuleDocument.getValuedProperties(), deployedModuleDocument)
-                    );
+            completeActiveModulesPropertiesWithMustacheContent(platformDocument);
             platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
         });
+        invalidatePlatformCaches(event.getPlatformId());
     }
 
     @EventHandler
     @Override
     @Timed
     public void onPlatformModulePropertiesUpdatedEvent(PlatformModulePropertiesUpdatedEvent event) {
-        // Tranformation des propriétés du domaine en documents
-        final List<AbstractValuedPropertyDocument> abstractValuedProperties = AbstractValuedPropertyDocument.fromAbstractDomainInstances(event.getValuedProperties());
+        updateModuleProperties(event.getPlatformId(), event.getPlatformVersionId(), event.getPropertiesPath(), event.getPropertiesVersionId(),
+                (platformDocument, deployedModuleDocument) -> event.getValuedProperties());
+    }
+
+    @EventHandler
+    @Override
+    @Timed
+    public void onPlatformModulePropertiesDeltaUpdatedEvent(PlatformModulePropertiesDeltaUpdatedEvent event) {
+        // Hors points de reprise, seules les différences avec la valorisation actuelle du module sont connues
+        updateModuleProperties(event.getPlatformId(), event.getPlatformVersionId(), event.getPropertiesPath(), event.getPropertiesVersionId(),
+                (platformDocument, deployedModuleDocument) -> event.getValuedProperties() != null
+                        ? event.getValuedProperties()
+                        : event.getDelta().applyTo(AbstractValuedPropertyDocument.toAbstractDomainInstances(
+                        findDeployedModuleValuedProperties(platformDocument, deployedModuleDocument))));
+    }
 
+    private void updateModuleProperties(String platformId, Long platformVersionId, String propertiesPath, Long propertiesVersionId,
+                                        BiFunction<PlatformDocument, DeployedModuleDocument, List<AbstractValuedProperty>> valuedPropertiesProvider) {
         // Récupération de la plateforme et mise à jour de la version
-        Optional<PlatformDocument> optPlatformDocument = minimalPlatformRepository.findById(event.getPlatformId());
+        Optional<PlatformDocument> optPlatformDocument = mongoTemplate == null
+                ? minimalPlatformRepository.findById(platformId)
+                : findPlatformWithGlobalPropertiesAndDeployedModulesKeys(platformId);
         if (!optPlatformDocument.isPresent()) {
-            throw new NotFoundException("Platform not found - module properties update impossible - platform ID: " + event.getPlatformId());
+            throw new NotFoundException("Platform not found - module properties update impossible - platform ID: " + platformId);
         }
         PlatformDocument platformDocument = optPlatformDocument.get();
-        platformDocument.setVersionId(event.getPlatformVersionId());
+        platformDocument.setVersionId(platformVersionId);
 
         // Modification des propriétés du module dans la plateforme
-        platformDocument.getActiveDeployedModules()
-                .filter(currentDeployedModuleDocument -> currentDeployedModuleDocument.getPropertiesPath().equals(event.getPropertiesPath()))
-                .findAny().ifPresent(deployedModuleDocument -> {
-            updateDeployedModuleVersionId(event.getPropertiesVersionId(), deployedModuleDocument);
+        Optional<DeployedModuleDocument> optDeployedModuleDocument = platformDocument.getActiveDeployedModules()
+                .filter(currentDeployedModuleDocument -> currentDeployedModuleDocument.getPropertiesPath().equals(propertiesPath))
+                .findAny();
+        optDeployedModuleDocument.ifPresent(deployedModuleDocument -> {
+            // Tranformation des propriétés du domaine en documents
+            List<AbstractValuedPropertyDocument> abstractValuedProperties = AbstractValuedPropertyDocument.fromAbstractDomainInstances(
+                    valuedPropertiesProvider.apply(platformDocument, deployedModuleDocument));
+            updateDeployedModuleVersionId(propertiesVersionId, deployedModuleDocument);
             completePropertiesWithMustacheContent(abstractValuedProperties, deployedModuleDocument);
         });
 
-        platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
+        if (mongoTemplate == null) {
+            // Cas du InmemoryPlatformRepository
+            platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
+        } else {
+            updateDeployedModuleProperties(platformDocument, optDeployedModuleDocument);
+        }
+        invalidatePlatformCaches(platformId);
+    }
+
+    /**
+     * Les propriétés valorisées des modules n'étant pas chargées par findPlatformWithGlobalPropertiesAndDeployedModulesKeys,
+     * seul le module concerné est relu, désigné par sa position
+     */
+    private List<AbstractValuedPropertyDocument> findDeployedModuleValuedProperties(PlatformDocument platformDocument, DeployedModuleDocument deployedModuleDocument) {
+        if (mongoTemplate == null) {
+            // Cas du InmemoryPlatformRepository, la plateforme est chargée entièrement
+            return deployedModuleDocument.getValuedProperties();
+        }
+        Query query = Query.query(where("_id").is(platformDocument.getId()));
+        query.fields().slice("deployedModules", platformDocument.getDeployedModules().indexOf(deployedModuleDocument), 1);
+        return Optional.ofNullable(mongoTemplate.findOne(query, PlatformDocument.class))
+                .map(PlatformDocument::getDeployedModules)
+                .filter(deployedModules -> deployedModules.size() == 1)
+                .map(deployedModules -> deployedModules.get(0))
+                .filter(deployedModule -> deployedModuleDocument.getPropertiesPath().equals(deployedModule.getPropertiesPath()))
+                .map(DeployedModuleDocument::getValuedProperties)
+                .orElseThrow(() -> new IllegalStateException("Deployed module not found - module properties update impossible - properties path: "
+                        + deployedModuleDocument.getPropertiesPath()));
+    }
+
+    /**
+     * Ne charge de la plateforme que ses propriétés globales et l'identification de ses modules déployés,
+     * sans leurs propriétés valorisées ni leurs instances
+     */
+    private Optional<PlatformDocument> findPlatformWithGlobalPropertiesAndDeployedModulesKeys(String platformId) {
+        Query query = Query.query(where("_id").is(platformId));
+        query.fields()
+                .include("globalProperties")
+                .include("deployedModules.id")
+                .include("deployedModules.propertiesVersionId")
+                .include("deployedModules.name")
+                .include("deployedModules.version")
+                .include("deployedModules.isWorkingCopy")
+                .include("deployedModules.modulePath")
+                .include("deployedModules.propertiesPath");
+        return Optional.ofNullable(mongoTemplate.findOne(query, PlatformDocument.class));
+    }
+
+    /**
+     * Plutôt que de réécrire toute la plateforme, on ne met à jour que sa version
+     * et le module déployé modifié (propriétés et modèle des instances).
+     * Le module est désigné par sa position : les évènements d'une même plateforme
+     * étant traités séquentiellement, la liste ne peut pas avoir changé depuis sa lecture.
+     */
+    private void updateDeployedModuleProperties(PlatformDocument platformDocument, Optional<DeployedModuleDocument> optDeployedModuleDocument) {
+        Update update = Update.update("versionId", platformDocument.getVersionId());
+        optDeployedModuleDocument.ifPresent(deployedModuleDocument -> {
+            String deployedModulePath = "deployedModules." + platformDocument.getDeployedModules().indexOf(deployedModuleDocument);
+            DeployedModuleDocument deployedModuleWithInstancesModel = deployedModuleDocument.buildInstancesModel(platformDocument.getGlobalProperties());
+            update.set(deployedModulePath + ".propertiesVersionId", deployedModuleWithInstancesModel.getPropertiesVersionId())
+                    .set(deployedModulePath + ".valuedProperties", deployedModuleWithInstancesModel.getValuedProperties())
+                    .set(deployedModulePath + ".instancesModel", deployedModuleWithInstancesModel.getInstancesModel());
+        });
+        mongoTemplate.updateFirst(Query.query(where("_id").is(platformDocument.getId())), update, PlatformDocument.class);
     }
 
     private void updateDeployedModuleVersionId(Long deployedModuleVersionId, DeployedModuleDocument deployedModuleDocument) {
         deployedModuleDocument.setPropertiesVersionId(deployedModuleVersionId);
     }
 
+    /**
+     * Complète les propriétés valorisées de tous les modules actifs de la plateforme,
+     * en récupérant les modèles de ces modules en une seule requête
+     */
+    private void completeActiveModulesPropertiesWithMustacheContent(PlatformDocument platformDocument) {
+        List<DeployedModuleDocument> activeDeployedModules = platformDocument.getActiveDeployedModules().collect(Collectors.toList());
+        ModulesPropertiesModels modulesPropertiesModels = getModulesPropertiesModels(activeDeployedModules);
+        activeDeployedModules.forEach(deployedModuleDocument ->
+                completePropertiesWithMustacheContent(deployedModuleDocument.getValuedProperties(), deployedModuleDocument, modulesPropertiesModels));
+    }
+
     private void completePropertiesWithMustacheContent(List<AbstractValuedPropertyDocument> abstractValuedProperties,
                                                        DeployedModuleDocument deployedModuleDocument) {
-        if (moduleRepository == null) {
+        // Un seul module : ModulesPropertiesModels se contente d'une recherche individuelle
+        completePropertiesWithMustacheContent(abstractValuedProperties, deployedModuleDocument,
+                getModulesPropertiesModels(Collections.emptyList()));
+    }
+
+    private void completePropertiesWithMustacheContent(List<AbstractValuedPropertyDocument> abstractValuedProperties,
+                                                       DeployedModuleDocument deployedModuleDocument,
+                                                       ModulesPropertiesModels modulesPropertiesModels) {
+        if (modulesPropertiesModels == null) {
             // Cas du InmemoryPlatformRepository
             deployedModuleDocument.setValuedProperties(abstractValuedProperties);
         } else {
             // Récupérer le model du module afin d'attribuer à chaque
             // propriété valorisée la définition initiale de la propriété
             // (ex: {{prop | @required}} => "prop | @required")
-            Module.Key moduleKey = new Module.Key(deployedModuleDocument.getName(), deployedModuleDocument.getVersion(), TemplateContainer.getVersionType(deployedModuleDocument.isWorkingCopy()));
-            KeyDocument moduleKeyDocument = new KeyDocument(moduleKey);
-            List<AbstractPropertyDocument> modulePropertiesModel = moduleRepository
-                    .findPropertiesByModuleKey(moduleKeyDocument)
-                    .map(ModuleDocument::getProperties)
-                    .orElseGet(Collections::emptyList);
+            List<AbstractPropertyDocument> modulePropertiesModel = modulesPropertiesModels.getProperties(getModuleKeyDocument(deployedModuleDocument));
             deployedModuleDocument.setValuedProperties(AbstractValuedPropertyDocument.completePropertiesWithMustacheContent(abstractValuedProperties, modulePropertiesModel));
         }
     }
 
+    private ModulesPropertiesModels getModulesPropertiesModels(List<DeployedModuleDocument> deployedModules) {
+        // Pas de modèles de modules dans le cas du InmemoryPlatformRepository
+        return moduleRepository == null ? null : new ModulesPropertiesModels(moduleRepository, deployedModules.stream()
+                .map(MongoPlatformProjectionRepository::getModuleKeyDocument)
+                .collect(Collectors.toList()));
+    }
+
+    private static KeyDocument getModuleKeyDocument(DeployedModuleDocument deployedModuleDocument) {
+        return new KeyDocument(new Module.Key(deployedModuleDocument.getName(), deployedModuleDocument.getVersion(),
+                TemplateContainer.getVersionType(deployedModuleDocument.isWorkingCopy())));
+    }
+
     @EventHandler
     @Override
     @Timed
@@ -210,7 +373,9 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
 
         // Retrieve platform
 
-        Optional<PlatformDocument> optPlatformDocument = minimalPlatformRepository.findById(event.getPlatformId());
+        Optional<PlatformDocument> optPlatformDocument = mongoTemplate == null
+                ? minimalPlatformRepository.findById(event.getPlatformId())
+                : findPlatformWithDeployedModules(event.getPlatformId());
         if (!optPlatformDocument.isPresent()) {
             throw new NotFoundException("Platform not found - platform properties update impossible - platform ID: " + event.getPlatformId());
         }
@@ -220,7 +385,40 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
         platformDocument.setVersionId(event.getPlatformVersionId());
         platformDocument.setGlobalProperties(valuedProperties);
         platformDocument.setGlobalPropertiesVersionId(event.getGlobalPropertiesVersionId());
-        platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
+        if (mongoTemplate == null) {
+            // Cas du InmemoryPlatformRepository
+            platformDocument.buildInstancesModelAndSave(minimalPlatformRepository);
+        } else {
+            updateGlobalPropertiesAndInstancesModels(platformDocument);
+        }
+        invalidatePlatformCaches(event.getPlatformId());
+    }
+
+    private Optional<PlatformDocument> findPlatformWithDeployedModules(String platformId) {
+        Query query = Query.query(where("_id").is(platformId));
+        query.fields().include("deployedModules");
+        return Optional.ofNullable(mongoTemplate.findOne(query, PlatformDocument.class));
+    }
+
+    /**
+     * Met à jour les propriétés globales et, en une seule écriture, le modèle des instances
+     * des seuls modules déployés pour lesquels il a changé.
+     * Les modules sont désignés par leur position : les évènements d'une même plateforme
+     * étant traités séquentiellement, la liste ne peut pas avoir changé depuis sa lecture.
+     */
+    private void updateGlobalPropertiesAndInstancesModels(PlatformDocument platformDocument) {
+        Update update = Update.update("versionId", platformDocument.getVersionId())
+                .set("globalProperties", platformDocument.getGlobalProperties())
+                .set("globalPropertiesVersionId", platformDocument.getGlobalPropertiesVersionId());
+        List<DeployedModuleDocument> deployedModules = Optional.ofNullable(platformDocument.getDeployedModules()).orElseGet(Collections::emptyList);
+        for (int index = 0; index < deployedModules.size(); index++) {
+            DeployedModuleDocument deployedModuleDocument = deployedModules.get(index);
+            List<String> instancesModel = deployedModuleDocument.buildInstancesModel(platformDocument.getGlobalProperties()).getInstancesModel();
+            if (!instancesModel.equals(deployedModuleDocument.getInstancesModel())) {
+                update.set("deployedModules." + index + ".instancesModel", instancesModel);
+            }
+        }
+        mongoTemplate.updateFirst(Query.query(where("_id").is(platformDocument.getId())), update, PlatformDocument.class);
     }
 
     @EventHandler
@@ -228,11 +426,12 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
     @Timed
     public PlatformView onRestoreDeletedPlatformEvent(RestoreDeletedPlatformEvent event) {
         PlatformDocument platformDocument = getPlatformAtPointInTime(event.getPlatformId(), null);
-        platformDocument.getActiveDeployedModules()
-                .forEach(deployedModuleDocument ->
-                        completePropertiesWithMustacheContent(deployedModuleDocument.getValuedProperties(), deployedModuleDocument)
-                );
+        completeActiveModulesPropertiesWithMustacheContent(platformDocument);
+        // Le document peut provenir d'un snapshot de la plateforme supprimée
+        platformDocument.setCreationId(UUID.randomUUID().toString());
         minimalPlatformRepository.save(platformDocument);
+        invalidatePlatformCaches(event.getPlatformId());
+        deletedPlatformRepository.deleteById(event.getPlatformId());
         return platformDocument.toPlatformView();
     }
 
@@ -252,29 +451,20 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
     @Override
     @Timed
     public Optional<String> onGetPlatformIdFromEvents(GetPlatformIdFromEvents query) {
-        // On recherche dans TOUS les événements un PlatformEventWithPayload ayant la bonne clef.
-        // On se protège en terme de perfs en n'effectuant cette recherche que sur les 7 derniers jours.
-        Instant todayLastWeek = Instant.ofEpochSecond(System.currentTimeMillis() / 1000 - 7 * 24 * 60 * 60);
-        Stream<? extends TrackedEventMessage<?>> abstractEventStream = eventStorageEngine.readEvents(eventStorageEngine.createTokenAt(todayLastWeek), false);
-        Optional<PlatformDeletedEvent> lastMatchingPlatformEvent = abstractEventStream
-                .map(GenericTrackedDomainEventMessage.class::cast)
-                .filter(msg -> PlatformAggregate.class.getSimpleName().equals(msg.getType()))
-                .map(MessageDecorator::getPayload)
-                // On part du principe qu'une plateforme à restaurer a forcément été supprimée,
-                // on peut donc n'effectuer la recherche que sur l'évènement `PlatformDeletedEvent`
-                .filter(PlatformDeletedEvent.class::isInstance)
-                .map(PlatformDeletedEvent.class::cast)
-                .filter(platformEvent -> platformEvent.getPlatformKey().getApplicationName().equalsIgnoreCase(query.getPlatformKey().getApplicationName()) &&
-                        platformEvent.getPlatformKey().getPlatformName().equalsIgnoreCase(query.getPlatformKey().getPlatformName()))
-                .reduce((first, second) -> second); // On récupère le dernier élément
-        return lastMatchingPlatformEvent.map(PlatformDeletedEvent::getPlatformId);
+        // On part du principe qu'une plateforme à restaurer a forcément été supprimée
+        PlatformKeyDocument keyDocument = new PlatformKeyDocument(query.getPlatformKey());
+        // Les suppressions antérieures à la création de la collection "deleted_platform" y sont ajoutées
+        // par le script mongo_backfill_deleted_platforms.js
+        return deletedPlatformRepository.findFirstByKeyOrderByDeletionTimestampDesc(keyDocument)
+                .map(DeletedPlatformDocument::getPlatformId);
     }
 
     @QueryHandler
     @Override
     @Timed
     public Optional<PlatformView> onGetPlatformByIdQuery(GetPlatformByIdQuery query) {
-        return minimalPlatformRepository.findById(query.getPlatformId()).map(PlatformDocument::toPlatformView);
+        return platformRepository.findOptionalVersionIdById(query.getPlatformId())
+                .flatMap(this::getPlatformView);
     }
 
     @QueryHandler
@@ -282,15 +472,51 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
     @Timed
     public Optional<PlatformView> onGetPlatformByKeyQuery(GetPlatformByKeyQuery query) {
         PlatformKeyDocument platformKeyDocument = new PlatformKeyDocument(query.getPlatformKey());
-        return platformRepository.findOptionalByKey(platformKeyDocument)
-                .map(PlatformDocument::toPlatformView);
+        return platformRepository.findOptionalVersionIdByKey(platformKeyDocument)
+                .flatMap(this::getPlatformView);
+    }
+
+    /**
+     * Seul le module déployé demandé est lu, en plus des propriétés globales et de l'en-tête de la plateforme.
+     * Si la projection ne renvoie pas de module actif (module inexistant, module archivé renvoyé
+     * par une base ne tenant pas compte du `$gt`, casse différente...), on se rabat sur la plateforme complète
+     * afin que la recherche du module se fasse exactement comme auparavant.
+     */
+    @QueryHandler
+    @Override
+    @Timed
+    public Optional<PlatformView> onGetPlatformWithDeployedModuleQuery(GetPlatformWithDeployedModuleQuery query) {
+        PlatformKeyDocument platformKeyDocument = new PlatformKeyDocument(query.getPlatformKey());
+        Optional<PlatformDocument> platformDocument = platformRepository
+                .findPlatformWithDeployedModuleByPropertiesPath(platformKeyDocument, query.getPropertiesPath());
+        if (platformDocument.isPresent() && !platformDocument.get().getActiveDeployedModules().findAny().isPresent()) {
+            return onGetPlatformByKeyQuery(new GetPlatformByKeyQuery(query.getPlatformKey()));
+        }
+        return platformDocument.map(PlatformDocument::toPlatformView);
+    }
+
+    /**
+     * Seuls le versionId et le creationId de la plateforme sont lus pour valider la vue en cache,
+     * le document complet n'est chargé et converti qu'en cas d'absence ou de changement de version.
+     */
+    private Optional<PlatformView> getPlatformView(PlatformDocument platformVersionIdDocument) {
+        String platformId = platformVersionIdDocument.getId();
+        // La plateforme peut avoir été supprimée entre les 2 requêtes
+        return Optional.ofNullable(platformViewsCache.get(platformId, platformVersionIdDocument.getVersionId(),
+                platformVersionIdDocument.getCreationId(), () -> minimalPlatformRepository.findById(platformId).orElse(null)));
     }
 
     @QueryHandler
     @Override
     @Timed
     public PlatformView onGetPlatformAtPointInTimeQuery(GetPlatformAtPointInTimeQuery query) {
-        return getPlatformAtPointInTime(query.getPlatformId(), query.getTimestamp()).toPlatformView();
+        String platformId = query.getPlatformId();
+        long timestamp = query.getTimestamp();
+        EventDocument lastEvent = eventRepository
+                .findFirstByAggregateIdentifierAndTimestampLessThanEqualOrderBySequenceNumberDesc(platformId, formatInstant(Instant.ofEpochMilli(timestamp)))
+                .orElseThrow(() -> new InexistantPlatformAtTimeException(timestamp));
+        return platformsAtPointInTimeCache.get(platformId, lastEvent.getSequenceNumber(), lastEvent.getEventIdentifier(),
+                () -> getPlatformAtPointInTime(platformId, timestamp).toPlatformView());
     }
 
     @QueryHandler
@@ -469,26 +695,66 @@ public class MongoPlatformProjectionRepository implements PlatformProjectionRepo
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Reconstruit la plateforme en rejouant ses évènements à partir du snapshot
+     * le plus récent précédant le timestamp demandé, ou à défaut à partir du premier évènement.
+     * Seuls les snapshots produits par la version courante de cette reconstruction sont utilisés (cf. PlatformSnapshotDocument.PROJECTION_VERSION).
+     * Un nouveau snapshot est enregistré tous les `platformSnapshotInterval` évènements rejoués.
+     */
     private PlatformDocument getPlatformAtPointInTime(String platformId, Long timestamp) {
-        DomainEventStream eventStream = eventStorageEngine.readEvents(platformId).filter(domainEventMessage ->
+        InmemoryPlatformRepository inmemoryPlatformRepository = new InmemoryPlatformRepository();
+        DomainEventStream eventStream = null;
+
+        Optional<PlatformSnapshotDocument> optSnapshot = timestamp == null
+                ? platformSnapshotRepository.findFirstByPlatformIdAndProjectionVersionOrderBySequenceNumberDesc(platformId, PROJECTION_VERSION)
+                : platformSnapshotRepository.findFirstByPlatformIdAndProjectionVersionAndTimestampLessThanEqualOrderBySequenceNumberDesc(platformId, PROJECTION_VERSION, timestamp);
+        if (optSnapshot.isPresent()) {
+            PlatformSnapshotDocument snapshot = optSnapshot.get();
+            DomainEventStream eventStreamFromSnapshot = eventStorageEngine.readEvents(platformId, snapshot.getSequenceNumber());
+            // Le premier évènement lu doit être le dernier évènement appliqué au snapshot
+            if (eventStreamFromSnapshot.hasNext() && eventStreamFromSnapshot.next().getIdentifier().equals(snapshot.getLastEventIdentifier())) {
+                inmemoryPlatformRepository = new InmemoryPlatformRepository(snapshot.getPlatform(), snapshot.isPlatformExisting());
+                eventStream = eventStreamFromSnapshot;
+            } else {
+                log.warn("Platform {} snapshots do not match its events anymore, they are deleted", platformId);
+                platformSnapshotRepository.deleteAllByPlatformId(platformId);
+            }
+        }
+        boolean isReplayedFromSnapshot = eventStream != null;
+        if (!isReplayedFromSnapshot) {
+            eventStream = eventStorageEngine.readEvents(platformId);
+        }
+
+        eventStream = eventStream.filter(domainEventMessage ->
                 (timestamp == null || domainEventMessage.getTimestamp().toEpochMilli() <= timestamp)
                         && !domainEventMessage.getPayloadType().equals(RestoreDeletedPlatformEvent.class)
         );
-        InmemoryPlatformRepository inmemoryPlatformRepository = new InmemoryPlatformRepository();
         AnnotationEventListenerAdapter eventHandlerAdapter = new AnnotationEventListenerAdapter(new MongoPlatformProjectionRepository(inmemoryPlatformRepository));
-        boolean zeroEventsBeforeTimestamp = true;
+        boolean zeroEventsBeforeTimestamp = !isReplayedFromSnapshot;
         while (eventStream.hasNext()) {
             zeroEventsBeforeTimestamp = false;
+            DomainEventMessage<?> event;
             try {
-                EventMessage<?> event = eventStream.next();
+                event = eventStream.next();
                 eventHandlerAdapter.handle(event);
             } catch (Exception error) {
                 throw new UnreplayablePlatformEventsException(timestamp, error);
             }
+            saveSnapshotIfNeeded(platformId, event, inmemoryPlatformRepository);
         }
         if (zeroEventsBeforeTimestamp) {
             throw new InexistantPlatformAtTimeException(timestamp);
         }
         return inmemoryPlatformRepository.getCurrentPlatformDocument();
     }
+
+    private void saveSnapshotIfNeeded(String platformId, DomainEventMessage<?> event, InmemoryPlatformRepository inmemoryPlatformRepository) {
+        // Le document est sérialisé au moment de l'enregistrement :
+        // les évènements rejoués ensuite ne modifient donc pas le snapshot
+        // Un intervalle nul désactive la création de snapshots
+        if (platformSnapshotInterval > 0 && (event.getSequenceNumber() + 1) % platformSnapshotInterval == 0 && inmemoryPlatformRepository.getCurrentPlatformDocument() != null) {
+            platformSnapshotRepository.save(new PlatformSnapshotDocument(
+                    platformId, event, inmemoryPlatformRepository.getCurrentPlatformDocument(), inmemoryPlatformRepository.isExisting()));
+        }
+    }
 }
@@ -21,6 +21,12 @@ public interface MongoPlatformRepository extends MongoRepository<PlatformDocumen
     @Query(value = "{ 'key': ?0 }", fields = "{ '_id': 1 }")
     Optional<PlatformDocument> findOptionalIdByKey(PlatformKeyDocument key);
 
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'versionId': 1, 'creationId': 1 }")
+    Optional<PlatformDocument> findOptionalVersionIdById(String platformId);
+
+    @Query(value = "{ 'key': ?0 }", fields = "{ 'versionId': 1, 'creationId': 1 }")
+    Optional<PlatformDocument> findOptionalVersionIdByKey(PlatformKeyDocument key);
+
     boolean existsByKey(PlatformKeyDocument platformKeyDocument);
 
     Optional<PlatformDocument> findOptionalByKey(PlatformKeyDocument platformKeyDocument);
@@ -48,6 +54,17 @@ public interface MongoPlatformRepository extends MongoRepository<PlatformDocumen
     @Query(value = "{ 'key': ?0 }", fields = "{ 'deployedModules': { $elemMatch: { 'id': { $gt: 0 }, 'propertiesPath': ?1 } } }")
     Optional<PlatformDocument> findModuleByPropertiesPath(PlatformKeyDocument platformKeyDocument, String propertiesPath);
 
+    @Query(value = "{ 'key': ?0 }", fields = "{" +
+            "   'key': 1," +
+            "   'version': 1," +
+            "   'isProductionPlatform': 1," +
+            "   'versionId': 1," +
+            "   'globalPropertiesVersionId': 1," +
+            "   'globalProperties': 1," +
+            "   'deployedModules': { $elemMatch: { 'id': { $gt: 0 }, 'propertiesPath': ?1 } }" +
+            "}")
+    Optional<PlatformDocument> findPlatformWithDeployedModuleByPropertiesPath(PlatformKeyDocument platformKeyDocument, String propertiesPath);
+
     // issue-767: `$gt: 0` n'est pas pris en compte dans cette requête, à voir avec la nouvelle version de Mongo
 //    @ExistsQuery("{ 'key': ?0, 'deployedModules.id': { $gt: 0 }, 'deployedModules.name': ?1, 'deployedModules.version': ?2, 'deployedModules.isWorkingCopy': ?3, 'deployedModules.modulePath': ?4, 'deployedModules.instances.name': ?5}")
 //    boolean existsByPlatformKeyAndModuleKeyAndPathAndInstanceName(PlatformKeyDocument platformKeyDocument, String moduleName, String moduleVersion, boolean isWorkingCopy, String modulePath, String instanceName);
@@ -0,0 +1,22 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformSnapshotDocument;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
+import static org.hesperides.commons.SpringProfiles.MONGO;
+
+@Profile({MONGO, FAKE_MONGO})
+@Repository
+public interface MongoPlatformSnapshotRepository extends MongoRepository<PlatformSnapshotDocument, String> {
+
+    Optional<PlatformSnapshotDocument> findFirstByPlatformIdAndProjectionVersionOrderBySequenceNumberDesc(String platformId, int projectionVersion);
+
+    Optional<PlatformSnapshotDocument> findFirstByPlatformIdAndProjectionVersionAndTimestampLessThanEqualOrderBySequenceNumberDesc(String platformId, int projectionVersion, long timestamp);
+
+    void deleteAllByPlatformId(String platformId);
+}
@@ -0,0 +1,72 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import lombok.Value;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Cache des vues des plateformes courantes, afin de ne convertir le document d'une plateforme
+ * qu'une seule fois par modification plutôt qu'à chaque requête.
+ * <p>
+ * Une entrée n'est servie que si elle a été construite à partir de la version (versionId)
+ * et de la création (creationId) de la plateforme actuellement en base, obtenues au préalable
+ * par une requête ne renvoyant que ces champs : une plateforme recréée conservant le même identifiant
+ * et repartant du même versionId, le creationId évite d'en servir une vue antérieure,
+ * y compris lorsque la plateforme a été recréée par une autre instance de l'application.
+ * Les handlers de la projection des plateformes invalident par ailleurs les entrées d'une plateforme
+ * dès qu'elle est créée, modifiée, supprimée ou restaurée, ce qui libère la mémoire au plus tôt.
+ * <p>
+ * Taille et éviction configurées dans ehcache.xml, métriques : /manage/metrics/cache.gets?tag=name:platform-views
+ */
+@Component
+public class PlatformViewsCache {
+
+    public static final String PLATFORM_VIEWS_CACHE_NAME = "platform-views";
+
+    private final Cache cache;
+
+    @Autowired
+    public PlatformViewsCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(PLATFORM_VIEWS_CACHE_NAME);
+    }
+
+    /**
+     * Les vues mises en cache sont partagées entre les requêtes et ne doivent donc pas être modifiées.
+     */
+    public PlatformView get(String platformId, Long versionId, String creationId, Supplier<PlatformDocument> loader) {
+        Element element = cache.get(platformId);
+        if (element != null) {
+            CachedPlatformView cachedPlatform = (CachedPlatformView) element.getObjectValue();
+            if (Objects.equals(cachedPlatform.getPlatform().getVersionId(), versionId)
+                    && Objects.equals(cachedPlatform.getCreationId(), creationId)) {
+                return cachedPlatform.getPlatform();
+            }
+        }
+        PlatformDocument platformDocument = loader.get();
+        if (platformDocument == null) {
+            return null;
+        }
+        PlatformView platform = platformDocument.toPlatformView();
+        // La vue chargée peut être plus récente que la version demandée : elle est indexée par sa propre version
+        cache.put(new Element(platformId, new CachedPlatformView(platformDocument.getCreationId(), platform)));
+        return platform;
+    }
+
+    public void invalidate(String platformId) {
+        cache.remove(platformId);
+    }
+
+    @Value
+    private static class CachedPlatformView {
+        String creationId;
+        PlatformView platform;
+    }
+}
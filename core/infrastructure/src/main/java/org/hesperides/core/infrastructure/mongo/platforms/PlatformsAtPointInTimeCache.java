@@ -0,0 +1,64 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import lombok.Value;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache des plateformes reconstruites à un instant T.
+ * <p>
+ * Un état passé d'une plateforme ne change plus une fois ses évènements enregistrés :
+ * la clef est donc le dernier évènement antérieur au timestamp demandé,
+ * afin que tous les timestamps situés entre 2 mêmes évènements partagent la même entrée.
+ * L'identifiant de l'évènement fait partie de la clef car une plateforme recréée
+ * conserve le même identifiant d'agrégat et réutilise les mêmes numéros de séquence.
+ * <p>
+ * Taille et éviction configurées dans ehcache.xml, métriques : /manage/metrics/cache.gets?tag=name:platforms-at-point-in-time
+ */
+@Component
+public class PlatformsAtPointInTimeCache {
+
+    public static final String PLATFORMS_AT_POINT_IN_TIME_CACHE_NAME = "platforms-at-point-in-time";
+
+    private final Cache cache;
+
+    @Autowired
+    public PlatformsAtPointInTimeCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(PLATFORMS_AT_POINT_IN_TIME_CACHE_NAME);
+    }
+
+    public PlatformView get(String platformId, long lastEventSequenceNumber, String lastEventIdentifier, Supplier<PlatformView> loader) {
+        Key key = new Key(platformId, lastEventSequenceNumber, lastEventIdentifier);
+        PlatformView platform;
+        Element element = cache.get(key);
+        if (element == null) { // cache miss
+            platform = loader.get();
+            cache.put(new Element(key, platform));
+        } else { // cache hit
+            platform = (PlatformView) element.getObjectValue();
+        }
+        return platform;
+    }
+
+    public void invalidate(String platformId) {
+        List<?> keys = cache.getKeys();
+        keys.stream()
+                .filter(key -> key instanceof Key && platformId.equals(((Key) key).getPlatformId()))
+                .forEach(cache::remove);
+    }
+
+    @Value
+    private static class Key implements Serializable {
+        String platformId;
+        long lastEventSequenceNumber;
+        String lastEventIdentifier;
+    }
+}
@@ -48,7 +48,7 @@ public abstract class AbstractValuedPropertyDocument {
                 ).collect(toList());
     }
 
-    static List<AbstractValuedProperty> toAbstractDomainInstances(List<AbstractValuedPropertyDocument> abstractValuedPropertyDocuments) {
+    public static List<AbstractValuedProperty> toAbstractDomainInstances(List<AbstractValuedPropertyDocument> abstractValuedPropertyDocuments) {
         return Optional.ofNullable(abstractValuedPropertyDocuments)
                 .orElseGet(Collections::emptyList)
                 .stream()
@@ -0,0 +1,51 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.platforms.documents;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+import static org.hesperides.core.infrastructure.mongo.Collections.DELETED_PLATFORM;
+
+/**
+ * Plateforme supprimée, susceptible d'être restaurée à partir de son identifiant.
+ * Comme pour la collection "platform", l'index sur "key" est insensible à la casse (cf. mongo_create_collections.js).
+ */
+@Data
+@Document(collection = DELETED_PLATFORM)
+@NoArgsConstructor
+public class DeletedPlatformDocument {
+
+    @Id
+    private String platformId;
+    private PlatformKeyDocument key;
+    private Instant deletionTimestamp;
+
+    public DeletedPlatformDocument(String platformId, PlatformKeyDocument key, Instant deletionTimestamp) {
+        this.platformId = platformId;
+        this.key = key;
+        this.deletionTimestamp = deletionTimestamp;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.platforms.documents;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView.*;
+
+@Data
+@NoArgsConstructor
+public class PlatformChangeDocument {
+
+    private Type type;
+    private String oldValue;
+    private String newValue;
+
+    public enum Type {
+        PLATFORM_CREATED,
+        PLATFORM_VERSION_UPDATED,
+        DEPLOYED_MODULE_UPDATED,
+        DEPLOYED_MODULE_ADDED,
+        DEPLOYED_MODULE_REMOVED
+    }
+
+    public PlatformChangeDocument(PlatformChangeView change) {
+        if (change instanceof PlatformCreatedView) {
+            type = Type.PLATFORM_CREATED;
+        } else if (change instanceof PlatformVersionUpdatedView) {
+            type = Type.PLATFORM_VERSION_UPDATED;
+            oldValue = ((PlatformVersionUpdatedView) change).getOldVersion();
+            newValue = ((PlatformVersionUpdatedView) change).getNewVersion();
+        } else if (change instanceof DeployedModuleUpdatedView) {
+            type = Type.DEPLOYED_MODULE_UPDATED;
+            oldValue = ((DeployedModuleUpdatedView) change).getOldPropertiesPath();
+            newValue = ((DeployedModuleUpdatedView) change).getNewPropertiesPath();
+        } else if (change instanceof DeployedModuleAddedView) {
+            type = Type.DEPLOYED_MODULE_ADDED;
+            newValue = ((DeployedModuleAddedView) change).getPropertiesPath();
+        } else if (change instanceof DeployedModuleRemovedView) {
+            type = Type.DEPLOYED_MODULE_REMOVED;
+            oldValue = ((DeployedModuleRemovedView) change).getPropertiesPath();
+        } else {
+            throw new IllegalArgumentException("Unknown platform change class: " + change.getClass().getName());
+        }
+    }
+
+    public PlatformChangeView toPlatformChangeView() {
+        switch (type) {
+            case PLATFORM_CREATED:
+                return new PlatformCreatedView();
+            case PLATFORM_VERSION_UPDATED:
+                return new PlatformVersionUpdatedView(oldValue, newValue);
+            case DEPLOYED_MODULE_UPDATED:
+                return new DeployedModuleUpdatedView(oldValue, newValue);
+            case DEPLOYED_MODULE_ADDED:
+                return new DeployedModuleAddedView(newValue);
+            case DEPLOYED_MODULE_REMOVED:
+                return new DeployedModuleRemovedView(oldValue);
+            default:
+                throw new IllegalArgumentException("Unknown platform change type: " + type);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.platforms.documents;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hesperides.core.infrastructure.mongo.Collections.PLATFORM_CHANGE_LOG;
+
+/**
+ * Modifications significatives apportées à une plateforme par un évènement de création ou de mise à jour.
+ */
+@Data
+@Document(collection = PLATFORM_CHANGE_LOG)
+@CompoundIndexes({@CompoundIndex(name = "platformId_sequenceNumber", def = "{'platformId' : 1, 'sequenceNumber': -1}")})
+@NoArgsConstructor
+public class PlatformChangeLogEntryDocument {
+
+    @Id
+    private String id;
+    private String platformId;
+    private long sequenceNumber;
+    private Instant timestamp;
+    private String author;
+    private List<PlatformChangeDocument> changes;
+
+    public PlatformChangeLogEntryDocument(String platformId, long sequenceNumber, Instant timestamp, String author, List<PlatformEventView.PlatformChangeView> changes) {
+        this.id = platformId + "-" + sequenceNumber;
+        this.platformId = platformId;
+        this.sequenceNumber = sequenceNumber;
+        this.timestamp = timestamp;
+        this.author = author;
+        this.changes = changes.stream().map(PlatformChangeDocument::new).collect(toList());
+    }
+
+    public PlatformEventView toPlatformEventView() {
+        return new PlatformEventView(timestamp, author, changes.stream().map(PlatformChangeDocument::toPlatformChangeView).collect(toList()));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.platforms.documents;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.hesperides.core.infrastructure.mongo.Collections.PLATFORM_CHANGE_LOG_STATE;
+
+/**
+ * Données du dernier évènement de création ou de mise à jour d'une plateforme,
+ * nécessaires au calcul des modifications apportées par l'évènement suivant.
+ * Elles sont conservées lors de la suppression de la plateforme afin qu'une
+ * plateforme restaurée puisse être comparée à son état avant suppression.
+ */
+@Data
+@Document(collection = PLATFORM_CHANGE_LOG_STATE)
+@NoArgsConstructor
+public class PlatformChangeLogStateDocument {
+
+    @Id
+    private String platformId;
+    private String version;
+    private List<DeployedModulePath> deployedModules;
+
+    public PlatformChangeLogStateDocument(String platformId, String version, Map<Long, String> propertiesPathsById) {
+        this.platformId = platformId;
+        this.version = version;
+        this.deployedModules = propertiesPathsById.entrySet().stream()
+                .map(entry -> new DeployedModulePath(entry.getKey(), entry.getValue()))
+                .collect(toList());
+    }
+
+    public Map<Long, String> getPropertiesPathsById() {
+        Map<Long, String> propertiesPathsById = new LinkedHashMap<>();
+        deployedModules.forEach(deployedModule -> propertiesPathsById.put(deployedModule.getId(), deployedModule.getPropertiesPath()));
+        return propertiesPathsById;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class DeployedModulePath {
+        private Long id;
+        private String propertiesPath;
+
+        public DeployedModulePath(Long id, String propertiesPath) {
+            this.id = id;
+            this.propertiesPath = propertiesPath;
+        }
+    }
+}
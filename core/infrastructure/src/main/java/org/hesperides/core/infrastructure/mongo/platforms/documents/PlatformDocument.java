@@ -56,6 +56,9 @@ public class PlatformDocument {
     private List<DeployedModuleDocument> deployedModules;
     private Long globalPropertiesVersionId;
     private List<ValuedPropertyDocument> globalProperties;
+    // Propre à chaque création (ou restauration) de la plateforme, dont l'identifiant et le versionId
+    // sont sinon réutilisés : permet de valider les vues en cache (cf. PlatformViewsCache)
+    private String creationId;
 
     public PlatformDocument(String id, Platform platform) {
         this.id = id;
@@ -66,6 +69,7 @@ public class PlatformDocument {
         this.deployedModules = DeployedModuleDocument.fromDomainInstances(platform.getDeployedModules());
         this.globalPropertiesVersionId = platform.getGlobalPropertiesVersionId();
         this.globalProperties = ValuedPropertyDocument.fromDomainInstances(platform.getGlobalProperties());
+        this.creationId = UUID.randomUUID().toString();
     }
 
     public Stream<DeployedModuleDocument> getActiveDeployedModules() {
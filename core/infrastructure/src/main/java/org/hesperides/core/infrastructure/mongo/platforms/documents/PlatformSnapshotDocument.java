@@ -0,0 +1,73 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.infrastructure.mongo.platforms.documents;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import static org.hesperides.core.infrastructure.mongo.Collections.PLATFORM_SNAPSHOT;
+
+/**
+ * État d'une plateforme après application de tous ses évènements
+ * jusqu'à `sequenceNumber` inclus, afin d'éviter de rejouer l'intégralité
+ * de l'historique lors de la reconstruction d'une plateforme à un instant T.
+ */
+@Data
+@Document(collection = PLATFORM_SNAPSHOT)
+@CompoundIndexes({@CompoundIndex(name = "platformId_sequenceNumber", def = "{'platformId' : 1, 'sequenceNumber': -1}")})
+@NoArgsConstructor
+public class PlatformSnapshotDocument {
+
+    /**
+     * Version de la reconstruction des plateformes à un instant T (cf. MongoPlatformProjectionRepository.getPlatformAtPointInTime),
+     * à incrémenter à chaque modification des gestionnaires d'évènements rejoués ou du format de PlatformDocument :
+     * les snapshots enregistrés par une version précédente sont alors ignorés, puis remplacés au fil des reconstructions.
+     */
+    public static final int PROJECTION_VERSION = 1;
+
+    @Id
+    private String id;
+    private String platformId;
+    private int projectionVersion;
+    private long sequenceNumber;
+    // Permet de s'assurer que l'historique n'a pas été réécrit depuis la création du snapshot
+    private String lastEventIdentifier;
+    private long timestamp;
+    // La plateforme a pu être supprimée à cet instant, mais son état doit être conservé pour une éventuelle restauration
+    private boolean platformExisting;
+    private PlatformDocument platform;
+
+    public PlatformSnapshotDocument(String platformId, DomainEventMessage<?> lastEvent, PlatformDocument platform, boolean platformExisting) {
+        this.id = platformId + "-" + lastEvent.getSequenceNumber();
+        this.platformId = platformId;
+        this.projectionVersion = PROJECTION_VERSION;
+        this.sequenceNumber = lastEvent.getSequenceNumber();
+        this.lastEventIdentifier = lastEvent.getIdentifier();
+        this.timestamp = lastEvent.getTimestamp().toEpochMilli();
+        this.platformExisting = platformExisting;
+        this.platform = platform;
+    }
+}
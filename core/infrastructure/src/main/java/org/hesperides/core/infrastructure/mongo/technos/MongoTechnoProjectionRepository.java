@@ -40,23 +40,34 @@ import org.hesperides.core.infrastructure.mongo.templatecontainers.AbstractPrope
 import org.hesperides.core.infrastructure.mongo.templatecontainers.KeyDocument;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.TemplateDocument;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.hesperides.commons.SpringProfiles.FAKE_MONGO;
 import static org.hesperides.commons.SpringProfiles.MONGO;
 import static org.hesperides.core.infrastructure.mongo.Collections.TECHNO;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Profile({MONGO, FAKE_MONGO})
 @Repository
@@ -66,16 +77,30 @@ public class MongoTechnoProjectionRepository implements TechnoProjectionReposito
     private final MongoModuleRepository moduleRepository;
     private final MongoTemplate mongoTemplate;
     private final SpringProfiles springProfiles;
+    // Recalcul en parallèle des modèles des modules utilisant une techno modifiée
+    private final ExecutorService modelsUpdateExecutor;
 
     @Autowired
     public MongoTechnoProjectionRepository(MongoTechnoRepository technoRepository,
                                            MongoModuleRepository moduleRepository,
                                            MongoTemplate mongoTemplate,
-                                           SpringProfiles springProfiles) {
+                                           SpringProfiles springProfiles,
+                                           @Value("${hesperides.techno-models-update-threads:4}") int modelsUpdateThreads) {
         this.technoRepository = technoRepository;
         this.moduleRepository = moduleRepository;
         this.mongoTemplate = mongoTemplate;
         this.springProfiles = springProfiles;
+        AtomicInteger threadsCount = new AtomicInteger();
+        this.modelsUpdateExecutor = Executors.newFixedThreadPool(modelsUpdateThreads, runnable -> {
+            Thread thread = new Thread(runnable, "techno-models-update-" + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    private void shutdownModelsUpdateExecutor() {
+        modelsUpdateExecutor.shutdown();
     }
 
     @PostConstruct
@@ -163,10 +188,33 @@ public class MongoTechnoProjectionRepository implements TechnoProjectionReposito
      * Met à jour le model des modules utilisant cette techno.
      * Cette logique devrait se trouver dans la couche application,
      * mais le batch de migration nécessite de l'avoir ici.
+     * <p>
+     * Les propriétés des technos, tout juste extraites, sont réutilisées telles quelles :
+     * seuls les templates modifiés de chaque module sont parsés, en parallèle,
+     * puis les modèles sont enregistrés en une seule écriture groupée.
      */
     private void updateModelsUsingTechno(String technoId) {
         List<ModuleDocument> moduleDocuments = moduleRepository.findAllByTechnoId(technoId);
-        moduleDocuments.forEach(moduleDocument -> moduleDocument.extractPropertiesAndSave(moduleRepository));
+        if (moduleDocuments.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] extractions = moduleDocuments.stream()
+                .map(moduleDocument -> CompletableFuture.runAsync(moduleDocument::extractProperties, modelsUpdateExecutor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(extractions).join();
+        } catch (CompletionException e) {
+            // On propage l'erreur d'origine, comme lors d'une extraction séquentielle
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ModuleDocument.class);
+        moduleDocuments.forEach(moduleDocument -> bulkOperations.updateOne(
+                Query.query(where("_id").is(moduleDocument.getId())),
+                // Les templates portent les propriétés qui en ont été extraites (cf. TemplateDocument)
+                Update.update("properties", moduleDocument.getProperties())
+                        .set("templates", moduleDocument.getTemplates())));
+        bulkOperations.execute();
     }
 
     /*** QUERY HANDLERS ***/
@@ -28,7 +28,8 @@ public interface MongoTechnoRepository extends MongoRepository<TechnoDocument, S
     @Query(value = "{ 'key': ?0 }", fields = "{ 'templates': { $elemMatch: { 'name': ?1 } } }")
     Optional<TechnoDocument> findTemplateByTechnoKeyAndTemplateName(KeyDocument technoKey, String templateName);
 
-    @Query(value = "{ 'key': ?0 }", fields = "{ 'templates': 1 }")
+    // Les propriétés extraites de chaque template (cf. TemplateDocument) ne sont pas nécessaires ici
+    @Query(value = "{ 'key': ?0 }", fields = "{ 'templates.name': 1, 'templates.filename': 1, 'templates.location': 1, 'templates.content': 1, 'templates.rights': 1, 'templates.versionId': 1 }")
     Optional<TechnoDocument> findTemplatesByTechnoKey(KeyDocument technoKey);
 
     List<TechnoDocument> findAllByKeyIn(List<KeyDocument> keys);
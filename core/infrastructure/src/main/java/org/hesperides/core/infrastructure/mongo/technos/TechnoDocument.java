@@ -25,7 +25,6 @@ import lombok.NoArgsConstructor;
 import org.hesperides.core.domain.technos.entities.Techno;
 import org.hesperides.core.domain.technos.queries.TechnoView;
 import org.hesperides.core.domain.templatecontainers.entities.AbstractProperty;
-import org.hesperides.core.domain.templatecontainers.entities.Template;
 import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.AbstractPropertyDocument;
 import org.hesperides.core.infrastructure.mongo.templatecontainers.KeyDocument;
@@ -109,12 +108,21 @@ public class TechnoDocument {
     }
 
     private List<AbstractPropertyDocument> extractPropertiesFromTemplates() {
-        TemplateContainer.Key technoKey = getDomainKey();
-        List<Template> templates = TemplateDocument.toDomainInstances(this.templates, technoKey);
-        List<AbstractProperty> abstractProperties = AbstractProperty.extractPropertiesFromTemplates(templates, key.toString());
+        List<AbstractProperty> templatesProperties = TemplateDocument.getOrExtractProperties(templates, getDomainKey());
+        List<AbstractProperty> abstractProperties = AbstractProperty.mergeExtractedProperties(templatesProperties, key.toString());
         return AbstractPropertyDocument.fromDomainInstances(abstractProperties);
     }
 
+    /**
+     * Renvoie les propriétés déjà extraites de la techno,
+     * en ne les extrayant de ses templates que si elles n'ont jamais été calculées.
+     */
+    public List<AbstractProperty> getOrExtractDomainProperties() {
+        return properties != null
+                ? AbstractPropertyDocument.toDomainInstances(properties)
+                : AbstractPropertyDocument.toDomainInstances(extractPropertiesFromTemplates());
+    }
+
     Techno.Key getDomainKey() {
         return new Techno.Key(key.getName(), key.getVersion(), TemplateContainer.getVersionType(key.isWorkingCopy()));
     }
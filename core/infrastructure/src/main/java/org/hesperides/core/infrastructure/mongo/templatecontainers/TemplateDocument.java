@@ -22,11 +22,15 @@ package org.hesperides.core.infrastructure.mongo.templatecontainers;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hesperides.core.domain.templatecontainers.entities.AbstractProperty;
 import org.hesperides.core.domain.templatecontainers.entities.Template;
 import org.hesperides.core.domain.templatecontainers.entities.TemplateContainer;
 import org.hesperides.core.domain.templatecontainers.queries.TemplateView;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -37,12 +41,20 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 public class TemplateDocument {
 
+    // À incrémenter lorsque les règles d'extraction des propriétés changent,
+    // afin d'invalider les propriétés enregistrées dans les templates existants
+    private static final String PROPERTIES_EXTRACTION_VERSION = "1";
+
     private String name;
     private String filename;
     private String location;
     private String content;
     private RightsDocument rights;
     private Long versionId;
+    // Propriétés extraites de ce template (avant fusion au niveau du module ou de la techno),
+    // et empreinte du nom de fichier, de l'emplacement et du contenu dont elles proviennent
+    private List<AbstractPropertyDocument> properties;
+    private String propertiesHash;
 
     public TemplateDocument(Template template) {
         this.name = template.getName();
@@ -77,6 +89,36 @@ public class TemplateDocument {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Renvoie les propriétés extraites de l'ensemble de ces templates, avant fusion.
+     * Seuls les templates modifiés depuis leur dernière extraction sont reparsés.
+     */
+    public static List<AbstractProperty> getOrExtractProperties(List<TemplateDocument> templateDocuments, TemplateContainer.Key key) {
+        List<AbstractProperty> properties = new ArrayList<>();
+        Optional.ofNullable(templateDocuments)
+                .orElseGet(Collections::emptyList)
+                .forEach(templateDocument -> properties.addAll(templateDocument.getOrExtractProperties(key)));
+        return properties;
+    }
+
+    private List<AbstractProperty> getOrExtractProperties(TemplateContainer.Key key) {
+        String hash = hashPropertiesSources();
+        if (properties == null || !hash.equals(propertiesHash)) {
+            properties = AbstractPropertyDocument.fromDomainInstances(toDomainInstance(key).extractProperties());
+            propertiesHash = hash;
+        }
+        return AbstractPropertyDocument.toDomainInstances(properties);
+    }
+
+    private String hashPropertiesSources() {
+        StringBuilder sources = new StringBuilder(PROPERTIES_EXTRACTION_VERSION);
+        for (String source : new String[]{filename, location, content}) {
+            // La longueur de chaque source évite toute ambiguïté lors de la concaténation
+            sources.append('|').append(source == null ? -1 : source.length()).append(':').append(source);
+        }
+        return DigestUtils.md5DigestAsHex(sources.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     private Template toDomainInstance(TemplateContainer.Key key) {
         return new Template(
                 name,
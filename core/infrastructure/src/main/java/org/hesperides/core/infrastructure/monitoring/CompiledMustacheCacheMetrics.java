@@ -0,0 +1,59 @@
+package org.hesperides.core.infrastructure.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.hesperides.core.domain.templatecontainers.entities.CompiledMustacheCache;
+
+/**
+ * Expose les métriques du cache de templates Mustache compilés
+ * sous les mêmes noms que les caches Spring :
+ * /manage/metrics/cache.gets?tag=name:compiled-mustache-templates&tag=result:hit
+ * /manage/metrics/cache.evictions?tag=name:compiled-mustache-templates
+ */
+public class CompiledMustacheCacheMetrics extends CacheMeterBinder {
+
+    private final CompiledMustacheCache cache;
+    private final int maxSize;
+
+    CompiledMustacheCacheMetrics(CompiledMustacheCache cache, int maxSize) {
+        // Prometheus impose les mêmes clés de tags que les caches Spring : [cache, cacheManager, name]
+        super(cache, CompiledMustacheCache.NAME, Tags.of("cacheManager", "none", "name", CompiledMustacheCache.NAME));
+        this.cache = cache;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected Long size() {
+        return cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return cache.getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.max.size", this, metrics -> metrics.maxSize)
+                .tags(getTagsWithCacheName())
+                .description("The maximum number of entries in the cache")
+                .register(registry);
+    }
+}
@@ -4,6 +4,9 @@ import io.micrometer.core.aop.TimedAspect;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
+import org.hesperides.core.domain.templatecontainers.entities.CompiledMustacheCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
 import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsProvider;
 import org.springframework.context.annotation.Bean;
@@ -26,6 +29,18 @@ public class PrometheusConfiguration {
         return new TimedAspect(registry);
     }
 
+    @Bean
+    CompiledMustacheCacheMetrics compiledMustacheCacheMetrics(@Value("${hesperides.compiled-mustache-cache-size}") int compiledMustacheCacheSize) {
+        CompiledMustacheCache compiledMustacheCache = CompiledMustacheCache.getInstance();
+        compiledMustacheCache.setMaxSize(compiledMustacheCacheSize);
+        return new CompiledMustacheCacheMetrics(compiledMustacheCache, compiledMustacheCacheSize);
+    }
+
+    @Bean
+    PropertyVisitorsSequenceCacheMetrics propertyVisitorsSequenceCacheMetrics(PropertyVisitorsSequenceCache propertyVisitorsSequenceCache) {
+        return new PropertyVisitorsSequenceCacheMetrics(propertyVisitorsSequenceCache);
+    }
+
     // Configuration des tags multi-dimensionnels Prometheus
     // Inspiré de org.springframework.boot.actuate.metrics.web.servlet.DefaultWebMvcTagsProvider
     @Bean
@@ -0,0 +1,55 @@
+package org.hesperides.core.infrastructure.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
+
+/**
+ * Expose les métriques du cache des séquences de propriétés valorisées :
+ * /manage/metrics/cache.gets?tag=name:property-visitors-sequences&tag=result:hit
+ */
+public class PropertyVisitorsSequenceCacheMetrics extends CacheMeterBinder {
+
+    private final PropertyVisitorsSequenceCache cache;
+
+    PropertyVisitorsSequenceCacheMetrics(PropertyVisitorsSequenceCache cache) {
+        // Prometheus impose les mêmes clés de tags que les caches Spring : [cache, cacheManager, name]
+        super(cache, PropertyVisitorsSequenceCache.NAME, Tags.of("cacheManager", "none", "name", PropertyVisitorsSequenceCache.NAME));
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long size() {
+        return cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return cache.getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.max.size", cache, PropertyVisitorsSequenceCache::getMaxSize)
+                .tags(getTagsWithCacheName())
+                .description("The maximum number of entries in the cache")
+                .register(registry);
+    }
+}
@@ -47,6 +47,7 @@ import org.springframework.security.ldap.authentication.AbstractLdapAuthenticati
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.naming.NamingException;
 import javax.naming.directory.Attributes;
@@ -55,6 +56,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.hesperides.commons.SpringProfiles.LDAP;
@@ -73,6 +77,13 @@ public class LdapAuthenticationProvider extends AbstractLdapAuthenticationProvid
     Integer maxNumberOfTries;
     @Value("${ldap.delay-between-tries-in-seconds}")
     Long delayBetweenTriesInSeconds;
+    @Value("${ldap.parent-groups-search-batch-size:1}")
+    Integer parentGroupsSearchBatchSize;
+    @Value("${ldap.group-resolution-threads:4}")
+    Integer groupResolutionThreads;
+    @Value("${ldap.groups-tree-refresh-ahead-ratio:0.2}")
+    Double groupsTreeRefreshAheadRatio;
+    private ExecutorService groupResolutionExecutor;
     private RetryConfig retryConfig;
     @Resource
     private LdapCNSearcher self; // On passe par un attribut pour que le cache fonctionne, cf. https://stackoverflow.com/a/48867068/636849
@@ -103,11 +114,23 @@ public class LdapAuthenticationProvider extends AbstractLdapAuthenticationProvid
                 .withDelayBetweenTries(delayBetweenTriesInSeconds, ChronoUnit.SECONDS)
                 .withFixedBackoff()
                 .build();
-        cachedParentLdapGroupAuthorityRetriever = new CachedParentLdapGroupAuthorityRetriever(cacheManager.getCache(AUTHORIZATION_GROUPS_TREE_CACHE_NAME));
+        AtomicInteger threadsCount = new AtomicInteger();
+        groupResolutionExecutor = Executors.newFixedThreadPool(groupResolutionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ldap-group-resolution-" + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        cachedParentLdapGroupAuthorityRetriever = new CachedParentLdapGroupAuthorityRetriever(
+                cacheManager.getCache(AUTHORIZATION_GROUPS_TREE_CACHE_NAME), groupResolutionExecutor, groupsTreeRefreshAheadRatio);
+    }
+
+    @PreDestroy
+    void shutdownGroupResolutionExecutor() {
+        groupResolutionExecutor.shutdownNow();
     }
 
     LdapSearchContext createLdapSearchContext(String username, String password) {
-        return new LdapSearchContext(username, password, ldapConfiguration, meterRegistry, ldapSearchMetrics, retryConfig, gson);
+        return new LdapSearchContext(username, password, ldapConfiguration, meterRegistry, ldapSearchMetrics, retryConfig, parentGroupsSearchBatchSize, gson);
     }
 
     @Override
@@ -179,18 +202,10 @@ public class LdapAuthenticationProvider extends AbstractLdapAuthenticationProvid
         } catch (NamingException e) {
             throw LdapUtils.convertLdapException(e);
         }
+        HashSet<String> parentGroupsDN = extractDirectParentGroupDNs(attributes);
         LdapSearchContext ldapSearchContext = createLdapSearchContext(username, password);
-        try {
-            cachedParentLdapGroupAuthorityRetriever.setParentGroupsDNRetriever(ldapSearchContext);
-            Set<String> groupAuthorities = new HashSet<>();
-            HashSet<String> parentGroupsDN = extractDirectParentGroupDNs(attributes);
-            for (String groupDN : parentGroupsDN) {
-                groupAuthorities.addAll(cachedParentLdapGroupAuthorityRetriever.retrieveParentGroups(groupDN));
-            }
-            return groupAuthorities;
-        } finally {
-            ldapSearchContext.closeContext();
-        }
+        // Le contexte n'est fermé qu'une fois terminés les éventuels rafraîchissements anticipés du cache qui l'utilisent
+        return cachedParentLdapGroupAuthorityRetriever.retrieveParentGroups(parentGroupsDN, ldapSearchContext, ldapSearchContext::closeContext);
     }
 
     // Public for testing
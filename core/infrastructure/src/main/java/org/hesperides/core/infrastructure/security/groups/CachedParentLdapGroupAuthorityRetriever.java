@@ -4,20 +4,51 @@ import lombok.extern.slf4j.Slf4j;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Résolution de l'arbre des groupes parents, niveau par niveau, avec mise en cache des parents directs de chaque groupe.
+ * <p>
+ * - les groupes d'un même niveau absents du cache sont résolus en parallèle,
+ * par lots d'une seule recherche LDAP chacun si le retriever le permet (cf. ParentGroupsDNRetriever::getBatchSize)
+ * - une seule requête LDAP est faite à la fois pour un même groupe, les demandes concurrentes en attendent le résultat
+ * - une entrée proche de son expiration (dernière fraction refreshAheadRatio de sa durée de vie) est rafraîchie
+ * en arrière-plan, afin que les groupes les plus utilisés n'expirent pas tous en même temps lors d'un pic de connexions
+ */
 @Slf4j
 public class CachedParentLdapGroupAuthorityRetriever {
 
     static final int MAX_RECURSION = 1000; // arbitraire, existe pour éviter tout risque de boucle infinie
 
     private final Cache cache;
+    private final Executor executor;
+    private final double refreshAheadRatio;
+    // Recherches LDAP en cours d'exécution, par DN de groupe.
+    // N'y figurent que des recherches déjà démarrées, pour qu'une attente ne dépende jamais d'une tâche en file d'attente.
+    private final Map<String, CompletableFuture<HashSet<String>>> inFlightLookups = new ConcurrentHashMap<>();
+    private final Set<String> scheduledRefreshes = ConcurrentHashMap.newKeySet();
     private ParentGroupsDNRetriever parentGroupsDNRetriever;
 
     public CachedParentLdapGroupAuthorityRetriever(Cache cache) {
+        this(cache, Runnable::run, 0);
+    }
+
+    public CachedParentLdapGroupAuthorityRetriever(Cache cache, Executor executor, double refreshAheadRatio) {
         this.cache = cache;
+        this.executor = executor;
+        this.refreshAheadRatio = refreshAheadRatio;
     }
 
     public void setParentGroupsDNRetriever(ParentGroupsDNRetriever parentGroupsDNRetriever) {
@@ -25,14 +56,32 @@ public class CachedParentLdapGroupAuthorityRetriever {
     }
 
     public Set<String> retrieveParentGroups(String initialGroupDN) {
+        return retrieveParentGroups(Collections.singleton(initialGroupDN), parentGroupsDNRetriever, () -> {
+        });
+    }
+
+    /**
+     * Les éventuels rafraîchissements anticipés utilisent le même retriever :
+     * releaseRetriever est appelé une fois la résolution et ces rafraîchissements terminés.
+     */
+    public Set<String> retrieveParentGroups(Collection<String> initialGroupDNs, ParentGroupsDNRetriever retriever, Runnable releaseRetriever) {
+        List<CompletableFuture<Void>> refreshes = Collections.synchronizedList(new ArrayList<>());
+        try {
+            return retrieveParentGroups(initialGroupDNs, retriever, refreshes);
+        } finally {
+            CompletableFuture.allOf(refreshes.toArray(new CompletableFuture[0]))
+                    .whenComplete((result, throwable) -> releaseRetriever.run());
+        }
+    }
+
+    private Set<String> retrieveParentGroups(Collection<String> initialGroupDNs, ParentGroupsDNRetriever retriever, List<CompletableFuture<Void>> refreshes) {
         Set<String> allParentGroups = new HashSet<>();
-        Set<String> groupDNsAtCurrentLevel = Collections.singleton(initialGroupDN);
+        Set<String> groupDNsAtCurrentLevel = new HashSet<>(initialGroupDNs);
         int ancestorLevel;
         for (ancestorLevel = 1; ancestorLevel < MAX_RECURSION; ancestorLevel++) {
+            allParentGroups.addAll(groupDNsAtCurrentLevel);
             Set<String> groupDNsForNextLevel = new HashSet<>();
-            for (String groupDN : groupDNsAtCurrentLevel) {
-                allParentGroups.add(groupDN);
-                Set<String> parentGroupsDN = getParentGroupsDNFromCacheOrFallback(groupDN);
+            for (Set<String> parentGroupsDN : getParentGroupsDNOfLevel(groupDNsAtCurrentLevel, retriever, refreshes)) {
                 for (String parentGroupDN : parentGroupsDN) {
                     // On ajoute le groupDN dans la liste de ceux à traiter au prochain niveau
                     // s'il n'est pas déjà dans allParentGroups
@@ -52,16 +101,150 @@ public class CachedParentLdapGroupAuthorityRetriever {
         return allParentGroups;
     }
 
-    private Set<String> getParentGroupsDNFromCacheOrFallback(String groupDN) {
+    private List<Set<String>> getParentGroupsDNOfLevel(Set<String> groupDNs, ParentGroupsDNRetriever retriever, List<CompletableFuture<Void>> refreshes) {
+        List<Set<String>> parentGroupsDNOfLevel = new ArrayList<>();
+        List<String> missingGroupDNs = new ArrayList<>();
+        for (String groupDN : groupDNs) {
+            Element element = cache.get(groupDN);
+            if (element == null) { // cache miss
+                missingGroupDNs.add(groupDN);
+            } else { // cache hit
+                refreshAheadIfExpiringSoon(groupDN, element, retriever, refreshes);
+                parentGroupsDNOfLevel.add(getParentGroupsDN(element));
+            }
+        }
+        if (missingGroupDNs.size() == 1) {
+            parentGroupsDNOfLevel.add(lookupParentGroupsDN(missingGroupDNs.get(0), retriever));
+        } else if (missingGroupDNs.size() > 1 && retriever.getBatchSize() > 1) {
+            parentGroupsDNOfLevel.addAll(lookupParentGroupsDNByBatches(missingGroupDNs, retriever));
+        } else if (!missingGroupDNs.isEmpty()) {
+            List<CompletableFuture<HashSet<String>>> lookups = new ArrayList<>();
+            for (String groupDN : missingGroupDNs) {
+                lookups.add(CompletableFuture.supplyAsync(() -> lookupParentGroupsDN(groupDN, retriever), executor));
+            }
+            for (CompletableFuture<HashSet<String>> lookup : lookups) {
+                parentGroupsDNOfLevel.add(join(lookup));
+            }
+        }
+        return parentGroupsDNOfLevel;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashSet<String> getParentGroupsDN(Element element) {
         // Note: on utilise un HashSet et non un Set car il est Serializable, et peut donc être placé en cache
-        HashSet<String> parentGroupDN;
-        Element element = cache.get(groupDN);
-        if (element == null) { // cache miss
-            parentGroupDN = parentGroupsDNRetriever.retrieveParentGroupDNs(groupDN);
-            cache.put(new Element(groupDN, parentGroupDN));
-        } else { // cache hit
-            parentGroupDN = (HashSet<String>) element.getObjectValue();
-        }
-        return parentGroupDN;
+        return (HashSet<String>) element.getObjectValue();
+    }
+
+    /**
+     * Requête LDAP, ou attente du résultat de celle déjà en cours pour ce groupe
+     */
+    private HashSet<String> lookupParentGroupsDN(String groupDN, ParentGroupsDNRetriever retriever) {
+        CompletableFuture<HashSet<String>> lookup = new CompletableFuture<>();
+        CompletableFuture<HashSet<String>> inFlightLookup = inFlightLookups.putIfAbsent(groupDN, lookup);
+        if (inFlightLookup != null) {
+            return join(inFlightLookup);
+        }
+        try {
+            HashSet<String> parentGroupsDN = retriever.retrieveParentGroupDNs(groupDN);
+            cache.put(new Element(groupDN, parentGroupsDN));
+            lookup.complete(parentGroupsDN);
+            return parentGroupsDN;
+        } catch (RuntimeException exception) {
+            lookup.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlightLookups.remove(groupDN, lookup);
+        }
+    }
+
+    private Collection<HashSet<String>> lookupParentGroupsDNByBatches(List<String> groupDNs, ParentGroupsDNRetriever retriever) {
+        int batchSize = retriever.getBatchSize();
+        if (groupDNs.size() <= batchSize) {
+            return lookupParentGroupsDNBatch(groupDNs, retriever);
+        }
+        List<CompletableFuture<Collection<HashSet<String>>>> batches = new ArrayList<>();
+        for (int start = 0; start < groupDNs.size(); start += batchSize) {
+            List<String> batch = groupDNs.subList(start, Math.min(start + batchSize, groupDNs.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> lookupParentGroupsDNBatch(batch, retriever), executor));
+        }
+        List<HashSet<String>> parentGroupsDN = new ArrayList<>();
+        for (CompletableFuture<Collection<HashSet<String>>> batch : batches) {
+            parentGroupsDN.addAll(join(batch));
+        }
+        return parentGroupsDN;
+    }
+
+    /**
+     * Une seule recherche LDAP pour les groupes de ce lot qui ne sont pas déjà en cours de recherche.
+     * Les recherches ne sont enregistrées qu'une fois la tâche démarrée et la recherche du lot est faite
+     * avant d'attendre celles en cours, de sorte qu'aucune attente ne puisse être circulaire.
+     */
+    private Collection<HashSet<String>> lookupParentGroupsDNBatch(List<String> groupDNs, ParentGroupsDNRetriever retriever) {
+        Map<String, CompletableFuture<HashSet<String>>> claimedLookups = new LinkedHashMap<>();
+        List<CompletableFuture<HashSet<String>>> otherLookups = new ArrayList<>();
+        for (String groupDN : groupDNs) {
+            CompletableFuture<HashSet<String>> lookup = new CompletableFuture<>();
+            CompletableFuture<HashSet<String>> inFlightLookup = inFlightLookups.putIfAbsent(groupDN, lookup);
+            if (inFlightLookup == null) {
+                claimedLookups.put(groupDN, lookup);
+            } else {
+                otherLookups.add(inFlightLookup);
+            }
+        }
+        List<HashSet<String>> parentGroupsDN = new ArrayList<>();
+        if (!claimedLookups.isEmpty()) {
+            try {
+                Map<String, HashSet<String>> retrievedParentGroupsDN = retriever.retrieveParentGroupDNs(claimedLookups.keySet());
+                claimedLookups.forEach((groupDN, lookup) -> {
+                    HashSet<String> groupParentGroupsDN = Optional.ofNullable(retrievedParentGroupsDN.get(groupDN)).orElseGet(HashSet::new);
+                    cache.put(new Element(groupDN, groupParentGroupsDN));
+                    lookup.complete(groupParentGroupsDN);
+                    parentGroupsDN.add(groupParentGroupsDN);
+                });
+            } catch (RuntimeException exception) {
+                claimedLookups.values().forEach(lookup -> lookup.completeExceptionally(exception));
+                throw exception;
+            } finally {
+                claimedLookups.forEach(inFlightLookups::remove);
+            }
+        }
+        for (CompletableFuture<HashSet<String>> lookup : otherLookups) {
+            parentGroupsDN.add(join(lookup));
+        }
+        return parentGroupsDN;
+    }
+
+    private void refreshAheadIfExpiringSoon(String groupDN, Element element, ParentGroupsDNRetriever retriever, List<CompletableFuture<Void>> refreshes) {
+        if (refreshAheadRatio <= 0 || element.isEternal() || element.getTimeToLive() <= 0) {
+            return;
+        }
+        long refreshAheadMillis = (long) (element.getTimeToLive() * 1000L * refreshAheadRatio);
+        if (System.currentTimeMillis() < element.getExpirationTime() - refreshAheadMillis || !scheduledRefreshes.add(groupDN)) {
+            return;
+        }
+        refreshes.add(CompletableFuture.runAsync(() -> {
+            try {
+                if (!inFlightLookups.containsKey(groupDN)) {
+                    lookupParentGroupsDN(groupDN, retriever);
+                }
+            } catch (RuntimeException exception) {
+                // L'entrée actuelle reste valable jusqu'à son expiration
+                log.warn("Refresh ahead of parent groups failed for " + groupDN, exception);
+            } finally {
+                scheduledRefreshes.remove(groupDN);
+            }
+        }, executor));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw exception;
+        }
     }
 }
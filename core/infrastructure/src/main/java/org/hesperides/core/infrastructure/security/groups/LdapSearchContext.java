@@ -15,6 +15,7 @@ import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.ldap.core.DirContextOperations;
 import org.springframework.ldap.core.support.DefaultDirObjectFactory;
+import org.springframework.ldap.support.LdapEncoder;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.SpringSecurityMessageSource;
@@ -23,6 +24,9 @@ import org.springframework.security.ldap.SpringSecurityLdapTemplate;
 import javax.naming.*;
 import javax.naming.directory.*;
 import javax.naming.ldap.InitialLdapContext;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -33,6 +37,9 @@ import java.util.function.Supplier;
  *
  * IMPORTANT: instances of this class must be manually closed
  * at the end of their lifespan by calling .closeContext() on them.
+ *
+ * Les recherches peuvent être faites en parallèle (cf. CachedParentLdapGroupAuthorityRetriever) :
+ * chacune utilise sa propre instance de contexte JNDI, partageant la connexion du contexte initial.
  */
 @Slf4j
 public class LdapSearchContext implements ParentGroupsDNRetriever {
@@ -43,18 +50,21 @@ public class LdapSearchContext implements ParentGroupsDNRetriever {
     private final MeterRegistry meterRegistry;
     private final LdapSearchMetrics ldapSearchMetrics;
     private final RetryConfig retryConfig;
+    private final int parentGroupsSearchBatchSize;
     private final Gson gson;
     private final MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
-    private DirContext dirContext = null;
+    private volatile DirContext dirContext = null;
 
     public LdapSearchContext(String username, String password, LdapConfiguration ldapConfiguration,
-                             MeterRegistry meterRegistry, LdapSearchMetrics ldapSearchMetrics, RetryConfig retryConfig, Gson gson) {
+                             MeterRegistry meterRegistry, LdapSearchMetrics ldapSearchMetrics, RetryConfig retryConfig,
+                             int parentGroupsSearchBatchSize, Gson gson) {
         this.username = username;
         this.password = password;
         this.ldapConfiguration = ldapConfiguration;
         this.meterRegistry = meterRegistry;
         this.ldapSearchMetrics = ldapSearchMetrics;
         this.retryConfig = retryConfig;
+        this.parentGroupsSearchBatchSize = parentGroupsSearchBatchSize;
         this.gson = gson;
     }
 
@@ -98,7 +108,7 @@ public class LdapSearchContext implements ParentGroupsDNRetriever {
             String cn = DirectoryGroupDN.extractCnFromDn(dn);
             String base = getBaseFrom(cn, dn);
             String searchFilter = ldapConfiguration.getSearchFilterForCN(cn);
-            DirContextOperations dirContextOperations = searchCNWithRetry(cn, base, searchFilter);
+            DirContextOperations dirContextOperations = searchCNWithRetry(LdapSearchMetrics.PARENT_GROUPS_SEARCH_TYPE, cn, base, searchFilter);
             parentGroupDNs = extractDirectParentGroupDNs(dirContextOperations.getAttributes(""));
         } catch (IncorrectResultSizeDataAccessException e) {
             // On accepte que la recherche ne retourne aucun résultat
@@ -108,23 +118,153 @@ public class LdapSearchContext implements ParentGroupsDNRetriever {
         return parentGroupDNs;
     }
 
+    @Override
+    public int getBatchSize() {
+        return parentGroupsSearchBatchSize;
+    }
+
+    /**
+     * Une seule recherche pour tous ces groupes : (|(distinguishedName=...)(distinguishedName=...)),
+     * à partir de leur plus proche ancêtre commun
+     */
+    @Override
+    public Map<String, HashSet<String>> retrieveParentGroupDNs(Collection<String> dns) {
+        Optional<String> commonBase = dns.size() > 1 ? getCommonBase(dns) : Optional.empty();
+        if (!commonBase.isPresent()) {
+            return ParentGroupsDNRetriever.super.retrieveParentGroupDNs(dns);
+        }
+        String searchFilter = buildDistinguishedNamesFilter(dns);
+        DirContext initialDirContext = getOrBuildDirContext();
+        return withRetry("ldapSearchCN", LdapSearchMetrics.PARENT_GROUPS_SEARCH_TYPE, "requesting LDAP for " + dns.size() + " groups",
+                () -> searchParentGroupDNsInNewContextInstance(initialDirContext, commonBase.get(), searchFilter, dns));
+    }
+
+    static String buildDistinguishedNamesFilter(Collection<String> dns) {
+        StringBuilder filter = new StringBuilder("(|");
+        for (String dn : dns) {
+            filter.append("(distinguishedName=").append(LdapEncoder.filterEncode(dn)).append(')');
+        }
+        return filter.append(')').toString();
+    }
+
+    /**
+     * @return le plus long suffixe commun de ces DNs, vide s'ils n'en ont pas ou si l'un d'eux est invalide
+     */
+    static Optional<String> getCommonBase(Collection<String> dns) {
+        List<Rdn> commonRdns = null;
+        for (String dn : dns) {
+            List<Rdn> rdns;
+            try {
+                rdns = new LdapName(dn).getRdns(); // Du plus général au plus précis
+            } catch (InvalidNameException exception) {
+                return Optional.empty();
+            }
+            if (commonRdns == null) {
+                commonRdns = new ArrayList<>(rdns);
+            } else {
+                int commonSize = 0;
+                while (commonSize < commonRdns.size() && commonSize < rdns.size() && commonRdns.get(commonSize).equals(rdns.get(commonSize))) {
+                    commonSize++;
+                }
+                commonRdns = commonRdns.subList(0, commonSize);
+            }
+        }
+        return commonRdns == null || commonRdns.isEmpty() ? Optional.empty() : Optional.of(new LdapName(commonRdns).toString());
+    }
+
+    private static Map<String, HashSet<String>> searchParentGroupDNsInNewContextInstance(DirContext initialDirContext, String base, String searchFilter, Collection<String> dns) {
+        LdapContext contextInstance;
+        try {
+            contextInstance = ((LdapContext) initialDirContext).newInstance(null);
+        } catch (NamingException exception) {
+            throw LdapUtils.convertLdapException(exception);
+        }
+        try {
+            return searchParentGroupDNs(contextInstance, base, searchFilter, dns);
+        } finally {
+            LdapUtils.closeContext(contextInstance);
+        }
+    }
+
+    private static Map<String, HashSet<String>> searchParentGroupDNs(DirContext dirContext, String base, String searchFilter, Collection<String> dns) {
+        // Les DNs renvoyés par le serveur peuvent différer des DNs demandés par la casse ou les espaces
+        Map<LdapName, String> requestedDNs = new HashMap<>();
+        Map<String, HashSet<String>> parentGroupDNs = new HashMap<>();
+        SearchControls searchControls = new SearchControls();
+        searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchControls.setReturningAttributes(new String[]{"memberOf"});
+        NamingEnumeration<SearchResult> searchResults = null;
+        try {
+            for (String dn : dns) {
+                requestedDNs.put(new LdapName(dn), dn);
+                parentGroupDNs.put(dn, new HashSet<>());
+            }
+            searchResults = dirContext.search(base, searchFilter, searchControls);
+            while (searchResults.hasMore()) {
+                SearchResult searchResult = searchResults.next();
+                String dn = requestedDNs.get(new LdapName(searchResult.getNameInNamespace()));
+                if (dn != null) {
+                    parentGroupDNs.put(dn, extractDirectParentGroupDNs(searchResult.getAttributes()));
+                }
+            }
+        } catch (PartialResultException exception) {
+            // Referrals ignorés, comme le fait SpringSecurityLdapTemplate
+        } catch (NamingException exception) {
+            throw LdapUtils.convertLdapException(exception);
+        } finally {
+            closeQuietly(searchResults);
+        }
+        return parentGroupDNs;
+    }
+
+    private static void closeQuietly(NamingEnumeration<?> namingEnumeration) {
+        if (namingEnumeration != null) {
+            try {
+                namingEnumeration.close();
+            } catch (NamingException exception) {
+                // ignoring on purpose
+            }
+        }
+    }
+
     public DirContextOperations searchUserCNWithRetry(String username) {
-        return searchCNWithRetry(username, ldapConfiguration.getUserSearchBase(), ldapConfiguration.getSearchFilterForCN(username));
+        return searchCNWithRetry(LdapSearchMetrics.USER_CN_SEARCH_TYPE, username, ldapConfiguration.getUserSearchBase(), ldapConfiguration.getSearchFilterForCN(username));
     }
 
-    private DirContextOperations searchCNWithRetry(String cn, String base, String searchFilter) {
+    private DirContextOperations searchCNWithRetry(String searchType, String cn, String base, String searchFilter) {
+        DirContext initialDirContext = getOrBuildDirContext();
+        return withRetry("ldapSearchCN", searchType, "requesting LDAP for CN=" + cn,
+                () -> searchCNInNewContextInstance(initialDirContext, cn, base, searchFilter));
+    }
+
+    private synchronized DirContext getOrBuildDirContext() {
         if (dirContext == null) {
             // On lazy-load cet attribut pour éviter de faire systématiquement une connexion TCP au serveur LDAP,
             // même quand cela n'est pas nécessaire, comme par exemple dans le cas de extractGroupAuthoritiesRecursivelyWithCache,
             // lorsque le cache contient toutes les infos.
-            dirContext = withRetry("ldapBuildContext", "building LDAP context for user=" + username,
+            dirContext = withRetry("ldapBuildContext", LdapSearchMetrics.CONTEXT_SEARCH_TYPE, "building LDAP context for user=" + username,
                     () -> buildSearchContext(username, password));
         }
-        return withRetry("ldapSearchCN", "requesting LDAP for CN=" + cn,
-                () -> searchCN(dirContext, cn, base, searchFilter));
+        return dirContext;
+    }
+
+    // Un contexte JNDI ne doit pas être utilisé par plusieurs threads à la fois,
+    // contrairement à la connexion sous-jacente qui est partagée par les instances créées via newInstance
+    private static DirContextOperations searchCNInNewContextInstance(DirContext initialDirContext, String cn, String base, String searchFilter) {
+        LdapContext contextInstance;
+        try {
+            contextInstance = ((LdapContext) initialDirContext).newInstance(null);
+        } catch (NamingException exception) {
+            throw LdapUtils.convertLdapException(exception);
+        }
+        try {
+            return searchCN(contextInstance, cn, base, searchFilter);
+        } finally {
+            LdapUtils.closeContext(contextInstance);
+        }
     }
 
-    private <T> T withRetry(String timerMetricName, String actionDesc, Supplier<T> action) {
+    private <T> T withRetry(String timerMetricName, String searchType, String actionDesc, Supplier<T> action) {
         ldapSearchMetrics.incrTotalCallsCounter();
         CallExecutor<T> executor = new CallExecutorBuilder()
                 .config(retryConfig)
@@ -154,10 +294,7 @@ public class LdapSearchContext implements ParentGroupsDNRetriever {
             throw ex;
         } finally {
             try {
-                sample.stop(Timer.builder(timerMetricName)
-                        .tags("class", this.getClass().getSimpleName())
-                        .tags("exception", exceptionClass)
-                        .register(meterRegistry));
+                sample.stop(ldapSearchMetrics.getSearchTimer(timerMetricName, searchType, exceptionClass));
             } catch (Exception e) {
                 // ignoring on purpose
             }
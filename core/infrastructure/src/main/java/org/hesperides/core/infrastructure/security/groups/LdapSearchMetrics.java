@@ -1,71 +1,91 @@
 package org.hesperides.core.infrastructure.security.groups;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des appels au serveur LDAP, mises à jour en concurrence par les threads d'authentification.
+ * <p>
+ * Les jauges historiques (totalCallsCounter...) renvoient le nombre d'appels depuis leur dernière lecture,
+ * les compteurs ldap.calls.* sont cumulatifs et la durée des recherches est mesurée par type de recherche :
+ * /manage/metrics/ldapSearchCN?tag=type:parent-groups
+ */
 public class LdapSearchMetrics {
 
-    private double totalCallsCounter = 0;
-    private double failedCallsCounter = 0;
-    private double unexpectedExceptionCounter = 0;
-    private double retriesExhaustedExceptionCounter = 0;
+    public static final String USER_CN_SEARCH_TYPE = "user-cn";
+    public static final String PARENT_GROUPS_SEARCH_TYPE = "parent-groups";
+    static final String CONTEXT_SEARCH_TYPE = "context";
+
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder totalCallsCounter = new LongAdder();
+    private final LongAdder failedCallsCounter = new LongAdder();
+    private final LongAdder unexpectedExceptionCounter = new LongAdder();
+    private final LongAdder retriesExhaustedExceptionCounter = new LongAdder();
+
+    private final Counter totalCalls;
+    private final Counter failedCalls;
+    private final Counter unexpectedExceptions;
+    private final Counter retriesExhaustedExceptions;
 
     public LdapSearchMetrics(MeterRegistry meterRegistry) {
-        Gauge.builder("totalCallsCounter", this,
-                LdapSearchMetrics::getTotalCallsCounterAndReset)
-                .tags("class", this.getClass().getSimpleName())
-                .register(meterRegistry);
-        Gauge.builder("failedCallsCounter", this,
-                LdapSearchMetrics::getFailedCallsCounterAndReset)
-                .tags("class", this.getClass().getSimpleName())
-                .register(meterRegistry);
-        Gauge.builder("unexpectedExceptionCounter", this,
-                LdapSearchMetrics::getUnexpectedExceptionCounterAndReset)
+        this.meterRegistry = meterRegistry;
+        registerResettingGauge("totalCallsCounter", totalCallsCounter);
+        registerResettingGauge("failedCallsCounter", failedCallsCounter);
+        registerResettingGauge("unexpectedExceptionCounter", unexpectedExceptionCounter);
+        registerResettingGauge("retriesExhaustedExceptionCounter", retriesExhaustedExceptionCounter);
+        totalCalls = registerCounter("ldap.calls", "Number of LDAP calls, retries included");
+        failedCalls = registerCounter("ldap.calls.failed", "Number of failed LDAP calls");
+        unexpectedExceptions = registerCounter("ldap.calls.unexpected.exceptions", "Number of LDAP calls that failed with a non retryable exception");
+        retriesExhaustedExceptions = registerCounter("ldap.calls.retries.exhausted", "Number of LDAP calls that failed after all retries");
+    }
+
+    private void registerResettingGauge(String name, LongAdder counter) {
+        Gauge.builder(name, counter, LongAdder::sumThenReset)
                 .tags("class", this.getClass().getSimpleName())
                 .register(meterRegistry);
-        Gauge.builder("retriesExhaustedExceptionCounter", this,
-                LdapSearchMetrics::getRetriesExhaustedExceptionCounterAndReset)
+    }
+
+    private Counter registerCounter(String name, String description) {
+        return Counter.builder(name)
+                .description(description)
                 .tags("class", this.getClass().getSimpleName())
                 .register(meterRegistry);
     }
 
     void incrTotalCallsCounter() {
-        this.totalCallsCounter++;
+        totalCallsCounter.increment();
+        totalCalls.increment();
     }
 
     void incrFailedCallsCounter() {
-        this.failedCallsCounter++;
+        failedCallsCounter.increment();
+        failedCalls.increment();
     }
 
     void incrUnexpectedExceptionCounter() {
-        this.unexpectedExceptionCounter++;
+        unexpectedExceptionCounter.increment();
+        unexpectedExceptions.increment();
     }
 
     void incrRetriesExhaustedExceptionCounter() {
-        this.retriesExhaustedExceptionCounter++;
+        retriesExhaustedExceptionCounter.increment();
+        retriesExhaustedExceptions.increment();
     }
 
-    private double getTotalCallsCounterAndReset() {
-        double result = totalCallsCounter;
-        totalCallsCounter = 0;
-        return result;
-    }
-
-    private double getFailedCallsCounterAndReset() {
-        double result = failedCallsCounter;
-        failedCallsCounter = 0;
-        return result;
-    }
-
-    private double getUnexpectedExceptionCounterAndReset() {
-        double result = unexpectedExceptionCounter;
-        unexpectedExceptionCounter = 0;
-        return result;
-    }
-
-    private double getRetriesExhaustedExceptionCounterAndReset() {
-        double result = retriesExhaustedExceptionCounter;
-        retriesExhaustedExceptionCounter = 0;
-        return result;
+    /**
+     * Micrometer ne crée le timer qu'au premier appel pour un même nom et de mêmes tags
+     */
+    Timer getSearchTimer(String timerMetricName, String searchType, String exceptionClass) {
+        return Timer.builder(timerMetricName)
+                .tags("class", LdapSearchContext.class.getSimpleName())
+                .tags("type", searchType)
+                .tags("exception", exceptionClass)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
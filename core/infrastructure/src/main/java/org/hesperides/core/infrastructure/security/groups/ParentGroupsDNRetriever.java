@@ -1,8 +1,30 @@
 package org.hesperides.core.infrastructure.security.groups;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 
 public interface ParentGroupsDNRetriever {
 
     HashSet<String> retrieveParentGroupDNs(String dn);
+
+    /**
+     * Nombre maximum de groupes dont les parents peuvent être récupérés en une seule recherche,
+     * 1 si la recherche par lots n'est pas prise en charge
+     */
+    default int getBatchSize() {
+        return 1;
+    }
+
+    /**
+     * @return les DNs des parents directs de chacun de ces groupes, un ensemble vide pour un groupe introuvable
+     */
+    default Map<String, HashSet<String>> retrieveParentGroupDNs(Collection<String> dns) {
+        Map<String, HashSet<String>> parentGroupDNs = new HashMap<>();
+        for (String dn : dns) {
+            parentGroupDNs.put(dn, retrieveParentGroupDNs(dn));
+        }
+        return parentGroupDNs;
+    }
 }
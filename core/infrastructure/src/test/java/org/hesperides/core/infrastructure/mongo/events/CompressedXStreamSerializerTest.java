@@ -0,0 +1,68 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent;
+import org.hesperides.core.domain.platforms.entities.properties.AbstractValuedProperty;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedProperty;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedXStreamSerializerTest {
+
+    @Test
+    public void compressedPayloadsAreReadBack() {
+        PlatformModulePropertiesUpdatedEvent event = buildModulePropertiesUpdatedEvent(10);
+        CompressedXStreamSerializer serializer = new CompressedXStreamSerializer(true);
+
+        SerializedObject<String> serializedEvent = serializer.serialize(event, String.class);
+
+        assertTrue(CompressedXStreamSerializer.isCompressed(serializedEvent.getData()));
+        assertEquals(event, serializer.deserialize(serializedEvent));
+    }
+
+    @Test
+    public void xmlPayloadsAreStillReadWhenCompressionIsEnabled() {
+        PlatformModulePropertiesUpdatedEvent event = buildModulePropertiesUpdatedEvent(10);
+        SerializedObject<String> xmlEvent = new XStreamSerializer().serialize(event, String.class);
+
+        assertFalse(CompressedXStreamSerializer.isCompressed(xmlEvent.getData()));
+        assertEquals(event, new CompressedXStreamSerializer(true).deserialize(xmlEvent));
+    }
+
+    @Test
+    public void compressedPayloadsAreStillReadWhenCompressionIsDisabled() {
+        PlatformModulePropertiesUpdatedEvent event = buildModulePropertiesUpdatedEvent(10);
+        SerializedObject<String> compressedEvent = new CompressedXStreamSerializer(true).serialize(event, String.class);
+        CompressedXStreamSerializer serializer = new CompressedXStreamSerializer(false);
+
+        assertEquals(event, serializer.deserialize(new SimpleSerializedObject<>(compressedEvent.getData(), String.class, compressedEvent.getType())));
+        assertFalse(CompressedXStreamSerializer.isCompressed(serializer.serialize(event, String.class).getData()));
+    }
+
+    @Test
+    public void moduleValuedPropertiesArePackedAtLeastFiveTimes() {
+        PlatformModulePropertiesUpdatedEvent event = buildModulePropertiesUpdatedEvent(500);
+
+        int xmlLength = new CompressedXStreamSerializer(false).serialize(event, String.class).getData().length();
+        int compressedLength = new CompressedXStreamSerializer(true).serialize(event, String.class).getData().length();
+
+        assertTrue(xmlLength + " -> " + compressedLength, compressedLength * 5 < xmlLength);
+    }
+
+    private static PlatformModulePropertiesUpdatedEvent buildModulePropertiesUpdatedEvent(int numberOfProperties) {
+        List<AbstractValuedProperty> valuedProperties = new ArrayList<>();
+        for (int i = 0; i < numberOfProperties; i++) {
+            valuedProperties.add(new ValuedProperty("property-" + i, "value-" + i));
+        }
+        return new PlatformModulePropertiesUpdatedEvent("platform-id", "#ABC#DEF#module#1.0#WORKINGCOPY", 1L, 1L,
+                valuedProperties, "comment", "user");
+    }
+}
@@ -0,0 +1,47 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import com.thoughtworks.xstream.XStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hesperides.core.domain.platforms.PlatformDeletedEvent;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventPayloadDeserializerTest {
+
+    MeterRegistry meterRegistry;
+    EventPayloadDeserializer payloadDeserializer;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        payloadDeserializer = new EventPayloadDeserializer(meterRegistry);
+    }
+
+    @Test
+    public void concurrentDeserializationsShareTheSameInstanceAndTimer() throws Exception {
+        PlatformDeletedEvent event = new PlatformDeletedEvent("id", new Platform.Key("APP", "PTF"), "user");
+        String serializedPayload = new XStream().toXML(event);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Object>> deserializations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            deserializations.add(executor.submit(() -> payloadDeserializer.deserialize(PlatformDeletedEvent.class.getName(), serializedPayload)));
+        }
+        for (Future<Object> deserialization : deserializations) {
+            assertEquals(event, deserialization.get());
+        }
+        executor.shutdown();
+
+        assertEquals(100, meterRegistry.get(EventPayloadDeserializer.TIMER_METRIC_NAME)
+                .tag("payloadType", "PlatformDeletedEvent").timer().count());
+    }
+}
@@ -0,0 +1,33 @@
+package org.hesperides.core.infrastructure.mongo.events;
+
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.axonframework.common.DateTimeUtils.formatInstant;
+import static org.junit.Assert.assertEquals;
+
+public class EventTimestampComparisonTest {
+
+    private static final long POINT_IN_TIME = Instant.parse("2020-01-01T12:00:00.123Z").toEpochMilli();
+
+    @Test
+    public void stringComparisonWithMillisecondBoundMatchesTruncatedTimestamps() {
+        String[] eventTimestamps = {
+                "2020-01-01T12:00:00.122999999Z",
+                "2020-01-01T12:00:00.123Z",
+                "2020-01-01T12:00:00.1231Z",
+                "2020-01-01T12:00:00.123999999Z",
+                "2020-01-01T12:00:00.124Z",
+                "2020-01-01T12:00:00.1240001Z",
+                "2020-01-01T12:00:01Z",
+                "2020-01-01T11:59:59.9999Z"
+        };
+        String bound = formatInstant(Instant.ofEpochMilli(POINT_IN_TIME));
+        for (String eventTimestamp : eventTimestamps) {
+            String storedTimestamp = formatInstant(Instant.parse(eventTimestamp));
+            boolean isBeforeOrAtPointInTime = Instant.parse(eventTimestamp).toEpochMilli() <= POINT_IN_TIME;
+            assertEquals(storedTimestamp, isBeforeOrAtPointInTime, storedTimestamp.compareTo(bound) <= 0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.MetaData;
+import org.hesperides.core.domain.platforms.GetPlatformEventsQuery;
+import org.hesperides.core.domain.platforms.PlatformCreatedEvent;
+import org.hesperides.core.domain.platforms.PlatformUpdatedEvent;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.queries.views.PlatformEventView;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformChangeLogEntryDocument;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformChangeLogStateDocument;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PlatformChangeLogTest {
+
+    private static final String PLATFORM_ID = "platform-id";
+
+    private final InMemoryEventStorageEngine eventStorageEngine = new InMemoryEventStorageEngine();
+    private final MongoPlatformChangeLogRepository changeLogRepository = mock(MongoPlatformChangeLogRepository.class);
+    private final MongoPlatformChangeLogStateRepository changeLogStateRepository = mock(MongoPlatformChangeLogStateRepository.class);
+    private final MongoPlatformChangeLogProjectionRepository projectionRepository =
+            new MongoPlatformChangeLogProjectionRepository(changeLogRepository, changeLogStateRepository, eventStorageEngine);
+    private final List<PlatformChangeLogEntryDocument> savedEntries = new ArrayList<>();
+
+    // Historique antérieur à la projection : création en 1.0 puis passage en 2.0 (séquences 0 et 1)
+    public PlatformChangeLogTest() {
+        appendEvent(0, new PlatformCreatedEvent(PLATFORM_ID, platform("1.0"), "user"));
+        appendEvent(1, new PlatformUpdatedEvent(PLATFORM_ID, platform("2.0"), false, "user"));
+        when(changeLogStateRepository.findById(PLATFORM_ID)).thenReturn(Optional.empty());
+        when(changeLogRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<PlatformChangeLogEntryDocument>>getArgument(0).forEach(savedEntries::add);
+            return Collections.emptyList();
+        });
+    }
+
+    private static Platform platform(String version) {
+        return new Platform(new Platform.Key("APP", "PTF"), version, false, 1L, Collections.emptyList(), 0L, Collections.emptyList());
+    }
+
+    private DomainEventMessage<?> appendEvent(long sequenceNumber, Object payload) {
+        DomainEventMessage<?> event = new GenericDomainEventMessage<>("PlatformAggregate", PLATFORM_ID, sequenceNumber, payload,
+                MetaData.emptyInstance(), UUID.randomUUID().toString(), Instant.ofEpochMilli(1000 * (sequenceNumber + 1)));
+        eventStorageEngine.appendEvents(Collections.<EventMessage<?>>singletonList(event));
+        return event;
+    }
+
+    @Test
+    public void queryingAPlatformWithoutChangeLogDoesNotWriteIt() {
+        List<PlatformEventView> platformEvents = projectionRepository.onGetPlatformEventsQuery(new GetPlatformEventsQuery(PLATFORM_ID, 1, 10));
+
+        assertEquals(2, platformEvents.size());
+        assertTrue(platformEvents.get(0).getChanges().get(0) instanceof PlatformEventView.PlatformVersionUpdatedView);
+        assertTrue(platformEvents.get(1).getChanges().get(0) instanceof PlatformEventView.PlatformCreatedView);
+        assertEquals(1, projectionRepository.onGetPlatformEventsQuery(new GetPlatformEventsQuery(PLATFORM_ID, 2, 1)).size());
+        verifyZeroInteractions(changeLogRepository);
+        verify(changeLogStateRepository, never()).save(any());
+    }
+
+    @Test
+    public void changeLogIsRebuiltByTheFirstUpdateEventHandled() {
+        DomainEventMessage<?> event = appendEvent(2, new PlatformUpdatedEvent(PLATFORM_ID, platform("3.0"), false, "user"));
+
+        projectionRepository.onPlatformUpdatedEvent((PlatformUpdatedEvent) event.getPayload(), event.getSequenceNumber(), event.getTimestamp());
+
+        verify(changeLogRepository).deleteAllByPlatformId(PLATFORM_ID);
+        assertEquals(Arrays.asList(0L, 1L, 2L), savedEntries.stream().map(PlatformChangeLogEntryDocument::getSequenceNumber).collect(toList()));
+        verify(changeLogStateRepository).save(argThat((PlatformChangeLogStateDocument state) -> "3.0".equals(state.getVersion())));
+    }
+}
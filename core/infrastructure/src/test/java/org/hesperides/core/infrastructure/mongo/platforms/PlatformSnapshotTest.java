@@ -0,0 +1,152 @@
+package org.hesperides.core.infrastructure.mongo.platforms;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.MetaData;
+import org.hesperides.core.domain.platforms.GetPlatformAtPointInTimeQuery;
+import org.hesperides.core.domain.platforms.PlatformCreatedEvent;
+import org.hesperides.core.domain.platforms.PlatformPropertiesUpdatedEvent;
+import org.hesperides.core.domain.platforms.entities.Platform;
+import org.hesperides.core.domain.platforms.entities.properties.ValuedProperty;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.infrastructure.mongo.events.EventDocument;
+import org.hesperides.core.infrastructure.mongo.events.MongoEventRepository;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformDocument;
+import org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformSnapshotDocument;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.hesperides.core.infrastructure.mongo.platforms.documents.PlatformSnapshotDocument.PROJECTION_VERSION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PlatformSnapshotTest {
+
+    private static final String PLATFORM_ID = "platform-id";
+    // 1 évènement de création suivi de 7 modifications des propriétés globales : séquences 0 à 7
+    private static final int LAST_SEQUENCE_NUMBER = 7;
+
+    private final InMemoryEventStorageEngine eventStorageEngine = new InMemoryEventStorageEngine();
+    private final List<DomainEventMessage<?>> events = new ArrayList<>();
+    private final MongoPlatformSnapshotRepository platformSnapshotRepository = mock(MongoPlatformSnapshotRepository.class);
+    private final MongoEventRepository eventRepository = mock(MongoEventRepository.class);
+    private final PlatformsAtPointInTimeCache platformsAtPointInTimeCache = mock(PlatformsAtPointInTimeCache.class);
+    // Séquence et version des propriétés globales de chaque snapshot, relevées au moment de l'enregistrement
+    private final Map<Long, Long> savedSnapshots = new LinkedHashMap<>();
+
+    public PlatformSnapshotTest() {
+        Platform platform = new Platform(new Platform.Key("APP", "PTF"), "1.0", false, 1L, Collections.emptyList(), 0L, Collections.emptyList());
+        appendEvent(new PlatformCreatedEvent(PLATFORM_ID, platform, "user"));
+        for (long sequenceNumber = 1; sequenceNumber <= LAST_SEQUENCE_NUMBER; sequenceNumber++) {
+            appendEvent(new PlatformPropertiesUpdatedEvent(PLATFORM_ID, sequenceNumber + 1, sequenceNumber,
+                    Collections.singletonList(new ValuedProperty("property", "value-" + sequenceNumber)), "", "user"));
+        }
+        when(platformsAtPointInTimeCache.get(eq(PLATFORM_ID), anyLong(), anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+        when(platformSnapshotRepository.save(any())).thenAnswer(invocation -> {
+            PlatformSnapshotDocument snapshot = invocation.getArgument(0);
+            assertEquals(PROJECTION_VERSION, snapshot.getProjectionVersion());
+            savedSnapshots.put(snapshot.getSequenceNumber(), snapshot.getPlatform().getGlobalPropertiesVersionId());
+            return snapshot;
+        });
+    }
+
+    private void appendEvent(Object payload) {
+        long sequenceNumber = events.size();
+        DomainEventMessage<?> event = new GenericDomainEventMessage<>("PlatformAggregate", PLATFORM_ID, sequenceNumber, payload,
+                MetaData.emptyInstance(), UUID.randomUUID().toString(), Instant.ofEpochMilli(1000 * (sequenceNumber + 1)));
+        events.add(event);
+        eventStorageEngine.appendEvents(Collections.<EventMessage<?>>singletonList(event));
+    }
+
+    private MongoPlatformProjectionRepository projectionRepository(int platformSnapshotInterval) {
+        return new MongoPlatformProjectionRepository(null, null, eventStorageEngine, null, null, null,
+                platformSnapshotRepository, platformSnapshotInterval, eventRepository, platformsAtPointInTimeCache, null, null);
+    }
+
+    private PlatformView getPlatformAtPointInTime(MongoPlatformProjectionRepository projectionRepository, int sequenceNumber) {
+        long timestamp = events.get(sequenceNumber).getTimestamp().toEpochMilli();
+        EventDocument lastEvent = new EventDocument();
+        lastEvent.setSequenceNumber(sequenceNumber);
+        lastEvent.setEventIdentifier(events.get(sequenceNumber).getIdentifier());
+        when(eventRepository.findFirstByAggregateIdentifierAndTimestampLessThanEqualOrderBySequenceNumberDesc(eq(PLATFORM_ID), anyString()))
+                .thenReturn(Optional.of(lastEvent));
+        return projectionRepository.onGetPlatformAtPointInTimeQuery(new GetPlatformAtPointInTimeQuery(PLATFORM_ID, timestamp));
+    }
+
+    private PlatformSnapshotDocument snapshot(int sequenceNumber, String lastEventIdentifier, String platformVersion) {
+        Platform platform = new Platform(new Platform.Key("APP", "PTF"), platformVersion, false, sequenceNumber + 1L, Collections.emptyList(), (long) sequenceNumber,
+                Collections.singletonList(new ValuedProperty("property", "value-" + sequenceNumber)));
+        PlatformSnapshotDocument snapshot = new PlatformSnapshotDocument(PLATFORM_ID, events.get(sequenceNumber), new PlatformDocument(PLATFORM_ID, platform), true);
+        snapshot.setLastEventIdentifier(lastEventIdentifier);
+        return snapshot;
+    }
+
+    @Test
+    public void snapshotIsSavedEveryIntervalEvents() {
+        PlatformView platform = getPlatformAtPointInTime(projectionRepository(3), LAST_SEQUENCE_NUMBER);
+
+        assertEquals(Long.valueOf(LAST_SEQUENCE_NUMBER), platform.getGlobalPropertiesVersionId());
+        // Un snapshot après les 3e et 6e évènements, qui ne tient pas compte des évènements rejoués ensuite
+        Map<Long, Long> expectedSnapshots = new LinkedHashMap<>();
+        expectedSnapshots.put(2L, 2L);
+        expectedSnapshots.put(5L, 5L);
+        assertEquals(expectedSnapshots, savedSnapshots);
+    }
+
+    @Test
+    public void nullIntervalDisablesSnapshots() {
+        getPlatformAtPointInTime(projectionRepository(0), LAST_SEQUENCE_NUMBER);
+
+        verify(platformSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    public void platformIsReplayedFromTheLatestSnapshotBeforeTimestamp() {
+        long timestamp = events.get(LAST_SEQUENCE_NUMBER).getTimestamp().toEpochMilli();
+        when(platformSnapshotRepository.findFirstByPlatformIdAndProjectionVersionAndTimestampLessThanEqualOrderBySequenceNumberDesc(PLATFORM_ID, PROJECTION_VERSION, timestamp))
+                .thenReturn(Optional.of(snapshot(5, events.get(5).getIdentifier(), "from-snapshot")));
+
+        PlatformView platform = getPlatformAtPointInTime(projectionRepository(3), LAST_SEQUENCE_NUMBER);
+
+        // Seuls les évènements suivant le snapshot sont rejoués : la version de la plateforme est celle du snapshot
+        assertEquals("from-snapshot", platform.getVersion());
+        assertEquals(Long.valueOf(LAST_SEQUENCE_NUMBER), platform.getGlobalPropertiesVersionId());
+        assertTrue(savedSnapshots.isEmpty());
+        verify(platformSnapshotRepository, never()).deleteAllByPlatformId(any());
+    }
+
+    @Test
+    public void snapshotsThatDoNotMatchEventsAnymoreAreDeletedAndAllEventsReplayed() {
+        long timestamp = events.get(LAST_SEQUENCE_NUMBER).getTimestamp().toEpochMilli();
+        when(platformSnapshotRepository.findFirstByPlatformIdAndProjectionVersionAndTimestampLessThanEqualOrderBySequenceNumberDesc(PLATFORM_ID, PROJECTION_VERSION, timestamp))
+                .thenReturn(Optional.of(snapshot(5, "rewritten-event-identifier", "from-snapshot")));
+
+        PlatformView platform = getPlatformAtPointInTime(projectionRepository(3), LAST_SEQUENCE_NUMBER);
+
+        verify(platformSnapshotRepository).deleteAllByPlatformId(PLATFORM_ID);
+        assertEquals("1.0", platform.getVersion());
+        assertEquals(Long.valueOf(LAST_SEQUENCE_NUMBER), platform.getGlobalPropertiesVersionId());
+        assertEquals(new HashSet<>(Arrays.asList(2L, 5L)), savedSnapshots.keySet());
+    }
+
+    @Test
+    public void snapshotsOfAnotherProjectionVersionAreIgnored() {
+        long timestamp = events.get(LAST_SEQUENCE_NUMBER).getTimestamp().toEpochMilli();
+        when(platformSnapshotRepository.findFirstByPlatformIdAndProjectionVersionAndTimestampLessThanEqualOrderBySequenceNumberDesc(PLATFORM_ID, PROJECTION_VERSION - 1, timestamp))
+                .thenReturn(Optional.of(snapshot(5, events.get(5).getIdentifier(), "from-snapshot")));
+
+        PlatformView platform = getPlatformAtPointInTime(projectionRepository(3), LAST_SEQUENCE_NUMBER);
+
+        // Tous les évènements sont rejoués et les snapshots réenregistrés dans la version courante
+        assertEquals("1.0", platform.getVersion());
+        assertEquals(new HashSet<>(Arrays.asList(2L, 5L)), savedSnapshots.keySet());
+    }
+}
@@ -8,8 +8,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CachedParentLdapGroupAuthorityRetrieverTest {
 
@@ -81,4 +84,158 @@ public class CachedParentLdapGroupAuthorityRetrieverTest {
         assertEquals(expected, cachedParentLdapGroupAuthorityRetriever.retrieveParentGroups(dummyGroupDN));
     }
 
+    @Test
+    public void testConcurrentMissesOfTheSameGroupRequestLdapOnce() throws InterruptedException {
+        String dummyGroupDN = "CN=DUMMY";
+        String parentGroupDN = "CN=PARENT";
+        AtomicInteger ldapCalls = new AtomicInteger();
+        CountDownLatch ldapCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseLdapCall = new CountDownLatch(1);
+        ParentGroupsDNRetriever slowRetriever = dn -> {
+            if (dn.equals(dummyGroupDN)) {
+                ldapCalls.incrementAndGet();
+                ldapCallStarted.countDown();
+                await(releaseLdapCall);
+                return new HashSet<>(Collections.singletonList(parentGroupDN));
+            }
+            return new HashSet<>();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CachedParentLdapGroupAuthorityRetriever retriever = new CachedParentLdapGroupAuthorityRetriever(cache, executor, 0);
+
+        List<Future<Set<String>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), slowRetriever, () -> {
+        })));
+        ldapCallStarted.await();
+        results.add(executor.submit(() -> retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), slowRetriever, () -> {
+        })));
+        Thread.sleep(200); // le second appel attend la recherche en cours
+        releaseLdapCall.countDown();
+
+        Set<String> expected = new HashSet<>(Arrays.asList(dummyGroupDN, parentGroupDN));
+        for (Future<Set<String>> result : results) {
+            assertEquals(expected, getQuietly(result));
+        }
+        assertEquals(1, ldapCalls.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testGroupsOfTheSameLevelAreResolvedInParallel() {
+        String dummyGroupDN = "CN=DUMMY";
+        String parentGroupDN1 = "CN=PARENT1";
+        String parentGroupDN2 = "CN=PARENT2";
+        String grandParentGroupDN = "CN=GRANDPARENT";
+        parentGroupsTree.put(dummyGroupDN, new HashSet<>(Arrays.asList(parentGroupDN1, parentGroupDN2)));
+        parentGroupsTree.put(parentGroupDN1, new HashSet<>(Collections.singletonList(grandParentGroupDN)));
+        parentGroupsTree.put(parentGroupDN2, new HashSet<>(Collections.singletonList(grandParentGroupDN)));
+        // Les 2 parents ne peuvent être résolus que simultanément
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ParentGroupsDNRetriever retrieverRequiringParallelism = dn -> {
+            if (dn.startsWith("CN=PARENT")) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return parentGroupsTree.getOrDefault(dn, new HashSet<>());
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CachedParentLdapGroupAuthorityRetriever retriever = new CachedParentLdapGroupAuthorityRetriever(cache, executor, 0);
+
+        Set<String> expected = new HashSet<>(Arrays.asList(dummyGroupDN, parentGroupDN1, parentGroupDN2, grandParentGroupDN));
+        assertEquals(expected, retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), retrieverRequiringParallelism, () -> {
+        }));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEntriesAreRefreshedAheadOfExpiry() throws InterruptedException {
+        String dummyGroupDN = "CN=DUMMY";
+        String parentGroupDN = "CN=PARENT";
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        // TTL de 2s : une entrée est rafraîchie durant ses 1,8 dernières secondes
+        CachedParentLdapGroupAuthorityRetriever retriever = new CachedParentLdapGroupAuthorityRetriever(cache, executor, 0.9);
+        ParentGroupsDNRetriever treeRetriever = dn -> parentGroupsTree.getOrDefault(dn, new HashSet<>());
+
+        assertEquals(Collections.singleton(dummyGroupDN), retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), treeRetriever, () -> {
+        }));
+        parentGroupsTree.put(dummyGroupDN, new HashSet<>(Collections.singletonList(parentGroupDN)));
+        Thread.sleep(500);
+
+        // Entrée proche de l'expiration : la valeur en cache est servie et rafraîchie en arrière-plan,
+        // le retriever n'est libéré qu'une fois le rafraîchissement terminé
+        CountDownLatch retrieverReleased = new CountDownLatch(1);
+        assertEquals(Collections.singleton(dummyGroupDN), retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), treeRetriever, retrieverReleased::countDown));
+        assertTrue(retrieverReleased.await(5, TimeUnit.SECONDS));
+
+        Set<String> expected = new HashSet<>(Arrays.asList(dummyGroupDN, parentGroupDN));
+        assertEquals(expected, retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), treeRetriever, () -> {
+        }));
+        // Seul le nouveau groupe parent manquait dans le cache
+        assertEquals(2, cache.getStatistics().cacheMissCount());
+        assertEquals(0, cache.getStatistics().cacheMissExpiredCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testGroupsOfTheSameLevelAreResolvedByBatches() {
+        String dummyGroupDN = "CN=DUMMY";
+        List<String> parentGroupDNs = Arrays.asList("CN=PARENT1", "CN=PARENT2", "CN=PARENT3");
+        String grandParentGroupDN = "CN=GRANDPARENT";
+        parentGroupsTree.put(dummyGroupDN, new HashSet<>(parentGroupDNs));
+        parentGroupDNs.forEach(parentGroupDN -> parentGroupsTree.put(parentGroupDN, new HashSet<>(Collections.singletonList(grandParentGroupDN))));
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        ParentGroupsDNRetriever batchRetriever = new ParentGroupsDNRetriever() {
+            @Override
+            public HashSet<String> retrieveParentGroupDNs(String dn) {
+                batches.add(Collections.singletonList(dn));
+                return parentGroupsTree.getOrDefault(dn, new HashSet<>());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return 2;
+            }
+
+            @Override
+            public Map<String, HashSet<String>> retrieveParentGroupDNs(Collection<String> dns) {
+                batches.add(new ArrayList<>(dns));
+                Map<String, HashSet<String>> result = new HashMap<>();
+                // Un groupe introuvable peut être absent du résultat
+                dns.stream().filter(parentGroupsTree::containsKey).forEach(dn -> result.put(dn, parentGroupsTree.get(dn)));
+                return result;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CachedParentLdapGroupAuthorityRetriever retriever = new CachedParentLdapGroupAuthorityRetriever(cache, executor, 0);
+
+        Set<String> expected = new HashSet<>(Arrays.asList(dummyGroupDN, "CN=PARENT1", "CN=PARENT2", "CN=PARENT3", grandParentGroupDN));
+        assertEquals(expected, retriever.retrieveParentGroups(Collections.singleton(dummyGroupDN), batchRetriever, () -> {
+        }));
+        // DUMMY, 2 lots de parents, GRANDPARENT
+        assertEquals(4, batches.size());
+        assertEquals(3, batches.stream().filter(batch -> batch.get(0).startsWith("CN=PARENT")).mapToInt(List::size).sum());
+        // Chaque groupe est en cache, y compris ceux absents du résultat
+        assertEquals(5, cache.getSize());
+        assertEquals(new HashSet<>(), cache.get(grandParentGroupDN).getObjectValue());
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T getQuietly(Future<T> future) {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package org.hesperides.core.infrastructure.security.groups;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class LdapSearchContextTest {
+
+    @Test
+    public void distinguishedNamesFilterIsEscaped() {
+        assertEquals("(|(distinguishedName=CN=A,OU=Groups,DC=example,DC=com)(distinguishedName=CN=B \\28test\\29\\2a,OU=Groups,DC=example,DC=com))",
+                LdapSearchContext.buildDistinguishedNamesFilter(Arrays.asList(
+                        "CN=A,OU=Groups,DC=example,DC=com",
+                        "CN=B (test)*,OU=Groups,DC=example,DC=com")));
+    }
+
+    @Test
+    public void commonBaseIsTheLongestCommonSuffix() {
+        assertEquals(Optional.of("OU=Groups,DC=example,DC=com"), LdapSearchContext.getCommonBase(Arrays.asList(
+                "CN=A,OU=Apps,OU=Groups,DC=example,DC=com",
+                "CN=B,ou=groups,DC=example,DC=com")));
+        assertEquals(Optional.of("DC=example,DC=com"), LdapSearchContext.getCommonBase(Arrays.asList(
+                "CN=A,OU=Groups,DC=example,DC=com",
+                "CN=B,OU=Roles,DC=example,DC=com")));
+    }
+
+    @Test
+    public void noCommonBaseForUnrelatedOrInvalidDNs() {
+        assertEquals(Optional.empty(), LdapSearchContext.getCommonBase(Arrays.asList("CN=A,DC=one", "CN=B,DC=two")));
+        assertEquals(Optional.empty(), LdapSearchContext.getCommonBase(Arrays.asList("CN=A,DC=one", "invalid")));
+        assertEquals(Optional.empty(), LdapSearchContext.getCommonBase(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,64 @@
+package org.hesperides.core.infrastructure.security.groups;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LdapSearchMetricsTest {
+
+    MeterRegistry meterRegistry;
+    LdapSearchMetrics ldapSearchMetrics;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ldapSearchMetrics = new LdapSearchMetrics(meterRegistry);
+    }
+
+    @Test
+    public void concurrentIncrementsAreNotLost() throws InterruptedException {
+        int threads = 8;
+        int incrementsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    ldapSearchMetrics.incrTotalCallsCounter();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * incrementsPerThread, meterRegistry.get("ldap.calls").counter().count(), 0);
+        assertEquals(threads * incrementsPerThread, meterRegistry.get("totalCallsCounter").gauge().value(), 0);
+    }
+
+    @Test
+    public void gaugesAreResetWhenReadButCountersAreCumulative() {
+        ldapSearchMetrics.incrFailedCallsCounter();
+        ldapSearchMetrics.incrFailedCallsCounter();
+
+        assertEquals(2, meterRegistry.get("failedCallsCounter").gauge().value(), 0);
+        assertEquals(0, meterRegistry.get("failedCallsCounter").gauge().value(), 0);
+        assertEquals(2, meterRegistry.get("ldap.calls.failed").counter().count(), 0);
+    }
+
+    @Test
+    public void searchTimersAreDistinguishedBySearchType() {
+        ldapSearchMetrics.getSearchTimer("ldapSearchCN", LdapSearchMetrics.USER_CN_SEARCH_TYPE, "none").record(10, TimeUnit.MILLISECONDS);
+        ldapSearchMetrics.getSearchTimer("ldapSearchCN", LdapSearchMetrics.PARENT_GROUPS_SEARCH_TYPE, "none").record(20, TimeUnit.MILLISECONDS);
+        ldapSearchMetrics.getSearchTimer("ldapSearchCN", LdapSearchMetrics.PARENT_GROUPS_SEARCH_TYPE, "none").record(30, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, meterRegistry.get("ldapSearchCN").tag("type", LdapSearchMetrics.USER_CN_SEARCH_TYPE).timer().count());
+        assertEquals(2, meterRegistry.get("ldapSearchCN").tag("type", LdapSearchMetrics.PARENT_GROUPS_SEARCH_TYPE).timer().count());
+    }
+}
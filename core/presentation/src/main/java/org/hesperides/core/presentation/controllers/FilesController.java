@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.hesperides.core.application.files.FileUseCases;
 import org.hesperides.core.domain.security.entities.User;
 import org.hesperides.core.presentation.io.files.InstanceFileOutput;
+import org.hesperides.core.presentation.io.files.ValuedInstanceFileOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -105,6 +106,36 @@ public class FilesController extends AbstractController {
         return ResponseEntity.ok(files);
     }
 
+    @ApiOperation("Get all the valued files of an instance or a module, computing the properties valuation only once")
+    @GetMapping("applications/{application_name}/platforms/{platform_name}/{module_path}/{module_name}/{module_version}/instances/{instance_name}/valued_files")
+    public ResponseEntity<List<ValuedInstanceFileOutput>> getValuedInstanceFiles(Authentication authentication,
+                                                                                 @PathVariable("application_name") final String applicationName,
+                                                                                 @PathVariable("platform_name") final String platformName,
+                                                                                 @PathVariable("module_path") final String modulePath,
+                                                                                 @PathVariable("module_name") final String moduleName,
+                                                                                 @PathVariable("module_version") final String moduleVersion,
+                                                                                 @PathVariable("instance_name") final String instanceName,
+                                                                                 @RequestParam("isWorkingCopy") final Boolean isWorkingCopy,
+                                                                                 @ApiParam(value = "Use module values if instance does not exist")
+                                                                                 @RequestParam(value = "simulate", required = false) final Boolean simulate) {
+
+        List<ValuedInstanceFileOutput> files = filesUseCases.getValuedFiles(
+                applicationName,
+                platformName,
+                modulePath,
+                moduleName,
+                moduleVersion,
+                instanceName,
+                Boolean.TRUE.equals(isWorkingCopy),
+                Boolean.TRUE.equals(simulate),
+                new User(authentication))
+                .stream()
+                .map(ValuedInstanceFileOutput::new)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(files);
+    }
+
     @ApiOperation("Get a valued template file")
     @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8", path =
             "applications/{application_name}/platforms/{platform_name}/{module_path}/{module_name}/{module_version}/instances/{instance_name}/files/{template_name}")
@@ -1,5 +1,7 @@
 package org.hesperides.core.presentation.controllers;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -18,15 +20,23 @@ import org.hesperides.core.presentation.io.platforms.PropertiesEventOutput;
 import org.hesperides.core.presentation.io.platforms.properties.*;
 import org.hesperides.core.presentation.io.platforms.properties.diff.PropertiesDiffOutput;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -40,11 +50,18 @@ public class PropertiesController extends AbstractController {
 
     private final PropertiesUseCases propertiesUseCases;
     private final PlatformUseCases platformUseCases;
+    private final Gson gson;
+    private final long propertiesDiffTimeoutInMs;
 
     @Autowired
-    public PropertiesController(PropertiesUseCases propertiesUseCases, PlatformUseCases platformUseCases) {
+    public PropertiesController(PropertiesUseCases propertiesUseCases,
+                                PlatformUseCases platformUseCases,
+                                Gson gson,
+                                @Value("${hesperides.properties-diff-timeout-in-ms:60000}") long propertiesDiffTimeoutInMs) {
         this.propertiesUseCases = propertiesUseCases;
         this.platformUseCases = platformUseCases;
+        this.gson = gson;
+        this.propertiesDiffTimeoutInMs = propertiesDiffTimeoutInMs;
     }
 
     @ApiOperation("Get properties with the given path in a platform")
@@ -126,29 +143,40 @@ public class PropertiesController extends AbstractController {
 
     @ApiOperation("Get properties diff with the given paths in given platforms")
     @GetMapping("/{application_name}/platforms/{platform_name}/properties/diff")
-    public ResponseEntity<PropertiesDiffOutput> getPropertiesDiff(Authentication authentication,
-                                                                  @PathVariable("application_name") String fromApplicationName,
-                                                                  @PathVariable("platform_name") String fromPlatformName,
-                                                                  @RequestParam("path") String fromPropertiesPath,
-                                                                  @RequestParam(value = "instance_name", required = false, defaultValue = "") String fromInstanceName,
-                                                                  @RequestParam("to_application") String toApplicationName,
-                                                                  @RequestParam("to_platform") String toPlatformName,
-                                                                  @RequestParam("to_path") String toPropertiesPath,
-                                                                  @RequestParam(value = "to_instance_name", required = false, defaultValue = "") String toInstanceName,
-                                                                  @RequestParam(value = "compare_stored_values", required = false) boolean compareStoredValues,
-                                                                  @ApiParam(value = "En milliseconds depuis l'EPOCH. Correspond au champ \"left\" de la sortie JSON. Pour le générer via Javascript à partir d'une date: new Date('2019-01-01 12:00:00').getTime()")
-                                                                  @RequestParam(value = "timestamp", required = false) Long timestamp,
-                                                                  @ApiParam(value = "En milliseconds depuis l'EPOCH. Correspond au champ \"right\" de la sortie JSON. Pour le générer via Javascript à partir d'une date: new Date('2019-01-01 12:00:00').getTime()")
-                                                                  @RequestParam(value = "origin_timestamp", required = false) Long originTimestamp) {
+    public DeferredResult<ResponseEntity<PropertiesDiffOutput>> getPropertiesDiff(Authentication authentication,
+                                                                                     @PathVariable("application_name") String fromApplicationName,
+                                                                                     @PathVariable("platform_name") String fromPlatformName,
+                                                                                     @RequestParam("path") String fromPropertiesPath,
+                                                                                     @RequestParam(value = "instance_name", required = false, defaultValue = "") String fromInstanceName,
+                                                                                     @RequestParam("to_application") String toApplicationName,
+                                                                                     @RequestParam("to_platform") String toPlatformName,
+                                                                                     @RequestParam("to_path") String toPropertiesPath,
+                                                                                     @RequestParam(value = "to_instance_name", required = false, defaultValue = "") String toInstanceName,
+                                                                                     @RequestParam(value = "compare_stored_values", required = false) boolean compareStoredValues,
+                                                                                     @ApiParam(value = "En milliseconds depuis l'EPOCH. Correspond au champ \"left\" de la sortie JSON. Pour le générer via Javascript à partir d'une date: new Date('2019-01-01 12:00:00').getTime()")
+                                                                                     @RequestParam(value = "timestamp", required = false) Long timestamp,
+                                                                                     @ApiParam(value = "En milliseconds depuis l'EPOCH. Correspond au champ \"right\" de la sortie JSON. Pour le générer via Javascript à partir d'une date: new Date('2019-01-01 12:00:00').getTime()")
+                                                                                     @RequestParam(value = "origin_timestamp", required = false) Long originTimestamp) {
         Platform.Key fromPlatformKey = new Platform.Key(fromApplicationName, fromPlatformName);
         Platform.Key toPlatformKey = new Platform.Key(toApplicationName, toPlatformName);
 
-        PropertiesDiff propertiesDiff = propertiesUseCases.getPropertiesDiff(
+        // Délai propre à ce diff, au-delà duquel la requête échoue en 503 :
+        // les autres réponses asynchrones, comme la diffusion de l'historique des propriétés, n'en ont pas
+        DeferredResult<ResponseEntity<PropertiesDiffOutput>> result = new DeferredResult<>(propertiesDiffTimeoutInMs);
+        propertiesUseCases.getPropertiesDiff(
                 fromPlatformKey, fromPropertiesPath, fromInstanceName,
                 toPlatformKey, toPropertiesPath, toInstanceName,
                 timestamp, originTimestamp, compareStoredValues ? ComparisonMode.STORED : ComparisonMode.FINAL,
-                new User(authentication));
-        return ResponseEntity.ok(new PropertiesDiffOutput(propertiesDiff));
+                new User(authentication))
+                .whenComplete((propertiesDiff, exception) -> {
+                    if (exception == null) {
+                        result.setResult(ResponseEntity.ok(new PropertiesDiffOutput(propertiesDiff)));
+                    } else {
+                        // Propage l'exception d'origine (NotFoundException...) aux gestionnaires d'exceptions
+                        result.setErrorResult(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+                    }
+                });
+        return result;
     }
 
     @ApiOperation("List all platform global properties usage")
@@ -216,6 +244,30 @@ public class PropertiesController extends AbstractController {
         return ResponseEntity.ok(propertiesEventOutputs);
     }
 
+    @ApiOperation("Stream the whole history of raw values for module properties or global properties, from first to last")
+    @GetMapping("/{application_name}/platforms/{platform_name:.+}/properties/events/stream")
+    public ResponseEntity<StreamingResponseBody> streamPropertiesEvents(Authentication authentication,
+                                                                        @PathVariable("application_name") final String applicationName,
+                                                                        @PathVariable("platform_name") final String platformName,
+                                                                        @RequestParam(value = "properties_path") final String propertiesPath) {
+
+        User user = new User(authentication);
+        Platform.Key platformKey = new Platform.Key(applicationName, platformName);
+        // Les vérifications (plateforme existante, droits) sont faites avant l'écriture de la réponse,
+        // les évènements sont ensuite lus et sérialisés au fur et à mesure
+        Iterator<PropertiesEventView> propertiesEventViews = propertiesUseCases.streamPropertiesEvents(user, platformKey, propertiesPath).iterator();
+        StreamingResponseBody responseBody = outputStream -> {
+            JsonWriter jsonWriter = new JsonWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            jsonWriter.beginArray();
+            while (propertiesEventViews.hasNext()) {
+                gson.toJson(new PropertiesEventOutput(propertiesEventViews.next()), PropertiesEventOutput.class, jsonWriter);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(responseBody);
+    }
+
     @ApiIgnore
     @GetMapping("/all_passwords")
     public ResponseEntity<List<?>> getPasswords(Authentication authentication,
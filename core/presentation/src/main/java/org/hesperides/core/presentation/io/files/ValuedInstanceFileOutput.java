@@ -0,0 +1,48 @@
+/*
+ *
+ * This file is part of the Hesperides distribution.
+ * (https://github.com/voyages-sncf-technologies/hesperides)
+ * Copyright (c) 2016 VSCT.
+ *
+ * Hesperides is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, version 3.
+ *
+ * Hesperides is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package org.hesperides.core.presentation.io.files;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.hesperides.core.domain.files.InstanceFileView;
+import org.hesperides.core.domain.files.ValuedInstanceFileView;
+
+import java.util.Optional;
+
+@Value
+@AllArgsConstructor
+public class ValuedInstanceFileOutput {
+
+    String name;
+    String filename;
+    String location;
+    InstanceFileOutput.Rights rights;
+    String content;
+
+    public ValuedInstanceFileOutput(ValuedInstanceFileView valuedInstanceFileView) {
+        InstanceFileView instanceFileView = valuedInstanceFileView.getFile();
+        name = instanceFileView.getName();
+        filename = instanceFileView.getFilename();
+        location = instanceFileView.getLocation();
+        rights = Optional.ofNullable(instanceFileView.getRights()).map(InstanceFileOutput.Rights::new).orElse(null);
+        content = valuedInstanceFileView.getContent();
+    }
+}
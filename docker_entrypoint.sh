@@ -13,6 +13,8 @@ else
     fi
 
     mongo $MONGO_URI mongo_create_collections.js
+    mongo $MONGO_URI mongo_backfill_properties_path.js
+    mongo $MONGO_URI mongo_backfill_deleted_platforms.js
 fi
 
 # If args were passed to this script, execute them as a command, else do nothing:
@@ -0,0 +1,42 @@
+// Ajoute à la collection "deleted_platform" les plateformes supprimées avant qu'elle ne soit alimentée
+// par l'application (cf. MongoPlatformProjectionRepository.onPlatformDeletedEvent).
+// Seule la dernière suppression d'une plateforme est retenue, et uniquement si elle n'a pas été restaurée depuis.
+// Ce script parcourt tout l'event store : lancé à chaque démarrage (cf. docker_entrypoint.sh), il n'agit qu'une fois,
+// ce qu'il consigne dans la collection "migration". Supprimer ce document permet de le relancer sans risque :
+// les plateformes déjà présentes dans la collection ne sont pas modifiées.
+// Il doit être lancé avant la compression des payloads (cf. mongo_compress_event_payloads.js).
+const migrationId = 'backfill_deleted_platforms';
+if (db.migration.findOne({_id: migrationId})) {
+    print('deleted_platform already backfilled');
+    quit();
+}
+const unescapeXml = s => s.replace(/&lt;/g, '<').replace(/&gt;/g, '>').replace(/&quot;/g, '"').replace(/&apos;/g, "'").replace(/&amp;/g, '&');
+const extract = (payload, tag) => {
+    const match = new RegExp('<' + tag + '>([^<]*)</' + tag + '>').exec(payload);
+    return match ? unescapeXml(match[1]) : null;
+};
+let count = 0;
+db.domainevents.find(
+    {payloadType: 'org.hesperides.core.domain.platforms.PlatformDeletedEvent', serializedPayload: /^</},
+    {aggregateIdentifier: 1, sequenceNumber: 1, timestamp: 1, serializedPayload: 1}
+).sort({timestamp: -1}).forEach(event => {
+    const applicationName = extract(event.serializedPayload, 'applicationName');
+    const platformName = extract(event.serializedPayload, 'platformName');
+    const restored = db.domainevents.countDocuments({
+        aggregateIdentifier: event.aggregateIdentifier,
+        sequenceNumber: {$gt: event.sequenceNumber},
+        payloadType: 'org.hesperides.core.domain.platforms.RestoreDeletedPlatformEvent'
+    }) > 0;
+    if (applicationName === null || platformName === null || restored) {
+        return;
+    }
+    const result = db.deleted_platform.updateOne(
+        {_id: event.aggregateIdentifier},
+        {$setOnInsert: {key: {applicationName, platformName}, deletionTimestamp: new Date(event.timestamp)}},
+        {upsert: true});
+    if (result.upsertedId) {
+        count++;
+    }
+});
+db.migration.insertOne({_id: migrationId, date: new Date(), count});
+print('deleted_platform backfilled with', count, 'platforms');
@@ -0,0 +1,24 @@
+// Ajoute le champ "propertiesPath" aux évènements PlatformModulePropertiesUpdatedEvent enregistrés
+// avant qu'il ne soit renseigné par l'application (cf. PropertiesPathEventStorageStrategy).
+// Ce script parcourt tout l'event store : lancé à chaque démarrage (cf. docker_entrypoint.sh), il n'agit qu'une fois,
+// ce qu'il consigne dans la collection "migration". Supprimer ce document permet de le relancer sans risque :
+// seuls les évènements n'ayant pas encore ce champ sont traités.
+const migrationId = 'backfill_properties_path';
+if (db.migration.findOne({_id: migrationId})) {
+    print('propertiesPath already backfilled');
+    quit();
+}
+const unescapeXml = s => s.replace(/&lt;/g, '<').replace(/&gt;/g, '>').replace(/&quot;/g, '"').replace(/&apos;/g, "'").replace(/&amp;/g, '&');
+let count = 0;
+db.domainevents.find(
+    {payloadType: 'org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent', propertiesPath: {$exists: false}},
+    {serializedPayload: 1}
+).forEach(event => {
+    const match = /<propertiesPath>([^<]*)<\/propertiesPath>/.exec(event.serializedPayload);
+    if (match) {
+        db.domainevents.updateOne({_id: event._id}, {$set: {propertiesPath: unescapeXml(match[1])}});
+        count++;
+    }
+});
+db.migration.insertOne({_id: migrationId, date: new Date(), count});
+print('propertiesPath backfilled on', count, 'events');
@@ -0,0 +1,42 @@
+// Compresse les payloads XML des évènements existants dans le format de CompressedXStreamSerializer :
+// XML compressé (zlib) puis encodé en Base64.
+// Ce script nécessite mongosh (module zlib de Node.js) : il ne peut pas être lancé depuis l'image Docker,
+// qui ne fournit que l'ancien shell mongo 4.2, et doit donc l'être depuis un autre poste ayant accès à la base.
+// L'application lisant les 2 formats, ce script peut être lancé application démarrée, et relancé sans risque :
+// seules les payloads encore au format XML (commençant par "<") sont traitées.
+// Le champ propertiesPath et la collection deleted_platform doivent avoir été renseignés au préalable
+// (cf. mongo_backfill_properties_path.js et mongo_backfill_deleted_platforms.js).
+//   mongosh mongodb://localhost:27017/hesperides mongo_compress_event_payloads.js
+// Passer DECOMPRESS=true (mongosh --eval 'DECOMPRESS=true' --file ...) permet le retour au format XML.
+if (typeof require === 'undefined') {
+    print('This script requires mongosh, it cannot be run with the legacy mongo shell');
+    quit(1);
+}
+const zlib = require('zlib');
+const decompress = typeof DECOMPRESS !== 'undefined' && DECOMPRESS;
+const BATCH_SIZE = 500;
+let count = 0;
+let savedBytes = 0;
+let operations = [];
+const flush = () => {
+    if (operations.length > 0) {
+        db.domainevents.bulkWrite(operations, {ordered: false});
+        operations = [];
+    }
+};
+db.domainevents.find(
+    {serializedPayload: decompress ? {$not: /^</} : /^</},
+    {serializedPayload: 1}
+).forEach(event => {
+    const payload = decompress
+        ? zlib.inflateSync(Buffer.from(event.serializedPayload, 'base64')).toString('utf8')
+        : zlib.deflateSync(Buffer.from(event.serializedPayload, 'utf8')).toString('base64');
+    operations.push({updateOne: {filter: {_id: event._id}, update: {$set: {serializedPayload: payload}}}});
+    savedBytes += event.serializedPayload.length - payload.length;
+    count++;
+    if (operations.length >= BATCH_SIZE) {
+        flush();
+    }
+});
+flush();
+print(decompress ? 'Decompressed' : 'Compressed', count, 'event payloads,', savedBytes, 'characters saved');
@@ -1,5 +1,6 @@
 package org.hesperides.test.bdd.configuration;
 
+import net.sf.ehcache.CacheManager;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,8 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 public class TestDatabaseCleaner {
     @Autowired
     private MongoTemplate mongoTemplate;
+    @Autowired
+    private CacheManager cacheManager;
 
     public void wipeOutCollections() {
         for (String collection : mongoTemplate.getCollectionNames()) {
@@ -16,5 +19,7 @@ public class TestDatabaseCleaner {
             // les collations créées dans mongo_create_collections.js
             mongoTemplate.getCollection(collection).deleteMany(new Document());
         }
+        // Les plateformes recréées par le scénario suivant auront les mêmes identifiants et versionId
+        cacheManager.clearAll();
     }
 }
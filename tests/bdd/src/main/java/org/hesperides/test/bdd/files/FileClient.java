@@ -21,6 +21,7 @@
 package org.hesperides.test.bdd.files;
 
 import org.hesperides.core.presentation.io.files.InstanceFileOutput;
+import org.hesperides.core.presentation.io.files.ValuedInstanceFileOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -58,6 +59,31 @@ public class FileClient {
                 simulate);
     }
 
+    public void getValuedFiles(
+            String applicationName,
+            String platformName,
+            String modulePath,
+            String moduleName,
+            String moduleVersion,
+            String instanceName,
+            boolean isWorkingCopy,
+            boolean simulate,
+            String tryTo) {
+
+        restTemplate.getForEntity("/applications/{application_name}/platforms/{platform_name}" +
+                        "/{module_path}/{module_name}/{module_version}/instances/{instance_name}/valued_files" +
+                        "?isWorkingCopy={is_working_copy}&simulate={simulate}",
+                getResponseType(tryTo, ValuedInstanceFileOutput[].class),
+                applicationName,
+                platformName,
+                modulePath,
+                moduleName,
+                moduleVersion,
+                instanceName,
+                isWorkingCopy,
+                simulate);
+    }
+
     public void getFile(
             String applicationName,
             String platformName,
@@ -22,6 +22,7 @@ package org.hesperides.test.bdd.files.scenarios;
 
 import io.cucumber.java8.En;
 import org.hesperides.core.presentation.io.files.InstanceFileOutput;
+import org.hesperides.core.presentation.io.files.ValuedInstanceFileOutput;
 import org.hesperides.test.bdd.commons.HesperidesScenario;
 import org.hesperides.test.bdd.files.FileBuilder;
 import org.hesperides.test.bdd.files.FileClient;
@@ -31,6 +32,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
@@ -65,6 +68,21 @@ public class GetFiles extends HesperidesScenario implements En {
                     tryTo);
         });
 
+        When("^I( try to)? get the (instance|module)? valued files$", (String tryTo, String instanceOrModule) -> {
+
+            fileBuilder.setSimulate("module".equals(instanceOrModule));
+            fileClient.getValuedFiles(
+                    platformBuilder.getApplicationName(),
+                    platformBuilder.getPlatformName(),
+                    fileBuilder.buildModulePath(),
+                    moduleBuilder.getName(),
+                    moduleBuilder.getVersion(),
+                    fileBuilder.buildInstanceName(),
+                    moduleBuilder.isWorkingCopy(),
+                    fileBuilder.isSimulate(),
+                    tryTo);
+        });
+
         Then("^the files are successfully retrieved$", () -> {
             assertOK();
             List<InstanceFileOutput> expectedFiles = fileBuilder.buildInstanceFileOutputs();
@@ -72,6 +90,39 @@ public class GetFiles extends HesperidesScenario implements En {
             assertEquals(expectedFiles, actualFiles);
         });
 
+        Then("^the valued files are successfully retrieved$", () -> {
+            assertOK();
+            List<InstanceFileOutput> expectedFiles = fileBuilder.buildInstanceFileOutputs();
+            List<ValuedInstanceFileOutput> actualFiles = testContext.getResponseBodyAsList();
+            assertEquals(expectedFiles.size(), actualFiles.size());
+            for (int i = 0; i < expectedFiles.size(); i++) {
+                InstanceFileOutput expectedFile = expectedFiles.get(i);
+                ValuedInstanceFileOutput actualFile = actualFiles.get(i);
+                assertEquals(expectedFile.getName(), actualFile.getName());
+                assertEquals(expectedFile.getFilename(), actualFile.getFilename());
+                assertEquals(expectedFile.getLocation(), actualFile.getLocation());
+                assertEquals(expectedFile.getRights(), actualFile.getRights());
+            }
+        });
+
+        Then("^the valued file content is$", (String expectedContent) -> {
+            assertOK();
+            List<ValuedInstanceFileOutput> actualFiles = testContext.getResponseBodyAsList();
+            assertEquals(expectedContent, defaultString(actualFiles.get(0).getContent(), ""));
+        });
+
+        Then("^there are( no)? obfuscated password properties in the valued files$", (String no) -> {
+            assertOK();
+            List<ValuedInstanceFileOutput> actualFiles = testContext.getResponseBodyAsList();
+            actualFiles.forEach(file -> {
+                if (isEmpty(no)) {
+                    assertThat(file.getContent(), containsString("********"));
+                } else {
+                    assertThat(file.getContent(), not(containsString("********")));
+                }
+            });
+        });
+
         Then("^the JSON output does not contain escaped characters$", () -> {
             assertOK();
             String actualOutput = testContext.getResponseBody();
@@ -331,6 +331,15 @@ public class PlatformClient {
                 propertiesPath);
     }
 
+    public void streamPropertiesEvents(PlatformIO platform, String propertiesPath) {
+        restTemplate.getForEntity(
+                "/applications/{application_name}/platforms/{platform_name}/properties/events/stream?properties_path={properties_path}",
+                PropertiesEventOutput[].class,
+                platform.getApplicationName(),
+                platform.getPlatformName(),
+                propertiesPath);
+    }
+
     public void getAllApplicationsPasswords() {
         restTemplate.getForEntity("/applications/all_passwords", String.class);
     }
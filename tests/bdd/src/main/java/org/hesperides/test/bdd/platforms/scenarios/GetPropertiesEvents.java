@@ -18,6 +18,7 @@ import java.util.Map;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
 import static org.hesperides.test.bdd.commons.DataTableHelper.decodeValue;
 
 public class GetPropertiesEvents extends HesperidesScenario implements En {
@@ -37,6 +38,15 @@ public class GetPropertiesEvents extends HesperidesScenario implements En {
             platformClient.getPropertiesEvents(platformBuilder.buildInput(), propertiesPath, page, size);
         });
 
+        When("^I stream the( global)? properties events$", (String globalProperties) -> {
+            String propertiesPath = isEmpty(globalProperties) ? deployedModuleBuilder.buildPropertiesPath() : "#";
+            platformClient.streamPropertiesEvents(platformBuilder.buildInput(), propertiesPath);
+        });
+
+        Then("^(\\d) properties events are streamed$", (Integer expectedCount) -> {
+            assertEquals(expectedCount.intValue(), testContext.getResponseBody(PropertiesEventOutput[].class).length);
+        });
+
         Then("^the properties event at index (\\d) has these (added|updated|removed) properties$", (
                 Integer eventIndex, String changeNature, DataTable dataTable) -> {
 
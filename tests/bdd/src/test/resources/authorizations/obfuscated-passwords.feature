@@ -15,6 +15,13 @@ Feature: Obfuscate passwords on prod platforms to non-prod users
     When I get the module template file
     Then there are obfuscated password properties in the file
 
+  Scenario: restrict access to password properties on prod platforms when requesting all the valued files
+    Given an existing module with a template and password properties
+    And an existing prod platform with this module and valued properties
+    And an authenticated lambda user
+    When I get the module valued files
+    Then there are obfuscated password properties in the valued files
+
   Scenario: a property in a file is obfuscated if it is tagged as a password in another template
     Given a template named "a" with the following content
       """
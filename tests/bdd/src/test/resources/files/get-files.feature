@@ -109,3 +109,31 @@ Feature: Get instance or module files
     And an existing platform with this module
     When I try to get the module files
     Then the JSON output does not contain escaped characters
+
+  Scenario: get valued files of an instance
+    Given an existing techno with a template
+    And an existing module with a template and this techno
+    And an existing platform with this module and an instance
+    When I get the instance valued files
+    Then the valued files are successfully retrieved
+
+  Scenario: get valued files of a deployed module
+    Given an existing module with this template content
+      """
+      {{ simple-property }}
+      """
+    And an existing platform with this module
+    And the platform has these valued properties
+      | name            | value       |
+      | simple-property | first-value |
+    When I get the module valued files
+    Then the valued file content is
+      """
+      first-value
+      """
+
+  Scenario: get valued files of an instance that doesn't exist
+    Given an existing module
+    And an existing platform with this module
+    When I try to get the instance valued files
+    Then the resource is not found
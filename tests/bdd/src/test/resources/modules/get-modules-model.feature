@@ -36,6 +36,15 @@ Feature: Get module model
     When I get the model of this module
     Then the model of this module contains the updated properties
 
+  Scenario: get the model of a module after an update of its techno template
+    Given an existing techno with properties
+    And an existing module with properties and this techno
+    And the techno template properties are modified
+    When I get the model of this module
+    Then the model of property "patate"
+    And the model of property "techno-foo"
+    And the model of property "module-foo"
+
   Scenario: get the model of a module with properties with the same name and comment but different default values in multiple templates
     Given an existing module with properties with the same name and comment, but different default values, in two templates
     When I get the model of this module
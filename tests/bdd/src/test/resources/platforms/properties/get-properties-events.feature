@@ -167,3 +167,64 @@ Feature: Get properties events
     Then the properties event at index 0 has these added properties
       | name     | value |
       | property | val-1 |
+
+  Scenario: stream properties events
+    Given an existing module with this template content
+      """
+      {{ property }}
+      {{ other-property }}
+      """
+    And an existing platform with this module
+    And the platform has these valued properties
+      | name     | value |
+      | property | val-1 |
+    And the platform has these valued properties
+      | name     | value |
+      | property | val-2 |
+    And the platform has these valued properties
+      | name     | value |
+      | property | val-2 |
+    And the platform has these valued properties
+      | name           | value |
+      | property       | val-3 |
+      | other-property | val   |
+    And the platform has these valued properties
+      | name           | value |
+      | other-property | val   |
+    When I stream the properties events
+    Then 4 properties events are streamed
+    And the properties event at index 0 has these added properties
+      | name     | value |
+      | property | val-1 |
+    And the properties event at index 1 has these updated properties
+      | name     | old_value | new_value |
+      | property | val-1     | val-2     |
+    And the properties event at index 2 has these added properties
+      | name           | value |
+      | other-property | val   |
+    And the properties event at index 2 has these updated properties
+      | name     | old_value | new_value |
+      | property | val-2     | val-3     |
+    And the properties event at index 3 has these removed properties
+      | name     | value |
+      | property | val-3 |
+
+  Scenario: stream global properties events
+    Given an existing platform
+    And the platform has these global properties
+      | name     | value |
+      | property | val-1 |
+    And the platform has these global properties
+      | name     | value |
+      | property | val-2 |
+    And the platform has these global properties
+      | name     | value |
+      | property | val-3 |
+    When I stream the global properties events
+    Then 3 properties events are streamed
+    And the properties event at index 0 has these added properties
+      | name     | value |
+      | property | val-1 |
+    And the properties event at index 2 has these updated properties
+      | name     | old_value | new_value |
+      | property | val-2     | val-3     |
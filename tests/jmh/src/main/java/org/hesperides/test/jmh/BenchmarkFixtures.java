@@ -0,0 +1,220 @@
+package org.hesperides.test.jmh;
+
+import org.hesperides.core.domain.platforms.queries.views.DeployedModuleView;
+import org.hesperides.core.domain.platforms.queries.views.InstanceView;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.platforms.queries.views.properties.AbstractValuedPropertyView;
+import org.hesperides.core.domain.platforms.queries.views.properties.IterablePropertyItemView;
+import org.hesperides.core.domain.platforms.queries.views.properties.IterableValuedPropertyView;
+import org.hesperides.core.domain.platforms.queries.views.properties.ValuedPropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.IterablePropertyView;
+import org.hesperides.core.domain.templatecontainers.queries.PropertyView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Jeux de données générés de manière déterministe, afin que les résultats
+ * restent comparables d'une version à l'autre :
+ * - des centaines de propriétés de module, dont une partie fait référence à d'autres propriétés,
+ * aux propriétés globales ou aux propriétés d'instance ;
+ * - des propriétés itérables imbriquées sur 3 niveaux ;
+ * - des propriétés globales faisant référence à d'autres propriétés globales.
+ */
+public class BenchmarkFixtures {
+
+    static final int ITERABLE_DEPTH = 3;
+
+    private final int modulePropertiesCount;
+    private final int globalPropertiesCount;
+    private final int iterablePropertiesCount;
+    private final int iterableItemsCount;
+
+    public BenchmarkFixtures(int modulePropertiesCount, int globalPropertiesCount, int iterablePropertiesCount, int iterableItemsCount) {
+        this.modulePropertiesCount = modulePropertiesCount;
+        this.globalPropertiesCount = globalPropertiesCount;
+        this.iterablePropertiesCount = iterablePropertiesCount;
+        this.iterableItemsCount = iterableItemsCount;
+    }
+
+    /*** Modèle de propriétés ***/
+
+    public List<String> propertyDefinitions() {
+        return IntStream.range(0, modulePropertiesCount)
+                .mapToObj(this::propertyDefinition)
+                .collect(Collectors.toList());
+    }
+
+    private String propertyDefinition(int index) {
+        switch (index % 4) {
+            case 0:
+                return moduleProperty(index);
+            case 1:
+                return moduleProperty(index) + " | @required @comment \"commentaire " + index + "\"";
+            case 2:
+                return moduleProperty(index) + " | @default 'valeur " + index + "' @pattern '[a-z0-9 ]+'";
+            default:
+                return moduleProperty(index) + " | @password @comment 'mot de passe'";
+        }
+    }
+
+    /**
+     * Contenu d'un template représentatif : des propriétés simples annotées
+     * et des itérables imbriqués sur 3 niveaux.
+     */
+    public String templateContent() {
+        StringBuilder content = new StringBuilder();
+        propertyDefinitions().forEach(definition -> content.append("key.").append(content.length()).append("={{").append(definition).append("}}\n"));
+        IntStream.range(0, iterablePropertiesCount).forEach(index -> appendIterableBlock(content, iterableProperty(index), 0));
+        return content.toString();
+    }
+
+    private void appendIterableBlock(StringBuilder content, String iterableName, int depth) {
+        content.append("{{#").append(iterableName).append("}}\n");
+        IntStream.range(0, 5).forEach(index -> content.append("  ").append(iterableName).append(".").append(index)
+                .append("={{").append(iterableField(index)).append(" | @default 'd").append(index).append("'}}\n"));
+        if (depth + 1 < ITERABLE_DEPTH) {
+            appendIterableBlock(content, iterableName + "_child", depth + 1);
+        }
+        content.append("{{/").append(iterableName).append("}}\n");
+    }
+
+    public List<AbstractPropertyView> modulePropertiesModels() {
+        List<AbstractPropertyView> models = new ArrayList<>();
+        IntStream.range(0, modulePropertiesCount).forEach(index -> models.add(new PropertyView(
+                moduleProperty(index), moduleProperty(index), index % 4 == 1, "", index % 4 == 2 ? "valeur " + index : "", "", index % 4 == 3)));
+        IntStream.range(0, iterablePropertiesCount).forEach(index -> models.add(iterablePropertyModel(iterableProperty(index), 0)));
+        return models;
+    }
+
+    private IterablePropertyView iterablePropertyModel(String name, int depth) {
+        List<AbstractPropertyView> properties = IntStream.range(0, 5)
+                .mapToObj(index -> new PropertyView(iterableField(index), iterableField(index), false, "", "d" + index, "", false))
+                .collect(Collectors.toList());
+        if (depth + 1 < ITERABLE_DEPTH) {
+            properties.add(iterablePropertyModel(name + "_child", depth + 1));
+        }
+        return new IterablePropertyView(name, properties);
+    }
+
+    /*** Valorisations ***/
+
+    public PlatformView platform() {
+        return platform(0);
+    }
+
+    /**
+     * @param modifiedValuesPercentage pourcentage des valeurs de module modifiées, afin de comparer deux plateformes
+     */
+    public PlatformView platform(int modifiedValuesPercentage) {
+        String modulePath = "#GROUP#SUBGROUP";
+        List<InstanceView> instances = IntStream.range(0, 4)
+                .mapToObj(index -> new InstanceView("instance" + index, instanceProperties(index)))
+                .collect(Collectors.toList());
+        DeployedModuleView deployedModule = new DeployedModuleView(
+                1L,
+                1L,
+                "module",
+                "1.0.0",
+                true,
+                modulePath,
+                modulePath + "#module#1.0.0#WORKINGCOPY",
+                instances,
+                moduleValuedProperties(modifiedValuesPercentage),
+                Collections.singletonList("instance_property")
+        );
+        return new PlatformView(
+                "platform-id",
+                "PLATFORM",
+                "APP",
+                "1.0",
+                false,
+                Collections.singletonList(deployedModule),
+                1L,
+                1L,
+                globalProperties()
+        );
+    }
+
+    private List<ValuedPropertyView> instanceProperties(int instanceIndex) {
+        return Collections.singletonList(new ValuedPropertyView("instance_property", "instance-value-" + instanceIndex));
+    }
+
+    private List<ValuedPropertyView> globalProperties() {
+        // Chaque propriété globale fait référence à la précédente
+        return IntStream.range(0, globalPropertiesCount)
+                .mapToObj(index -> new ValuedPropertyView(globalProperty(index),
+                        index == 0 ? "root" : "{{" + globalProperty(index - 1) + "}}/g" + index))
+                .collect(Collectors.toList());
+    }
+
+    private List<AbstractValuedPropertyView> moduleValuedProperties(int modifiedValuesPercentage) {
+        List<AbstractValuedPropertyView> valuedProperties = new ArrayList<>();
+        IntStream.range(0, modulePropertiesCount).forEach(index -> {
+            String value = moduleValue(index);
+            if (index % 100 < modifiedValuesPercentage) {
+                value += "-modified";
+            }
+            valuedProperties.add(new ValuedPropertyView(moduleProperty(index), value));
+        });
+        // Valorisations sans modèle correspondant
+        IntStream.range(0, modulePropertiesCount / 10).forEach(index ->
+                valuedProperties.add(new ValuedPropertyView("without_model_" + index, "value " + index)));
+        IntStream.range(0, iterablePropertiesCount).forEach(index ->
+                valuedProperties.add(iterableValuedProperty(iterableProperty(index), 0)));
+        return valuedProperties;
+    }
+
+    private String moduleValue(int index) {
+        // Un tiers des valeurs sont littérales, les autres font référence à une propriété globale,
+        // à une propriété d'instance, à une propriété prédéfinie ou à une autre propriété de module
+        switch (index % 6) {
+            case 0:
+            case 1:
+                return "literal value " + index;
+            case 2:
+                return "{{" + globalProperty(index % globalPropertiesCount) + "}}/m" + index;
+            case 3:
+                return "{{instance_property}}-" + index;
+            case 4:
+                return "{{hesperides.platform.name}}-{{hesperides.instance.name}}";
+            default:
+                return "{{" + moduleProperty(index / 2) + "}}+" + index;
+        }
+    }
+
+    private IterableValuedPropertyView iterableValuedProperty(String name, int depth) {
+        List<IterablePropertyItemView> items = IntStream.range(0, iterableItemsCount).mapToObj(itemIndex -> {
+            List<AbstractValuedPropertyView> itemProperties = IntStream.range(0, 5)
+                    .mapToObj(index -> new ValuedPropertyView(iterableField(index), "item" + itemIndex + "-{{" + globalProperty(index % globalPropertiesCount) + "}}"))
+                    .collect(Collectors.toList());
+            if (depth + 1 < ITERABLE_DEPTH) {
+                itemProperties.add(iterableValuedProperty(name + "_child", depth + 1));
+            }
+            return new IterablePropertyItemView("item" + itemIndex, itemProperties);
+        }).collect(Collectors.toList());
+        return new IterableValuedPropertyView(name, items);
+    }
+
+    /*** Nommage ***/
+
+    private static String moduleProperty(int index) {
+        return "module.property." + index;
+    }
+
+    private static String globalProperty(int index) {
+        return "global.property." + index;
+    }
+
+    private static String iterableProperty(int index) {
+        return "iterable" + index;
+    }
+
+    private static String iterableField(int index) {
+        return "field" + index;
+    }
+}
@@ -0,0 +1,53 @@
+package org.hesperides.test.jmh;
+
+import org.axonframework.serialization.SerializedObject;
+import org.hesperides.core.domain.platforms.PlatformModulePropertiesUpdatedEvent;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.infrastructure.mongo.events.CompressedXStreamSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hesperides.core.domain.platforms.queries.views.properties.AbstractValuedPropertyView.toDomainAbstractValuedProperties;
+
+/**
+ * Sérialisation XStream d'un payload d'évènement de valorisation des propriétés d'un module,
+ * tel que stocké en base : en XML (compressed = false) ou en XML compressé (compressed = true).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EventPayloadSerializationBenchmark {
+
+    @Param({"100", "500"})
+    int modulePropertiesCount;
+
+    @Param({"false", "true"})
+    boolean compressed;
+
+    private CompressedXStreamSerializer serializer;
+    private PlatformModulePropertiesUpdatedEvent event;
+    private SerializedObject<String> serializedEvent;
+
+    @Setup
+    public void setUp() {
+        PlatformView platform = new BenchmarkFixtures(modulePropertiesCount, 30, 3, 4).platform();
+        event = new PlatformModulePropertiesUpdatedEvent(platform.getId(), "#GROUP#SUBGROUP#module#1.0#WORKINGCOPY", 1L, 1L,
+                toDomainAbstractValuedProperties(platform.getDeployedModules().get(0).getValuedProperties()), "", "user");
+        serializer = new CompressedXStreamSerializer(compressed);
+        serializedEvent = serializer.serialize(event, String.class);
+    }
+
+    @Benchmark
+    public SerializedObject<String> serialize() {
+        return serializer.serialize(event, String.class);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serializedEvent);
+    }
+}
@@ -0,0 +1,71 @@
+package org.hesperides.test.jmh;
+
+import org.hesperides.core.application.platforms.properties.PropertyType;
+import org.hesperides.core.application.platforms.properties.PropertyValuationBuilder;
+import org.hesperides.core.application.platforms.properties.PropertyValuationContext;
+import org.hesperides.core.domain.platforms.entities.properties.diff.PropertiesDiff;
+import org.hesperides.core.domain.platforms.entities.properties.diff.PropertiesDiff.ComparisonMode;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.queries.views.DeployedModuleView;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparaison des propriétés de deux modules déployés, dont une partie des valeurs diffère.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertiesDiffBenchmark {
+
+    @Param({"100", "500"})
+    int modulePropertiesCount;
+
+    @Param({"10"})
+    int modifiedValuesPercentage;
+
+    private PropertyVisitorsSequence storedLeft;
+    private PropertyVisitorsSequence storedRight;
+    private PropertyVisitorsSequence finalLeft;
+    private PropertyVisitorsSequence finalRight;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(modulePropertiesCount, 30, 3, 4);
+        List<AbstractPropertyView> modulePropertiesModels = fixtures.modulePropertiesModels();
+        PlatformView left = fixtures.platform();
+        PlatformView right = fixtures.platform(modifiedValuesPercentage);
+        storedLeft = storedProperties(modulePropertiesModels, left);
+        storedRight = storedProperties(modulePropertiesModels, right);
+        finalLeft = finalProperties(storedLeft, left);
+        finalRight = finalProperties(storedRight, right);
+    }
+
+    private static PropertyVisitorsSequence storedProperties(List<AbstractPropertyView> modulePropertiesModels, PlatformView platform) {
+        return PropertyVisitorsSequence.fromModelAndValuedProperties(modulePropertiesModels, platform.getDeployedModules().get(0).getValuedProperties(), true);
+    }
+
+    private static PropertyVisitorsSequence finalProperties(PropertyVisitorsSequence storedProperties, PlatformView platform) {
+        DeployedModuleView deployedModule = platform.getDeployedModules().get(0);
+        PropertyValuationContext valuationContext = PropertyValuationBuilder.buildValuationContext(storedProperties, deployedModule, platform, deployedModule.getInstances().get(0).getName());
+        return PropertyValuationBuilder.buildFinalPropertyVisitorsSequence(valuationContext, storedProperties, EnumSet.of(PropertyType.GLOBAL, PropertyType.WITHOUT_MODEL));
+    }
+
+    @Benchmark
+    public PropertiesDiff storedPropertiesDiff() {
+        return new PropertiesDiff(storedLeft, storedRight, ComparisonMode.STORED);
+    }
+
+    @Benchmark
+    public PropertiesDiff finalPropertiesDiff() {
+        return new PropertiesDiff(finalLeft, finalRight, ComparisonMode.FINAL);
+    }
+}
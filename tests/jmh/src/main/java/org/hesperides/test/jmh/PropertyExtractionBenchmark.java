@@ -0,0 +1,62 @@
+package org.hesperides.test.jmh;
+
+import org.hesperides.core.domain.templatecontainers.entities.AbstractProperty;
+import org.hesperides.core.domain.templatecontainers.entities.CompiledMustacheCache;
+import org.hesperides.core.domain.templatecontainers.entities.Property;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extraction des propriétés d'un template, effectuée à chaque création ou mise à jour de template
+ * et lors de la récupération du modèle de propriétés d'un module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyExtractionBenchmark {
+
+    @Param({"100", "500"})
+    int modulePropertiesCount;
+
+    private List<String> propertyDefinitions;
+    private String templateContent;
+    private String delimiterSetTemplateContent;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(modulePropertiesCount, 30, 3, 4);
+        propertyDefinitions = fixtures.propertyDefinitions();
+        templateContent = fixtures.templateContent();
+        // Redéfinit les délimiteurs à l'identique : seul le mode d'extraction change
+        delimiterSetTemplateContent = "{{={{ }}=}}" + templateContent;
+    }
+
+    @Benchmark
+    public void extractProperty(Blackhole blackhole) {
+        propertyDefinitions.forEach(definition -> blackhole.consume(Property.extractProperty(definition)));
+    }
+
+    /**
+     * Extraction par MustachePropertiesScanner, sans compilation du template
+     */
+    @Benchmark
+    public List<AbstractProperty> extractPropertiesFromStringContent() {
+        return AbstractProperty.extractPropertiesFromStringContent(templateContent);
+    }
+
+    /**
+     * Contenu non pris en charge par MustachePropertiesScanner (changement de délimiteurs) :
+     * l'extraction se rabat sur le moteur Mustache, compilation du template incluse dans la mesure
+     */
+    @Benchmark
+    public List<AbstractProperty> extractPropertiesUsingMustacheEngineWithoutCache() {
+        CompiledMustacheCache.getInstance().clear();
+        return AbstractProperty.extractPropertiesFromStringContent(delimiterSetTemplateContent);
+    }
+}
@@ -0,0 +1,68 @@
+package org.hesperides.test.jmh;
+
+import org.hesperides.core.application.files.FileUseCases;
+import org.hesperides.core.application.platforms.properties.PropertyType;
+import org.hesperides.core.application.platforms.properties.PropertyValuationBuilder;
+import org.hesperides.core.application.platforms.properties.PropertyValuationContext;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequence;
+import org.hesperides.core.domain.platforms.queries.views.DeployedModuleView;
+import org.hesperides.core.domain.platforms.queries.views.PlatformView;
+import org.hesperides.core.domain.templatecontainers.queries.AbstractPropertyView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Étapes successives de la valorisation des propriétés d'une instance,
+ * telles qu'enchaînées par la valorisation des fichiers et l'affichage des propriétés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyValuationBenchmark {
+
+    private static final EnumSet<PropertyType> PROPERTIES_TO_INCLUDE = EnumSet.of(PropertyType.GLOBAL, PropertyType.WITHOUT_MODEL);
+
+    @Param({"100", "500"})
+    int modulePropertiesCount;
+
+    private List<AbstractPropertyView> modulePropertiesModels;
+    private DeployedModuleView deployedModule;
+    private PropertyVisitorsSequence firstPropertyVisitorsSequence;
+    private PropertyValuationContext valuationContext;
+    private PropertyVisitorsSequence finalPropertyVisitorsSequence;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(modulePropertiesCount, 30, 3, 4);
+        modulePropertiesModels = fixtures.modulePropertiesModels();
+        PlatformView platform = fixtures.platform();
+        deployedModule = platform.getDeployedModules().get(0);
+        String instanceName = deployedModule.getInstances().get(0).getName();
+
+        firstPropertyVisitorsSequence = fromModelAndValuedProperties();
+        valuationContext = PropertyValuationBuilder.buildValuationContext(firstPropertyVisitorsSequence, deployedModule, platform, instanceName);
+        finalPropertyVisitorsSequence = buildFinalPropertyVisitorsSequence();
+    }
+
+    @Benchmark
+    public PropertyVisitorsSequence fromModelAndValuedProperties() {
+        return PropertyVisitorsSequence.fromModelAndValuedProperties(modulePropertiesModels, deployedModule.getValuedProperties(), true);
+    }
+
+    @Benchmark
+    public PropertyVisitorsSequence buildFinalPropertyVisitorsSequence() {
+        return PropertyValuationBuilder.buildFinalPropertyVisitorsSequence(valuationContext, firstPropertyVisitorsSequence, PROPERTIES_TO_INCLUDE);
+    }
+
+    @Benchmark
+    public Map<String, Object> propertiesToScopes() {
+        return FileUseCases.propertiesToScopes(finalPropertyVisitorsSequence);
+    }
+}
@@ -1,11 +1,20 @@
 package org.hesperides.test.mongo_integration.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import org.hesperides.core.domain.platforms.entities.properties.visitors.PropertyVisitorsSequenceCache;
 import org.hesperides.core.infrastructure.axon.AxonSnapshotConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
 
+import static org.hesperides.core.infrastructure.mongo.platforms.PlatformViewsCache.PLATFORM_VIEWS_CACHE_NAME;
+import static org.hesperides.core.infrastructure.mongo.platforms.PlatformsAtPointInTimeCache.PLATFORMS_AT_POINT_IN_TIME_CACHE_NAME;
 import static org.springframework.context.annotation.ComponentScan.Filter;
 
 @Configuration
@@ -16,5 +25,20 @@ import static org.springframework.context.annotation.ComponentScan.Filter;
 @ComponentScan(basePackages = {"org.hesperides.core.infrastructure.mongo"},
         excludeFilters = {@Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {AxonSnapshotConfiguration.class})})
 @ComponentScan(basePackages = {"org.hesperides.commons"})
+@Import(PropertyVisitorsSequenceCache.class)
 public class IntegTestConfig {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    // Les caches utilisés par les projections Mongo, configurés dans le fichier ehcache.xml de l'application
+    @Bean(destroyMethod = "shutdown")
+    public CacheManager cacheManager() {
+        return CacheManager.newInstance(new net.sf.ehcache.config.Configuration()
+                .name("mongo-integration")
+                .cache(new CacheConfiguration(PLATFORM_VIEWS_CACHE_NAME, 1000))
+                .cache(new CacheConfiguration(PLATFORMS_AT_POINT_IN_TIME_CACHE_NAME, 1000)));
+    }
 }